@@ -0,0 +1,130 @@
+package com.cardshifter.api.incoming;
+
+import java.util.Arrays;
+
+import com.cardshifter.api.ArrayUtil;
+import com.cardshifter.api.abstr.CardMessage;
+
+/**
+ * Message for performing several abilities in order, as one unit.
+ * <p>
+ * The abilities are performed one at a time in the order they are given.
+ * The server stops at the first ability that is not allowed, and sends the available actions once when the batch is done.
+ * The targets of all abilities are stored in one array, where <code>targetCounts</code> says how many of them
+ * belong to each ability.
+ */
+public class UseAbilitiesMessage extends CardMessage {
+
+	private final int gameId;
+	private final int[] ids;
+	private final String[] actions;
+	private final int[] targetCounts;
+	private final int[] targets;
+
+	/** Constructor. (no params) */
+	public UseAbilitiesMessage() {
+		this(0, new int[0], new String[0], new int[0], new int[0]);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param gameId  This current game
+	 * @param ids  The game entities performing each action
+	 * @param actions  The actions to perform
+	 * @param targetCounts  The number of targets for each action
+	 * @param targets  The targets of all the actions, in order
+	 */
+	public UseAbilitiesMessage(int gameId, int[] ids, String[] actions, int[] targetCounts, int[] targets) {
+		super("useAll");
+		if (ids.length != actions.length || ids.length != targetCounts.length) {
+			throw new IllegalArgumentException("Each ability needs an id, an action and a target count");
+		}
+		this.gameId = gameId;
+		this.ids = ArrayUtil.copyOf(ids);
+		this.actions = ArrayUtil.copyOf(actions);
+		this.targetCounts = ArrayUtil.copyOf(targetCounts);
+		this.targets = ArrayUtil.copyOf(targets);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param gameId  This current game
+	 * @param uses  The abilities to perform, in order
+	 */
+	public UseAbilitiesMessage(int gameId, UseAbilityMessage... uses) {
+		super("useAll");
+		this.gameId = gameId;
+		this.ids = new int[uses.length];
+		this.actions = new String[uses.length];
+		this.targetCounts = new int[uses.length];
+		int targetCount = 0;
+		for (UseAbilityMessage use : uses) {
+			targetCount += use.getTargets().length;
+		}
+		this.targets = new int[targetCount];
+		int targetIndex = 0;
+		for (int i = 0; i < uses.length; i++) {
+			int[] useTargets = uses[i].getTargets();
+			ids[i] = uses[i].getId();
+			actions[i] = uses[i].getAction();
+			targetCounts[i] = useTargets.length;
+			for (int target : useTargets) {
+				targets[targetIndex++] = target;
+			}
+		}
+	}
+
+	/** @return  This current game */
+	public int getGameId() {
+		return gameId;
+	}
+	/** @return  The game entities performing each action */
+	public int[] getIds() {
+		return ArrayUtil.copyOf(ids);
+	}
+	/** @return  The actions to perform */
+	public String[] getActions() {
+		return ArrayUtil.copyOf(actions);
+	}
+	/** @return  The number of targets for each action */
+	public int[] getTargetCounts() {
+		return ArrayUtil.copyOf(targetCounts);
+	}
+	/** @return  The targets of all the actions */
+	public int[] getTargets() {
+		return ArrayUtil.copyOf(targets);
+	}
+
+	/**
+	 * Split this message into one message for each ability
+	 *
+	 * @return  The abilities to perform, in order
+	 */
+	public UseAbilityMessage[] toUseMessages() {
+		UseAbilityMessage[] result = new UseAbilityMessage[ids.length];
+		int targetIndex = 0;
+		for (int i = 0; i < ids.length; i++) {
+			int[] useTargets = new int[targetCounts[i]];
+			for (int j = 0; j < useTargets.length; j++) {
+				useTargets[j] = targets[targetIndex++];
+			}
+			result[i] = new UseAbilityMessage(gameId, ids[i], actions[i], useTargets);
+		}
+		return result;
+	}
+
+	/** @return  This message as converted to String */
+	@Override
+	public String toString() {
+		return "UseAbilitiesMessage ["
+				+ "gameId=" + gameId
+				+ ", ids=" + Arrays.toString(ids)
+				+ ", actions=" + Arrays.toString(actions)
+				+ ", targetCounts=" + Arrays.toString(targetCounts)
+				+ ", targets=" + Arrays.toString(targets)
+			+ "]";
+	}
+
+}
@@ -12,6 +12,7 @@ import com.cardshifter.api.incoming.RequestTargetsMessage;
 import com.cardshifter.api.incoming.ServerQueryMessage;
 import com.cardshifter.api.incoming.StartGameRequest;
 import com.cardshifter.api.incoming.TransformerMessage;
+import com.cardshifter.api.incoming.UseAbilitiesMessage;
 import com.cardshifter.api.incoming.UseAbilityMessage;
 import com.cardshifter.api.outgoing.*;
 
@@ -36,6 +37,7 @@ public class MessageTypeIdResolver {
 		clazzes.put("login", LoginMessage.class);
 		clazzes.put("startgame", StartGameRequest.class);
 		clazzes.put("use", UseAbilityMessage.class);
+		clazzes.put("useAll", UseAbilitiesMessage.class);
 		clazzes.put("requestTargets", RequestTargetsMessage.class);
 		clazzes.put("zoneChange", ZoneChangeMessage.class);
 		clazzes.put("entityRemoved", EntityRemoveMessage.class);
@@ -52,6 +54,7 @@ public class MessageTypeIdResolver {
 		clazzes.put("zone", ZoneMessage.class);
 		clazzes.put("update", UpdateMessage.class);
 		clazzes.put("useable", UsableActionMessage.class);
+		clazzes.put("removeUseable", RemoveUsableActionMessage.class);
 		clazzes.put("targets", AvailableTargetsMessage.class);
 		clazzes.put("availableMods", AvailableModsMessage.class);
         clazzes.put("elimination", PlayerEliminatedMessage.class);
@@ -0,0 +1,42 @@
+package com.cardshifter.api.outgoing;
+
+import com.cardshifter.api.messages.Message;
+/** Communicates that an action which was usable can no longer be used. */
+public class RemoveUsableActionMessage extends Message {
+
+	private int id;
+	private String action;
+	
+	/** Constructor. (no params) */
+	public RemoveUsableActionMessage() {
+		this(0, "");
+	}
+	/**
+	 * Constructor.
+	 * 
+	 * @param id  This entity
+	 * @param action  This action
+	 */
+	public RemoveUsableActionMessage(int id, String action) {
+		super("removeUseable");
+		this.id = id;
+		this.action = action;
+	}
+	/** @return  This action */
+	public String getAction() {
+		return action;
+	}
+	/** @return  This entity */
+	public int getId() {
+		return id;
+	}
+	/** @return  This message as converted to String  */
+	@Override
+	public String toString() {
+		return "RemoveUsableActionMessage ["
+				+ "id=" + id 
+				+ ", action=" + action
+				+ "]";
+	}
+
+}
@@ -8,14 +8,17 @@ import net.zomis.aiscores.scorers.SimpleScorer;
 import net.zomis.cardshifter.ecs.config.ConfigComponent;
 import com.cardshifter.api.config.DeckConfig;
 import net.zomis.cardshifter.ecs.usage.CyborgChroniclesGame;
+import net.zomis.cardshifter.ecs.usage.CyborgChroniclesGame.CyborgChroniclesResources;
 
 import com.cardshifter.ai.phrancis.AttackAnalyze;
 import com.cardshifter.modapi.actions.ECSAction;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.resources.ResourceRetriever;
 
 public class AIs {
 	
 	private static FScorer<Entity, ECSAction> playActionScorer = new PredicateScorer<>(action -> action.getName().equals(CyborgChroniclesGame.PLAY_ACTION));
+	private static final ResourceRetriever health = ResourceRetriever.forResource(CyborgChroniclesResources.HEALTH);
 
 	public static ScoreConfigFactory<Entity, ECSAction> loser() {
 		ScoreConfigFactory<Entity, ECSAction> config = new ScoreConfigFactory<>();
@@ -51,6 +54,14 @@ public class AIs {
 		return config;
 	}
 
+	/**
+	 * @param player The player to evaluate
+	 * @return The health of the player, for AIs that evaluate how well a player is doing
+	 */
+	public static double playerHealth(Entity player) {
+		return health.getOrDefault(player, 0);
+	}
+
 	public static void mediumDeck(Entity entity, ConfigComponent config) {
 		DeckConfig deck = config.getConfig(DeckConfig.class);
 		createDeckFullWith(deck, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12); // All B0Ts
@@ -13,20 +13,20 @@ import com.cardshifter.modapi.actions.ECSAction;
 import com.cardshifter.modapi.actions.TargetSet;
 import com.cardshifter.modapi.ai.CardshifterAI;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameRandom;
 
 public class CompleteIdiot implements CardshifterAI {
 
 	private static final Logger logger = LogManager.getLogger(CompleteIdiot.class);
 	
-	private final Random random = new Random();
-	
 	@Override
 	public ECSAction getAction(Entity player) {
+		Random random = player.getGame().getGameRandom().stream(GameRandom.AI);
 		
 		Stream<ECSAction> actions = Actions.getPossibleActionsFor(player).stream();
 		
 		Stream<ECSAction> allActions = actions
-				.filter(action -> setTargetIfPossible(action));
+				.filter(action -> setTargetIfPossible(action, random));
 		List<ECSAction> list = allActions.collect(Collectors.toList());
 		logger.info(player + " allowed actions: " + list);
 		
@@ -52,7 +52,7 @@ public class CompleteIdiot implements CardshifterAI {
 		return list.get(random.nextInt(list.size()));
 	}
 
-	private boolean setTargetIfPossible(ECSAction action) {
+	private boolean setTargetIfPossible(ECSAction action, Random random) {
 		for (TargetSet targetset : action.getTargetSets()) {
 			targetset.clearTargets();
 			while (!targetset.hasEnoughTargets()) {
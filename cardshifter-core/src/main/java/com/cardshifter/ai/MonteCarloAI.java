@@ -0,0 +1,492 @@
+package com.cardshifter.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import net.zomis.aiscores.ScoreConfigFactory;
+import net.zomis.cardshifter.ecs.config.ConfigComponent;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import com.cardshifter.modapi.actions.Actions;
+import com.cardshifter.modapi.actions.ECSAction;
+import com.cardshifter.modapi.actions.TargetSet;
+import com.cardshifter.modapi.ai.AIComponent;
+import com.cardshifter.modapi.ai.CardshifterAI;
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameRandom;
+import com.cardshifter.modapi.base.PlayerComponent;
+import com.cardshifter.modapi.cards.CardComponent;
+import com.cardshifter.modapi.cards.ZoneComponent;
+import com.cardshifter.modapi.players.Players;
+
+/**
+ * An AI that searches for its action with Monte Carlo tree search, for as long as the delay of its {@link AIComponent}.
+ * <p>
+ * Each thread of a fork-join pool builds its own search tree on its own fork of the game, and the trees are combined at the end.
+ * Every iteration plays on a new fork in which the cards that the player cannot see, such as the hand and deck of the opponent,
+ * have been shuffled with random numbers derived from the {@link GameRandom#AI} stream, so the search does not cheat.
+ * The games are played to the end by a {@link ScoringAI} with the given scorers, with some random actions mixed in.
+ */
+public class MonteCarloAI implements CardshifterAI {
+
+	private static final Logger logger = LogManager.getLogger(MonteCarloAI.class);
+
+	/**
+	 * Time budget for players that do not have an {@link AIComponent}, in milliseconds
+	 */
+	private static final long DEFAULT_BUDGET = 1000;
+	private static final double EXPLORATION = Math.sqrt(2);
+	private static final int PLAYOUT_ACTIONS = 100;
+	private static final double PLAYOUT_RANDOM_ACTIONS = 0.1;
+
+	private final ScoringAI policy;
+	private final ToDoubleFunction<Entity> strength;
+	private final ForkJoinPool pool;
+	private final Semaphore searches;
+
+	/**
+	 * @param config Scorers for the AI that plays the games to the end
+	 * @param configuration Configures the player, such as choosing a deck
+	 * @param strength How well a player that is still in the game is doing, such as its health
+	 */
+	public MonteCarloAI(ScoreConfigFactory<Entity, ECSAction> config, BiConsumer<Entity, ConfigComponent> configuration,
+			ToDoubleFunction<Entity> strength) {
+		this(config, configuration, strength, ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param config Scorers for the AI that plays the games to the end
+	 * @param configuration Configures the player, such as choosing a deck
+	 * @param strength How well a player that is still in the game is doing, such as its health
+	 * @param pool Pool that the search runs on, with one search tree for each thread
+	 * @param maxSearches Maximum number of players that search at the same time, other players use the scorers only
+	 */
+	public MonteCarloAI(ScoreConfigFactory<Entity, ECSAction> config, BiConsumer<Entity, ConfigComponent> configuration,
+			ToDoubleFunction<Entity> strength, ForkJoinPool pool, int maxSearches) {
+		this.policy = new ScoringAI(config, configuration);
+		this.strength = strength;
+		this.pool = pool;
+		this.searches = new Semaphore(maxSearches);
+	}
+
+	@Override
+	public ECSAction getAction(Entity player) {
+		return chooseAction(player).join().apply(player.getGame());
+	}
+
+	/**
+	 * Forks the game on the calling thread and searches on the pool, so the thread that runs the game is free while searching
+	 */
+	@Override
+	public CompletableFuture<Function<ECSGame, ECSAction>> chooseAction(Entity player) {
+		ECSGame game = player.getGame();
+		Random random = game.getGameRandom().stream(GameRandom.AI);
+		List<Move> moves = moves(player, random);
+		if (moves.size() <= 1) {
+			Function<ECSGame, ECSAction> only = moves.isEmpty() ? current -> null : moves.get(0)::prepare;
+			return CompletableFuture.completedFuture(only);
+		}
+
+		if (!searches.tryAcquire()) {
+			logger.info(player + " cannot search while other players are searching, using scorers only");
+			return scorersOnly(player);
+		}
+		CompletableFuture<Function<ECSGame, ECSAction>> result;
+		try {
+			result = searchAction(player, moves, random);
+		}
+		catch (RuntimeException ex) {
+			searches.release();
+			throw ex;
+		}
+		result.whenComplete((chosen, error) -> searches.release());
+		return result;
+	}
+
+	private CompletableFuture<Function<ECSGame, ECSAction>> scorersOnly(Entity player) {
+		ECSAction action = policy.getAction(player);
+		return CompletableFuture.completedFuture(current -> action);
+	}
+
+	private CompletableFuture<Function<ECSGame, ECSAction>> searchAction(Entity player, List<Move> moves, Random random) {
+		ECSGame game = player.getGame();
+		AIComponent component = player.getComponent(AIComponent.class);
+		long budget = component == null ? DEFAULT_BUDGET : component.getDelay();
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget);
+		GameRandom searchRandom = new GameRandom(random.nextLong());
+		List<ECSGame> forks = new ArrayList<>();
+		try {
+			for (int i = 0; i < pool.getParallelism(); i++) {
+				forks.add(game.fork());
+			}
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Cannot fork " + game + " for searching, using scorers only", ex);
+			return scorersOnly(player);
+		}
+
+		int playerId = player.getId();
+		List<ForkJoinTask<Map<Move, Node>>> tasks = new ArrayList<>();
+		for (int i = 0; i < forks.size(); i++) {
+			ECSGame fork = forks.get(i);
+			Random forkRandom = searchRandom.split(i).stream(GameRandom.AI);
+			tasks.add(pool.submit(() -> search(fork, playerId, forkRandom, deadline)));
+		}
+
+		return CompletableFuture.<Function<ECSGame, ECSAction>>supplyAsync(() -> {
+			int[] visits = new int[moves.size()];
+			for (ForkJoinTask<Map<Move, Node>> task : tasks) {
+				Map<Move, Node> children = task.join();
+				for (int i = 0; i < moves.size(); i++) {
+					Node child = children.get(moves.get(i));
+					visits[i] += child == null ? 0 : child.visits;
+				}
+			}
+
+			// the most visited move is the most reliable, ties go to the first move
+			int best = 0;
+			for (int i = 1; i < visits.length; i++) {
+				if (visits[i] > visits[best]) {
+					best = i;
+				}
+			}
+			if (visits[best] == 0) {
+				logger.info(player + " did not have time to search, using scorers only");
+				return current -> policy.getAction(current.getEntity(playerId));
+			}
+			logger.info(player + " chose " + moves.get(best) + " with visits " + Arrays.toString(visits) + " for " + moves);
+			return moves.get(best)::prepare;
+		}, pool);
+	}
+
+	@Override
+	public void configure(Entity entity, ConfigComponent config) {
+		policy.configure(entity, config);
+	}
+
+	/**
+	 * Search until the deadline, with a new fork of the game for each iteration
+	 *
+	 * @param game A fork of the game that is only used by this search
+	 * @param playerId The id of the player that is searching
+	 * @param random Random numbers for this search
+	 * @param deadline Time to stop, from {@link System#nanoTime()}
+	 * @return The children of the root of the search tree
+	 */
+	private Map<Move, Node> search(ECSGame game, int playerId, Random random, long deadline) {
+		Node root = new Node(-1);
+		int iterations = 0;
+		int errors = 0;
+		while (System.nanoTime() < deadline) {
+			try {
+				ECSGame fork = game.fork();
+				determinize(fork, fork.getEntity(playerId), random);
+				fork.getGameRandom().setSeed(random.nextLong());
+				iterate(root, fork, random, deadline);
+				iterations++;
+			}
+			catch (RuntimeException ex) {
+				if (errors++ == 0) {
+					logger.warn("Error when searching in " + game, ex);
+				}
+			}
+		}
+		logger.debug("Searched " + iterations + " iterations with " + errors + " errors");
+		return root.children;
+	}
+
+	private void iterate(Node root, ECSGame game, Random random, long deadline) {
+		List<Node> path = new ArrayList<>();
+		path.add(root);
+		Node node = root;
+		boolean expanded = false;
+		while (!expanded && !game.isGameOver()) {
+			Entity actor = actor(game);
+			List<Move> moves = actor == null ? Collections.<Move>emptyList() : moves(actor, random);
+			if (moves.isEmpty()) {
+				break;
+			}
+			Move move = node.unexpanded(moves, random);
+			expanded = move != null;
+			if (!expanded) {
+				move = node.select(moves);
+			}
+			ECSAction action = move.prepare(game);
+			if (action == null || !action.perform(actor)) {
+				break;
+			}
+			node = node.child(move, actor.getComponent(PlayerComponent.class).getIndex());
+			path.add(node);
+		}
+
+		playout(game, random, deadline);
+		double[] results = evaluate(game);
+		for (Node visited : path) {
+			visited.visits++;
+			if (visited.player >= 0) {
+				visited.value += results[visited.player];
+			}
+		}
+	}
+
+	private void playout(ECSGame game, Random random, long deadline) {
+		for (int i = 0; i < PLAYOUT_ACTIONS && !game.isGameOver() && System.nanoTime() < deadline; i++) {
+			Entity actor = actor(game);
+			if (actor == null) {
+				return;
+			}
+			ECSAction action;
+			if (random.nextDouble() < PLAYOUT_RANDOM_ACTIONS) {
+				List<Move> moves = moves(actor, random);
+				action = moves.isEmpty() ? null : moves.get(random.nextInt(moves.size())).prepare(game);
+			}
+			else {
+				action = policy.getAction(actor);
+			}
+			if (action == null || !action.perform(actor)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return The first player that can perform an action, or null if no one can
+	 */
+	private static Entity actor(ECSGame game) {
+		for (Entity player : Players.getPlayersInGame(game)) {
+			if (!Actions.getPossibleActionsFor(player).isEmpty()) {
+				return player;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Shuffle the cards that a player cannot see with each other, separately for each player that owns them.
+	 * A card on the hand of the opponent may then be swapped with a card in the deck of the opponent, but not with a card of the player.
+	 */
+	private static void determinize(ECSGame game, Entity player, Random random) {
+		for (Entity owner : Players.getPlayersInGame(game)) {
+			List<CardComponent> hidden = new ArrayList<>();
+			for (ZoneComponent zone : owner.getSuperComponents(ZoneComponent.class)) {
+				if (!zone.isKnownTo(player)) {
+					zone.forEach(card -> hidden.add(card.getComponent(CardComponent.class)));
+				}
+			}
+			for (int i = hidden.size() - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				if (i != j) {
+					hidden.get(i).swapWith(hidden.get(j));
+					Collections.swap(hidden, i, j);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The result for each player index, 1 for a win and 0 for a loss.
+	 * Players that are still in the game get their share of the total strength of those players.
+	 */
+	private double[] evaluate(ECSGame game) {
+		List<Entity> players = Players.getPlayersInGame(game);
+		double[] results = new double[players.size()];
+		double totalStrength = 0;
+		for (Entity player : players) {
+			if (!player.getComponent(PlayerComponent.class).isEliminated()) {
+				totalStrength += Math.max(strength.applyAsDouble(player), 0);
+			}
+		}
+		for (Entity player : players) {
+			PlayerComponent component = player.getComponent(PlayerComponent.class);
+			double result;
+			if (component.isEliminated()) {
+				result = Boolean.TRUE.equals(component.getWinnerDeclaration()) ? 1 : 0;
+			}
+			else {
+				result = totalStrength <= 0 ? 0.5 : Math.max(strength.applyAsDouble(player), 0) / totalStrength;
+			}
+			results[component.getIndex()] = result;
+		}
+		return results;
+	}
+
+	/**
+	 * Actions that a player can perform. Each possible target of an action with a single target is a separate move,
+	 * other targets are chosen at random.
+	 */
+	private static List<Move> moves(Entity performer, Random random) {
+		List<Move> result = new ArrayList<>();
+		for (ECSAction action : Actions.getPossibleActionsFor(performer)) {
+			List<TargetSet> targetSets = action.getTargetSets();
+			if (targetSets.size() == 1 && targetSets.get(0).getMin() == 1 && targetSets.get(0).getMax() == 1) {
+				for (Entity target : targetSets.get(0).findPossibleTargets()) {
+					result.add(new Move(action, new int[][] { { target.getId() } }));
+				}
+				continue;
+			}
+			int[][] targets = randomTargets(targetSets, random);
+			if (targets != null) {
+				result.add(new Move(action, targets));
+			}
+		}
+		return result;
+	}
+
+	private static int[][] randomTargets(List<TargetSet> targetSets, Random random) {
+		int[][] result = new int[targetSets.size()][];
+		for (int i = 0; i < targetSets.size(); i++) {
+			TargetSet targetSet = targetSets.get(i);
+			targetSet.clearTargets();
+			while (!targetSet.hasEnoughTargets()) {
+				List<Entity> targets = targetSet.findPossibleTargets();
+				targets.removeAll(targetSet.getChosenTargets());
+				if (targets.isEmpty()) {
+					return null;
+				}
+				targetSet.addTarget(targets.get(random.nextInt(targets.size())));
+			}
+			result[i] = targetSet.getChosenTargets().stream().mapToInt(Entity::getId).toArray();
+			targetSet.clearTargets();
+		}
+		return result;
+	}
+
+	/**
+	 * An action and its targets, identified by entity ids so that the same move can be found in every fork of the game
+	 */
+	private static final class Move {
+		private final int owner;
+		private final String name;
+		private final int[][] targets;
+
+		Move(ECSAction action, int[][] targets) {
+			this.owner = action.getOwner().getId();
+			this.name = action.getName();
+			this.targets = targets;
+		}
+
+		/**
+		 * @param game The game to perform the move in
+		 * @return The action of the move with its targets chosen, or null if it does not exist in the game
+		 */
+		ECSAction prepare(ECSGame game) {
+			Entity entity = game.getEntity(owner);
+			ECSAction action = entity == null ? null : Actions.getAction(entity, name);
+			if (action == null) {
+				return null;
+			}
+			List<TargetSet> targetSets = action.getTargetSets();
+			if (targetSets.size() != targets.length) {
+				return null;
+			}
+			for (int i = 0; i < targets.length; i++) {
+				TargetSet targetSet = targetSets.get(i);
+				targetSet.clearTargets();
+				for (int target : targets[i]) {
+					Entity targetEntity = game.getEntity(target);
+					if (targetEntity == null || !targetSet.addTarget(targetEntity)) {
+						return null;
+					}
+				}
+			}
+			return action;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Move)) {
+				return false;
+			}
+			Move other = (Move) obj;
+			return owner == other.owner && name.equals(other.name) && Arrays.deepEquals(targets, other.targets);
+		}
+
+		@Override
+		public int hashCode() {
+			return (owner * 31 + name.hashCode()) * 31 + Arrays.deepHashCode(targets);
+		}
+
+		@Override
+		public String toString() {
+			return name + " for entity #" + owner + " on " + Arrays.deepToString(targets);
+		}
+	}
+
+	private static final class Node {
+		private final Map<Move, Node> children = new HashMap<>();
+		/**
+		 * Index of the player that made the move to this node, or -1 for the root
+		 */
+		private final int player;
+		private int visits;
+		private double value;
+
+		Node(int player) {
+			this.player = player;
+		}
+
+		Node child(Move move, int player) {
+			Node child = children.get(move);
+			if (child == null) {
+				child = new Node(player);
+				children.put(move, child);
+			}
+			return child;
+		}
+
+		/**
+		 * @return A random move that has not been tried from this node, or null if all of them have
+		 */
+		Move unexpanded(List<Move> moves, Random random) {
+			List<Move> result = new ArrayList<>();
+			for (Move move : moves) {
+				if (!children.containsKey(move)) {
+					result.add(move);
+				}
+			}
+			return result.isEmpty() ? null : result.get(random.nextInt(result.size()));
+		}
+
+		/**
+		 * @return The move with the highest UCB1 score, where every move has been tried at least once
+		 */
+		Move select(List<Move> moves) {
+			double logVisits = Math.log(visits);
+			Move best = null;
+			double bestScore = Double.NEGATIVE_INFINITY;
+			for (Move move : moves) {
+				Node child = children.get(move);
+				if (child.visits == 0) {
+					// an iteration that failed after expanding this move
+					return move;
+				}
+				double score = child.value / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+				if (score > bestScore) {
+					best = move;
+					bestScore = score;
+				}
+			}
+			return best;
+		}
+	}
+
+}
@@ -1,11 +1,16 @@
 package com.cardshifter.ai;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import net.zomis.aiscores.FieldScore;
 import net.zomis.aiscores.FieldScoreProducer;
 import net.zomis.aiscores.FieldScores;
 import net.zomis.aiscores.ScoreConfig;
@@ -16,17 +21,25 @@ import net.zomis.aiscores.extra.ParamAndField;
 import net.zomis.aiscores.extra.ScoreUtils;
 import net.zomis.cardshifter.ecs.config.ConfigComponent;
 
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
 import com.cardshifter.modapi.actions.ActionComponent;
+import com.cardshifter.modapi.actions.Actions;
 import com.cardshifter.modapi.actions.ECSAction;
+import com.cardshifter.modapi.actions.TargetSet;
 import com.cardshifter.modapi.ai.CardshifterAI;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameRandom;
 
 public class ScoringAI implements CardshifterAI, ScoreStrategy<Entity, ECSAction> {
 	
-	private final Random random = new Random(42);
+	private static final Logger logger = LogManager.getLogger(ScoringAI.class);
+	
 	private final ScoreConfig<Entity, ECSAction> config;
 	private final BiConsumer<Entity, ConfigComponent> entityConfigurer;
+	private ForkJoinPool pool;
 	
 	public ScoringAI(ScoreConfigFactory<Entity, ECSAction> config, BiConsumer<Entity, ConfigComponent> configuration) {
 		this.config = config.build();
@@ -44,9 +57,30 @@ public class ScoringAI implements CardshifterAI, ScoreStrategy<Entity, ECSAction
 		return prod.analyzeAndScore(player);
 	}
 	
+	/**
+	 * Score the actions in parallel on a pool. The actions are split into one part for each thread of the pool,
+	 * and each part is scored on its own fork of the game, so that the scorers can look at the game and choose targets
+	 * without affecting each other. Scorers that compare actions with each other only see the actions of their own part.
+	 * 
+	 * @param pool The pool to score on, or null to score all actions on the thread that asks for an action
+	 * @return This AI
+	 */
+	public ScoringAI parallel(ForkJoinPool pool) {
+		this.pool = pool;
+		return this;
+	}
+	
 	@Override
 	public ECSAction getAction(Entity player) {
+		if (pool != null && pool.getParallelism() > 1) {
+			return getActionParallel(player);
+		}
+		return getActionSequential(player);
+	}
+	
+	private ECSAction getActionSequential(Entity player) {
 		FieldScoreProducer<Entity, ECSAction> prod = new FieldScoreProducer<Entity, ECSAction>(config, this);
+		Random random = player.getGame().getGameRandom().stream(GameRandom.AI);
 		ParamAndField<Entity, ECSAction> best = ScoreUtils.pickBest(prod, player, random);
 		if (best != null) {
 			return best.getField();
@@ -54,6 +88,136 @@ public class ScoringAI implements CardshifterAI, ScoreStrategy<Entity, ECSAction
 		return null;
 	}
 	
+	private ECSAction getActionParallel(Entity player) {
+		ECSGame game = player.getGame();
+		Random random = game.getGameRandom().stream(GameRandom.AI);
+		List<ECSAction> actions = getAllActions(game).filter(action -> action.isAllowed(player)).collect(Collectors.toList());
+		if (actions.isEmpty()) {
+			return null;
+		}
+		
+		int parts = Math.min(pool.getParallelism(), actions.size());
+		List<ECSGame> forks = new ArrayList<>();
+		try {
+			for (int i = 0; i < parts; i++) {
+				forks.add(game.fork());
+			}
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Cannot fork " + game + " for scoring in parallel, scoring on this thread", ex);
+			return getActionSequential(player);
+		}
+		
+		int playerId = player.getId();
+		List<ForkJoinTask<ScoredPart>> tasks = new ArrayList<>();
+		for (int i = 0; i < parts; i++) {
+			ECSGame fork = forks.get(i);
+			List<ECSAction> part = new ArrayList<>();
+			for (int j = i; j < actions.size(); j += parts) {
+				part.add(actions.get(j));
+			}
+			tasks.add(pool.submit(() -> scorePart(fork, playerId, part)));
+		}
+		
+		// the best actions are collected in the order of the actions, so the random gives the same action every time
+		List<ECSAction> best = new ArrayList<>();
+		List<int[][]> bestTargets = new ArrayList<>();
+		double bestScore = Double.NEGATIVE_INFINITY;
+		for (int j = 0; j < actions.size(); j++) {
+			ScoredPart scored = tasks.get(j % parts).join();
+			int index = j / parts;
+			double score = scored.scores[index];
+			if (Double.isNaN(score) || score < bestScore) {
+				continue;
+			}
+			if (score > bestScore) {
+				best.clear();
+				bestTargets.clear();
+				bestScore = score;
+			}
+			best.add(actions.get(j));
+			bestTargets.add(scored.targets[index]);
+		}
+		if (best.isEmpty()) {
+			return null;
+		}
+		int chosen = best.size() == 1 ? 0 : random.nextInt(best.size());
+		ECSAction action = best.get(chosen);
+		int[][] targets = bestTargets.get(chosen);
+		List<TargetSet> targetSets = action.getTargetSets();
+		for (int i = 0; i < targetSets.size(); i++) {
+			TargetSet targetSet = targetSets.get(i);
+			targetSet.clearTargets();
+			for (int target : targets[i]) {
+				Entity entity = game.getEntity(target);
+				if (entity == null || !targetSet.addTarget(entity)) {
+					logger.warn("Target " + target + " chosen in a fork is not allowed for " + action + ", scoring on this thread");
+					targetSets.forEach(TargetSet::clearTargets);
+					return getActionSequential(player);
+				}
+			}
+		}
+		return action;
+	}
+	
+	/**
+	 * Score some of the actions on a fork of the game
+	 * 
+	 * @param fork A fork of the game that is only used for this part
+	 * @param playerId The id of the player that the actions are scored for
+	 * @param part The actions of the original game to score
+	 * @return The scores and chosen targets of the actions in the same order, with NaN for actions that were not scored
+	 */
+	private ScoredPart scorePart(ECSGame fork, int playerId, List<ECSAction> part) {
+		List<ECSAction> forkActions = new ArrayList<>(part.size());
+		for (ECSAction action : part) {
+			Entity owner = fork.getEntity(action.getOwner().getId());
+			forkActions.add(owner == null ? null : Actions.getAction(owner, action.getName()));
+		}
+		ScoreStrategy<Entity, ECSAction> strategy = new ScoreStrategy<Entity, ECSAction>() {
+			@Override
+			public Collection<ECSAction> getFieldsToScore(Entity entity) {
+				return forkActions.stream().filter(action -> action != null).collect(Collectors.toList());
+			}
+			
+			@Override
+			public boolean canScoreField(ScoreParameters<Entity> params, ECSAction action) {
+				return ScoringAI.this.canScoreField(params, action);
+			}
+		};
+		FieldScores<Entity, ECSAction> scores = new FieldScoreProducer<Entity, ECSAction>(config, strategy).analyzeAndScore(fork.getEntity(playerId));
+		
+		ScoredPart result = new ScoredPart(forkActions.size());
+		for (int i = 0; i < forkActions.size(); i++) {
+			ECSAction action = forkActions.get(i);
+			FieldScore<ECSAction> score = action == null ? null : scores.getScores().get(action);
+			if (score == null) {
+				result.scores[i] = Double.NaN;
+				continue;
+			}
+			result.scores[i] = score.getScore();
+			List<TargetSet> targetSets = action.getTargetSets();
+			result.targets[i] = new int[targetSets.size()][];
+			for (int j = 0; j < targetSets.size(); j++) {
+				result.targets[i][j] = targetSets.get(j).getChosenTargets().stream().mapToInt(Entity::getId).toArray();
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Scores of the actions of one part, with the targets that the scorers chose for them
+	 */
+	private static final class ScoredPart {
+		private final double[] scores;
+		private final int[][][] targets;
+		
+		ScoredPart(int size) {
+			this.scores = new double[size];
+			this.targets = new int[size][][];
+		}
+	}
+	
 	@Override
 	public boolean canScoreField(ScoreParameters<Entity> params, ECSAction action) {
 		return action.isAllowed(params.getParameters());
@@ -65,7 +229,7 @@ public class ScoringAI implements CardshifterAI, ScoreStrategy<Entity, ECSAction
 	}
 	
 	private static Stream<ECSAction> getAllActions(ECSGame game) {
-		return game.getEntitiesWithComponent(ActionComponent.class)
+		return game.entitiesWithComponentView(ActionComponent.class)
 			.stream()
 			.flatMap(entity -> entity.getComponent(ActionComponent.class)
 				.getECSActions().stream());
@@ -96,7 +96,7 @@ public class AttackAnalyze {
 		Entity entity = action.getOwner();
 		ComponentRetriever<CardComponent> card = Retrievers.component(CardComponent.class);
 		Entity owner = card.get(entity).getOwner();
-		Set<Entity> players = entity.getGame().getEntitiesWithComponent(PlayerComponent.class);
+		Set<Entity> players = entity.getGame().entitiesWithComponentView(PlayerComponent.class);
 		Entity opponent = players.stream().filter(pl -> pl.getComponent(PlayerComponent.class).getIndex() != owner.getComponent(PlayerComponent.class).getIndex()).findAny().get();
 		
 		ZoneComponent battlefield = opponent.getComponent(BattlefieldComponent.class);
@@ -0,0 +1,138 @@
+package com.cardshifter.core.game;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * The mailbox of a single game. Tasks are run one at a time in the order they were submitted,
+ * on threads borrowed from a shared executor, so the state of a game is only ever accessed by one thread at a time
+ * without any locking. Many games can share the same bounded pool of threads.
+ */
+public class GameExecutor implements Executor {
+	private static final Logger logger = LogManager.getLogger(GameExecutor.class);
+
+	/**
+	 * Maximum number of tasks to run before giving the thread back to the shared executor
+	 */
+	private static final int BATCH_SIZE = 64;
+
+	private final Executor pool;
+	private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	private volatile Thread currentThread;
+
+	/**
+	 * @param pool The shared executor to run the tasks on
+	 */
+	public GameExecutor(Executor pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Creates an executor that runs the tasks on the threads that submit them,
+	 * while still making sure that only one task runs at a time
+	 *
+	 * @return A game executor without a thread pool
+	 */
+	public static GameExecutor direct() {
+		return new GameExecutor(Runnable::run);
+	}
+
+	@Override
+	public void execute(Runnable task) {
+		mailbox.add(task);
+		schedule();
+	}
+
+	/**
+	 * Run a task in the game and get the result of it
+	 *
+	 * @param <T> The type of the result
+	 * @param task The task to run
+	 * @return A future that is completed with the result of the task
+	 */
+	public <T> CompletableFuture<T> submit(Callable<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		execute(() -> {
+			try {
+				future.complete(task.call());
+			}
+			catch (Exception ex) {
+				future.completeExceptionally(ex);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Run a task in the game and get notified when it has been run
+	 *
+	 * @param task The task to run
+	 * @return A future that is completed when the task has been run
+	 */
+	public CompletableFuture<Void> submit(Runnable task) {
+		return submit(() -> {
+			task.run();
+			return null;
+		});
+	}
+
+	/**
+	 * @return True if the current thread is running a task for this game
+	 */
+	public boolean isExecutingThread() {
+		return currentThread == Thread.currentThread();
+	}
+
+	private void schedule() {
+		if (!scheduled.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			pool.execute(this::drain);
+		}
+		catch (RejectedExecutionException ex) {
+			scheduled.set(false);
+			throw ex;
+		}
+	}
+
+	private void drain() {
+		currentThread = Thread.currentThread();
+		try {
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				Runnable task = mailbox.poll();
+				if (task == null) {
+					break;
+				}
+				try {
+					task.run();
+				}
+				catch (Throwable ex) {
+					logger.error("Error running game task " + task, ex);
+				}
+			}
+		}
+		finally {
+			currentThread = null;
+			scheduled.set(false);
+		}
+		if (!mailbox.isEmpty()) {
+			schedule();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "GameExecutor [queued=" + mailbox.size() + ", running=" + scheduled.get() + "]";
+	}
+
+}
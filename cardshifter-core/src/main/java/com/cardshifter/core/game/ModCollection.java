@@ -4,6 +4,7 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
 import com.cardshifter.core.modloader.GroovyMod;
@@ -11,6 +12,7 @@ import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import com.cardshifter.ai.AIs;
+import com.cardshifter.ai.MonteCarloAI;
 import com.cardshifter.ai.ScoringAI;
 import com.cardshifter.modapi.ai.CardshifterAI;
 import com.cardshifter.modapi.base.ECSMod;
@@ -24,6 +26,11 @@ public class ModCollection {
 
 	private static final Logger logger = LogManager.getLogger(ModCollection.class);
 	
+	/**
+	 * Games in which the Monte Carlo AI can search at the same time, AIs in other games use the scorers only.
+	 */
+	private static final int MONTE_CARLO_SEARCHES = 2;
+	
 	/**
 	 * All the AIs to initialize.
 	 */
@@ -35,13 +42,24 @@ public class ModCollection {
 	private final Map<String, Supplier<ECSMod>> mods = new LinkedHashMap<>();
 	
 	/**
-	 * Initializes the AIs and Mods and puts them in the collections.
+	 * Initializes the AIs and Mods and puts them in the collections. The Monte Carlo AI searches on the common pool.
 	 */
 	public ModCollection() {
+		this(ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Initializes the AIs and Mods and puts them in the collections.
+	 * 
+	 * @param searchPool Pool that the Monte Carlo AI searches on
+	 */
+	public ModCollection(ForkJoinPool searchPool) {
 		ais.put("Loser", new ScoringAI(AIs.loser()));
 		ais.put("Idiot", new ScoringAI(AIs.idiot()));
 		ais.put("Medium", new ScoringAI(AIs.medium(), AIs::mediumDeck));
 		ais.put("Fighter", new ScoringAI(AIs.fighter(), AIs::fighterDeck));
+		ais.put("Monte Carlo", new MonteCarloAI(AIs.fighter(), AIs::fighterDeck, AIs::playerHealth,
+				searchPool, MONTE_CARLO_SEARCHES));
 	}
 
     public static ModCollection defaultMods() {
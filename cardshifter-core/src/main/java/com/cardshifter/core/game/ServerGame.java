@@ -5,6 +5,9 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import com.cardshifter.api.outgoing.ClientDisconnectedMessage;
 import org.apache.log4j.LogManager;
@@ -18,7 +21,9 @@ import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSGameState;
 
 /**
- * Handles the state of the game and knows the current players
+ * Handles the state of the game and knows the current players.
+ * All access to the game state should be done through {@link #execute(Runnable)} or {@link #submit(Callable)},
+ * which run the tasks for this game one at a time.
  * 
  * @author Simon Forsberg
  */
@@ -31,6 +36,7 @@ public abstract class ServerGame {
 	private Instant active;
 
 	protected final ECSGame game;
+	private final GameExecutor executor;
 //	private final Set<ClientIO> observers;
 //	private final ChatArea chat;
 	
@@ -41,10 +47,26 @@ public abstract class ServerGame {
 	 * @param game ECS Game object
 	 */
 	public ServerGame(int id, ECSGame game) {
+		this(id, game, GameExecutor.direct());
+	}
+
+	/**
+	 * Initializes the player collection, sets the initial game state
+	 * 
+	 * @param id ID of the game
+	 * @param game ECS Game object
+	 * @param pool Shared executor that the tasks of this game are run on
+	 */
+	public ServerGame(int id, ECSGame game, Executor pool) {
+		this(id, game, new GameExecutor(pool));
+	}
+
+	private ServerGame(int id, ECSGame game, GameExecutor executor) {
 		this.id = id;
 		this.players = Collections.synchronizedList(new ArrayList<>());
 		this.active = Instant.now();
 		this.game = game;
+		this.executor = executor;
 //		this.chat = server.newChatRoom(this.toString());
 	}
 
@@ -124,6 +146,44 @@ public abstract class ServerGame {
 		return game;
 	}
 	
+	/**
+	 * Runs a task in this game, after all previously submitted tasks have been run
+	 * 
+	 * @param task The task to run
+	 */
+	public void execute(Runnable task) {
+		executor.execute(task);
+	}
+	
+	/**
+	 * Runs a task in this game and returns its result
+	 * 
+	 * @param <T> The type of the result
+	 * @param task The task to run
+	 * @return A future that is completed when the task has been run
+	 */
+	public <T> CompletableFuture<T> submit(Callable<T> task) {
+		return executor.submit(task);
+	}
+	
+	/**
+	 * Runs a task in this game
+	 * 
+	 * @param task The task to run
+	 * @return A future that is completed when the task has been run
+	 */
+	public CompletableFuture<Void> submit(Runnable task) {
+		return executor.submit(task);
+	}
+	
+	/**
+	 * 
+	 * @return The executor that runs the tasks of this game
+	 */
+	public GameExecutor getExecutor() {
+		return executor;
+	}
+	
 	/**
 	 * 
 	 * @return The current players for this game
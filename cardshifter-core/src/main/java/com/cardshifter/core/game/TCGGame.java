@@ -4,12 +4,14 @@ import java.io.File;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -29,11 +31,14 @@ import com.cardshifter.api.ClientIO;
 import com.cardshifter.api.both.ChatMessage;
 import com.cardshifter.api.both.PlayerConfigMessage;
 import com.cardshifter.api.incoming.RequestTargetsMessage;
+import com.cardshifter.api.incoming.UseAbilitiesMessage;
 import com.cardshifter.api.incoming.UseAbilityMessage;
 import com.cardshifter.core.replays.ReplayRecordSystem;
+import com.cardshifter.modapi.actions.ActionBatchEvent;
 import com.cardshifter.modapi.actions.ActionComponent;
 import com.cardshifter.modapi.actions.ActionPerformEvent;
 import com.cardshifter.modapi.actions.Actions;
+import com.cardshifter.modapi.actions.AvailableActions;
 import com.cardshifter.modapi.actions.ECSAction;
 import com.cardshifter.modapi.actions.TargetSet;
 import com.cardshifter.modapi.ai.AIComponent;
@@ -65,6 +70,22 @@ public class TCGGame extends ServerGame {
 	private final ECSMod mod;
 	private final Supplier<ScheduledExecutorService> aiExecutor;
 	private final String modName;
+	private final EntityQuery playerEntities;
+	private final AvailableActions availableActions = new AvailableActions();
+	/**
+	 * Identifies the event handlers that send the changes of the game to the clients,
+	 * which are left out when the game is forked
+	 */
+	private final ECSSystem clientUpdates = new ECSSystem() {
+		@Override
+		public void startGame(ECSGame game) {
+		}
+		
+		@Override
+		public ECSSystem fork(GameFork fork) {
+			return null;
+		}
+	};
 	
 	/**
 	 * 
@@ -78,6 +99,23 @@ public class TCGGame extends ServerGame {
 		this.modName = name;
 		this.aiExecutor = aiExecutor;
 		this.mod = mod;
+		this.playerEntities = game.query().all(PlayerComponent.class).build();
+	}
+	
+	/**
+	 * 
+	 * @param aiExecutor AI action scheduler
+	 * @param pool Shared executor that the tasks of this game are run on
+	 * @param name Mod name
+	 * @param id The game id
+	 * @param mod The mod that the game will run
+	 */
+	public TCGGame(Supplier<ScheduledExecutorService> aiExecutor, Executor pool, String name, int id, ECSMod mod) {
+		super(id, new ECSGame(), pool);
+		this.modName = name;
+		this.aiExecutor = aiExecutor;
+		this.mod = mod;
+		this.playerEntities = game.query().all(PlayerComponent.class).build();
 	}
 	
 	/**
@@ -227,6 +265,51 @@ public class TCGGame extends ServerGame {
 			throw new IllegalArgumentException("Client is not in this game: " + client);
 		}
 		
+		ECSAction action = prepareAction(message);
+
+        Entity performer = playerFor(client);
+		boolean allowed = action.perform(performer);
+		if (!allowed) {
+			// the client may have had outdated actions, performed actions send their changes when they are performed
+			client.sendToClient(new ServerErrorMessage("Action not allowed: " + action));
+			sendAvailableActions(client);
+		}
+	}
+	
+	/**
+	 * Performs several actions in order. Stops at the first action that is not allowed.
+	 * The changes of the available actions are only sent once, after all actions have been performed.
+	 * 
+	 * @param message The UseAbilitiesMessage object
+	 * @param client The client object who sent the moves
+	 */
+	public void handleMoves(UseAbilitiesMessage message, ClientIO client) {
+		if (this.isGameOver()) {
+			logger.info("Ignoring moves because game has ended: " + message + " from " + client);
+			return;
+		}
+		
+		if (!this.getPlayers().contains(client)) {
+			throw new IllegalArgumentException("Client is not in this game: " + client);
+		}
+		
+		UseAbilityMessage[] uses = message.toUseMessages();
+		Entity performer = playerFor(client);
+		// actions are prepared when they are about to be performed, as earlier actions may affect the targets
+		int performed = game.performAll(performer, Arrays.stream(uses).map(this::prepareActionIfExists).iterator());
+		if (performed < uses.length && !this.isGameOver()) {
+			client.sendToClient(new ServerErrorMessage("Action not allowed: " + uses[performed]));
+			sendAvailableActions(client);
+		}
+	}
+	
+	/**
+	 * Find the action of a message and set its targets
+	 * 
+	 * @param message The UseAbilityMessage object
+	 * @return The action to perform
+	 */
+	private ECSAction prepareAction(UseAbilityMessage message) {
 		ECSAction action = findAction(message.getId(), message.getAction());
 		if (!action.getTargetSets().isEmpty()) {
 			TargetSet targetAction = action.getTargetSets().get(0);
@@ -235,14 +318,15 @@ public class TCGGame extends ServerGame {
 				targetAction.addTarget(game.getEntity(target));
 			}
 		}
-
-        Entity performer = playerFor(client);
-		boolean allowed = action.perform(performer);
-		if (!allowed) {
-			client.sendToClient(new ServerErrorMessage("Action not allowed: " + action));
+		return action;
+	}
+	
+	private ECSAction prepareActionIfExists(UseAbilityMessage message) {
+		Entity entity = game.getEntity(message.getId());
+		if (entity == null || Actions.getAction(entity, message.getAction()) == null) {
+			return null;
 		}
-		
-		sendAvailableActions();
+		return prepareAction(message);
 	}
 	
 	/**
@@ -264,11 +348,18 @@ public class TCGGame extends ServerGame {
 	 * @return The player at that index
 	 */
 	private Entity getPlayer(int index) {
-		List<Entity> players = game.findEntities(entity -> entity.hasComponent(PlayerComponent.class) && entity.getComponent(PlayerComponent.class).getIndex() == index);
-		if (players.size() != 1) {
-			throw new IllegalStateException("Found " + players.size() + " results for entities with Player index " + index);
+		Entity result = null;
+		int found = 0;
+		for (Entity entity : playerEntities) {
+			if (entity.get(playerData).getIndex() == index) {
+				result = entity;
+				found++;
+			}
 		}
-		return players.get(0);
+		if (found != 1) {
+			throw new IllegalStateException("Found " + found + " results for entities with Player index " + index);
+		}
+		return result;
 	}
 	
 	/**
@@ -280,11 +371,12 @@ public class TCGGame extends ServerGame {
 		String time = formatter.format(Instant.now());
 		File directory = new File("replays", modName);
 		directory.mkdirs();
+		game.addSystem(clientUpdates);
 		game.addSystem(new ReplayRecordSystem(game, modName, new File(directory, "replay-" + getId() + "-" + time + ".json")));
         game.addSystem(new ECSSystem() {
             @Override
             public void startGame(ECSGame game) {
-                game.getEvents().registerHandlerBefore(TCGGame.this, ActionPerformEvent.class, action -> {
+                game.getEvents().registerHandlerBefore(clientUpdates, ActionPerformEvent.class, action -> {
                     UseAbilityMessage useAbilityMessage = new UseAbilityMessage(getId(), action.getEntity().getId(),
                             action.getAction().getName(),
                             action.getAction().getAllTargets().mapToInt(e -> e.getId()).toArray());
@@ -340,14 +432,20 @@ public class TCGGame extends ServerGame {
 	private void startECSGame() {
 		mod.setupGame(game);
 		
-		game.getEvents().registerHandlerAfter(this, ResourceValueChange.class, this::broadcast);
-        game.getEvents().registerHandlerAfter(this, ResourceViewUpdate.class, this::broadcast);
-		game.getEvents().registerHandlerAfter(this, ZoneChangeEvent.class, this::zoneChange);
-		game.getEvents().registerHandlerAfter(this, EntityRemoveEvent.class, this::remove);
-		game.getEvents().registerHandlerAfter(this, PlayerEliminatedEvent.class, this::playerEliminated);
-		game.getEvents().registerHandlerAfter(this, GameOverEvent.class, event -> this.endGame());
-		AISystem.setup(game, aiExecutor.get());
-		game.addSystem(game -> game.getEvents().registerHandlerAfter(this, ActionPerformEvent.class, event -> this.sendAvailableActions()));
+		game.getEvents().registerHandlerAfter(clientUpdates, ResourceValueChange.class, this::broadcast);
+        game.getEvents().registerHandlerAfter(clientUpdates, ResourceViewUpdate.class, this::broadcast);
+		game.getEvents().registerHandlerAfter(clientUpdates, ZoneChangeEvent.class, this::zoneChange);
+		game.getEvents().registerHandlerAfter(clientUpdates, EntityRemoveEvent.class, this::remove);
+		game.getEvents().registerHandlerAfter(clientUpdates, PlayerEliminatedEvent.class, this::playerEliminated);
+		game.getEvents().registerHandlerAfter(clientUpdates, GameOverEvent.class, event -> this.endGame());
+		AISystem.setup(game, aiExecutor.get(), getExecutor());
+		game.addSystem(availableActions);
+		game.addSystem(game -> game.getEvents().registerHandlerAfter(clientUpdates, ActionPerformEvent.class, event -> {
+			if (!game.isPerformingBatch()) {
+				this.sendAvailableActions(null);
+			}
+		}));
+		game.addSystem(game -> game.getEvents().registerHandlerAfter(clientUpdates, ActionBatchEvent.class, event -> this.sendAvailableActions(null)));
 		
 		game.startGame();
 		this.getPlayers().stream().forEach(pl -> {
@@ -360,7 +458,8 @@ public class TCGGame extends ServerGame {
                 .flatMap(e -> e.getSuperComponents(ZoneComponent.class).stream())
                 .sorted(Comparator.comparingInt(ZoneComponent::getZoneId))
                 .forEach(this::sendZone);
-		this.sendAvailableActions();
+		availableActions.update();
+		this.getPlayers().forEach(this::resendAvailableActions);
 	}
 
 	/**
@@ -402,6 +501,7 @@ public class TCGGame extends ServerGame {
 				FakeAIClientTCG aiClient = (FakeAIClientTCG) io;
 				Entity player = playerFor(io);
 				AIComponent aiComponent = new AIComponent(aiClient.getAI());
+				// AIs that search spend the delay on thinking, the others wait so that the game does not go too fast for the players
 				aiComponent.setDelay(2000);
 				player.addComponent(aiComponent);
 				logger.info("AI is configured for " + player);
@@ -410,27 +510,52 @@ public class TCGGame extends ServerGame {
 	}
 
 	/**
-	 * Looks at all Clients, resets their actions, then gets all actions for each and sends them.
+	 * Checks which actions have changed since the last time and sends the changes
+	 * to each client whose actions have changed.
+	 * 
+	 * @param force A client that should always receive a response, if its actions have not changed it receives all of them again. May be null
 	 */
-	private void sendAvailableActions() {
+	private void sendAvailableActions(ClientIO force) {
+		if (game.isGameOver()) {
+			this.getPlayers().forEach(io -> io.sendToClient(new ResetAvailableActionsMessage()));
+			return;
+		}
+		Map<Entity, AvailableActions.Diff> changes = availableActions.update();
 		for (ClientIO io : this.getPlayers()) {
-			io.sendToClient(new ResetAvailableActionsMessage());
-			if (game.isGameOver()) {
-				continue;
+			AvailableActions.Diff diff = changes.get(playerFor(io));
+			if (diff != null) {
+				diff.getRemoved().forEach(action -> io.sendToClient(new RemoveUsableActionMessage(action.getOwner().getId(), action.getName())));
+				diff.getAdded().forEach(action -> io.sendToClient(usableAction(action)));
+			}
+			else if (io == force) {
+				resendAvailableActions(io);
 			}
-			Entity player = playerFor(io);
-			getAllActions(game).filter(action -> action.isAllowed(player))
-				.forEach(action -> io.sendToClient(new UsableActionMessage(action.getOwner().getId(), action.getName(), !action.getTargetSets().isEmpty())));
 		}
 	}
 
+	/**
+	 * Sends all the actions that the client is allowed to perform, replacing the actions that the client knows about
+	 * 
+	 * @param io The client to send to
+	 */
+	private void resendAvailableActions(ClientIO io) {
+		Entity player = playerFor(io);
+		io.sendToClient(new ResetAvailableActionsMessage());
+		getAllActions(game).filter(action -> availableActions.isAllowed(player, action))
+			.forEach(action -> io.sendToClient(usableAction(action)));
+	}
+
+	private static UsableActionMessage usableAction(ECSAction action) {
+		return new UsableActionMessage(action.getOwner().getId(), action.getName(), !action.getTargetSets().isEmpty());
+	}
+
 	/**
 	 * 
 	 * @param game The game to search for actions
 	 * @return A stream of action components for all entities in the game
 	 */
 	private static Stream<ECSAction> getAllActions(ECSGame game) {
-		return game.getEntitiesWithComponent(ActionComponent.class)
+		return game.entitiesWithComponentView(ActionComponent.class)
 			.stream()
 			.flatMap(entity -> entity.getComponent(ActionComponent.class)
 					.getECSActions().stream());
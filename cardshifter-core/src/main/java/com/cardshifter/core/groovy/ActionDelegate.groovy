@@ -44,12 +44,10 @@ class ActionDelegate {
         game.addSystem(new ECSSystem() {
             @Override
             void startGame(ECSGame game) {
-                game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent, {
-                    if (it.action.name == name) {
-                        boolean allowed = filter.predicate.test(it.entity, it.entity)
-                        if (!allowed) {
-                            it.setAllowed(allowed)
-                        }
+                game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent, name, {
+                    boolean allowed = filter.predicate.test(it.entity, it.entity)
+                    if (!allowed) {
+                        it.setAllowed(allowed)
                     }
                 })
             }
@@ -57,17 +55,15 @@ class ActionDelegate {
     }
 
     void requires(Closure closure) {
-        def delegate = new RequiresDelegate()
-        def requirements = closure.rehydrate(delegate, closure.owner, closure.thisObject)
         game.addSystem(new ECSSystem() {
             @Override
             void startGame(ECSGame game) {
-                game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent, {
-                    if (it.action.name == name) {
-                        delegate.setup(it)
-                        requirements.call(it)
-                        it.setAllowed(delegate.allowed)
-                    }
+                game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent, name, {
+                    def requiresDelegate = new RequiresDelegate()
+                    def requirements = closure.rehydrate(requiresDelegate, closure.owner, closure.thisObject)
+                    requiresDelegate.setup(it)
+                    requirements.call(it)
+                    it.setAllowed(requiresDelegate.allowed)
                 })
             }
         })
@@ -77,12 +73,10 @@ class ActionDelegate {
         game.addSystem(new ECSSystem() {
             @Override
             void startGame(ECSGame game) {
-                game.getEvents().registerHandlerAfter(this, TargetableCheckEvent, {
-                    if (it.action.name == name) {
-                        Object result = closure.call(it)
-                        if (!result) {
-                            it.setAllowed(false)
-                        }
+                game.getEvents().registerHandlerAfter(this, TargetableCheckEvent, name, {
+                    Object result = closure.call(it)
+                    if (!result) {
+                        it.setAllowed(false)
                     }
                 })
             }
@@ -111,14 +105,12 @@ class ActionDelegate {
             game.addSystem(new ECSSystem() {
                 @Override
                 void startGame(ECSGame game) {
-                    game.events.registerHandlerAfter(this, TargetableCheckEvent, {
-                        if (it.action.name == name) {
-                            def source = it.action.owner
-                            def target = it.target
-                            boolean allowed = filter.predicate.test(source, target)
-                            if (!allowed) {
-                                it.setAllowed(allowed)
-                            }
+                    game.events.registerHandlerAfter(this, TargetableCheckEvent, name, {
+                        def source = it.action.owner
+                        def target = it.target
+                        boolean allowed = filter.predicate.test(source, target)
+                        if (!allowed) {
+                            it.setAllowed(allowed)
                         }
                     })
                 }
@@ -168,11 +160,9 @@ class ActionDelegate {
         game.addSystem(new ECSSystem() {
             @Override
             void startGame(ECSGame game) {
-                game.getEvents().registerHandlerAfter(this, ActionPerformEvent, {
-                    if (it.action.name == name) {
-                        def performClosure = closure.rehydrate(new PerformDelegate(it), closure.owner, closure.thisObject)
-                        performClosure.call(it.entity)
-                    }
+                game.getEvents().registerHandlerAfter(this, ActionPerformEvent, name, {
+                    def performClosure = closure.rehydrate(new PerformDelegate(it), closure.owner, closure.thisObject)
+                    performClosure.call(it.entity)
                 })
             }
         })
@@ -6,6 +6,7 @@ import com.cardshifter.modapi.attributes.AttributeRetriever
 import com.cardshifter.modapi.attributes.Attributes
 import com.cardshifter.modapi.base.ECSGame
 import com.cardshifter.modapi.base.Entity
+import com.cardshifter.modapi.base.GameRandom
 import com.cardshifter.modapi.cards.DrawStartCards
 import com.cardshifter.modapi.cards.ZoneComponent
 import com.cardshifter.modapi.players.Players
@@ -85,7 +86,7 @@ class EffectDelegate {
             description.append("Choose $count at random: " + effectString)
             closures.add({Entity source, Object data ->
                 List<EffectDelegate> list = new ArrayList<>(Arrays.asList(deleg))
-                Collections.shuffle(list, source.game.random)
+                Collections.shuffle(list, source.game.gameRandom.stream(GameRandom.EFFECTS))
                 for (int i = 0; i < count; i++) {
                     for (Closure act : list.get(i).closures) {
                         act.call(source, data)
@@ -100,7 +101,7 @@ class EffectDelegate {
         assert deleg.closures.size() > 0 : 'probability condition needs to have some actions'
         description.append("${probability * 100 as int}% chance to $deleg.description")
         closures.add({Entity source, Object data ->
-            double random = source.game.random.nextDouble()
+            double random = source.game.gameRandom.stream(GameRandom.EFFECTS).nextDouble()
             println "random $random probability $probability perform ${random < probability}"
             if (random < probability) {
                 for (Closure act : deleg.closures) {
@@ -238,7 +239,7 @@ class EffectDelegate {
                     Closure randomizedAction = {Entity source, Object data ->
                         List<Entity> targets = filterDelegate.findMatching(source)
                         int count = who as int
-                        Collections.shuffle(targets, source.game.random)
+                        Collections.shuffle(targets, source.game.gameRandom.stream(GameRandom.EFFECTS))
                         println "Targeting $who random of $targets with $desc"
                         targets.stream().limit(count).forEachOrdered({Entity dst ->
                             action.perform(source, dst)
@@ -305,10 +306,10 @@ class EffectDelegate {
 
     static Entity cardModelByName(ECSGame game, String name) {
         def nameRetriever = AttributeRetriever.forAttribute(Attributes.NAME)
-        def neutral = game.findEntities({entity ->
+        def neutral = game.getEntitiesWithComponent(ZoneComponent.class).findAll({entity ->
             ZoneComponent comp = entity.getComponent(ZoneComponent.class)
-            return (comp != null) && comp.getName().equals("Cards")
-        })
+            return comp.getName().equals("Cards")
+        }).toList()
         assert neutral.size() == 1
 
         Entity result = neutral.get(0).getComponent(ZoneComponent.class)
@@ -1,5 +1,6 @@
 package com.cardshifter.core.groovy
 
+import com.cardshifter.modapi.actions.TargetDomain
 import com.cardshifter.modapi.base.ComponentRetriever
 import com.cardshifter.modapi.base.CreatureTypeComponent
 import com.cardshifter.modapi.base.Entity
@@ -8,11 +9,14 @@ import com.cardshifter.modapi.cards.CardComponent
 import com.cardshifter.modapi.cards.Cards
 import com.cardshifter.modapi.phase.PhaseController
 import com.cardshifter.modapi.players.Players
+import com.cardshifter.modapi.resources.ModifierDependency
 import net.zomis.cardshifter.ecs.effects.TargetFilter
 
 class FilterDelegate {
     TargetFilter predicate = {Entity source, Entity target -> true}
     StringBuilder description = new StringBuilder()
+    Set<ModifierDependency> dependencies = EnumSet.noneOf(ModifierDependency)
+    TargetDomain domain = new TargetDomain()
 
     static FilterDelegate fromClosure(Closure closure) {
         FilterDelegate filter = new FilterDelegate()
@@ -37,6 +41,15 @@ class FilterDelegate {
     def ownedBy(String owner) {
         addAnd()
         description.append("owned by $owner")
+        dependencies.add(ModifierDependency.ZONE)
+        if (owner != 'you' && owner != 'opponent') {
+            dependencies.add(ModifierDependency.PHASE)
+        }
+        if (owner == 'you') {
+            domain.ownedBy(TargetDomain.Owner.YOU)
+        } else if (owner == 'opponent') {
+            domain.ownedBy(TargetDomain.Owner.OPPONENT)
+        }
         predicate = predicate.and({Entity source, Entity target ->
             if (owner == 'you') {
                 return Players.findOwnerFor(source) == Players.findOwnerFor(target)
@@ -60,6 +73,7 @@ class FilterDelegate {
     def creatureType(String... type) {
         addAnd()
         description.append('creatures of type ' + String.join(' or ', type))
+        domain.requiring(CreatureTypeComponent)
         predicate = predicate.and({Entity source, Entity target ->
             CreatureTypeComponent creatureType = target.getComponent(CreatureTypeComponent)
             if (creatureType) {
@@ -73,6 +87,8 @@ class FilterDelegate {
     def zone(String... zone) {
         addAnd()
         description.append('on ' + String.join(' or ', zone))
+        dependencies.add(ModifierDependency.ZONE)
+        domain.zones(zone)
         predicate = predicate.and({Entity source, Entity target ->
             CardComponent cardComponent = target.getComponent(CardComponent)
             Cards.isCard(target) && cardComponent.getCurrentZone() && cardComponent.getCurrentZone().getName() in zone
@@ -82,6 +98,9 @@ class FilterDelegate {
     def creature(boolean creature) {
         addAnd()
         description.append(creature ? 'creatures' : 'non-creatures')
+        if (creature) {
+            domain.requiring(CreatureTypeComponent)
+        }
         predicate = predicate.and({Entity source, Entity target ->
             CreatureTypeComponent creatureType = target.getComponent(CreatureTypeComponent)
             return creatureType != null
@@ -91,6 +110,9 @@ class FilterDelegate {
     def player(boolean player) {
         addAnd()
         description.append(player ? 'players' : 'non-players')
+        if (player) {
+            domain.requiring(PlayerComponent)
+        }
         predicate = predicate.and({Entity source, Entity target ->
             PlayerComponent comp = target.getComponent(PlayerComponent)
             return comp != null
@@ -36,6 +36,7 @@ import com.cardshifter.modapi.cards.PlayFromHandSystem
 import com.cardshifter.modapi.cards.RemoveDeadEntityFromZoneSystem
 import com.cardshifter.modapi.cards.ZoneChangeEvent
 import com.cardshifter.modapi.cards.ZoneComponent
+import com.cardshifter.modapi.events.EntityEvent
 import com.cardshifter.modapi.events.EntityRemoveEvent
 import com.cardshifter.modapi.events.IEvent
 import com.cardshifter.modapi.phase.GainResourceSystem
@@ -155,6 +156,20 @@ public class GeneralSystems {
         )
     }
 
+    static <T extends EntityEvent> void triggerOwnBefore(Entity entity, String description, Class<T> eventClass, Closure closure) {
+        EffectDelegate effect = EffectDelegate.create(closure, false)
+        def eff = new Effects();
+        addEffect(entity,
+                eff.described(description.replace("%description%", effect.description.toString()),
+                        eff.giveSelf(
+                                eff.ownTriggerSystemBefore(eventClass,
+                                        {Entity source, T event -> effect.perform(source)}
+                                )
+                        )
+                )
+        )
+    }
+
     private static boolean ownerMatch(String str, Entity expected, Entity actual) {
         if (str == 'your') {
             return expected == actual
@@ -171,9 +186,9 @@ public class GeneralSystems {
         private ECSAction action
 
         private void addTargetSet(int min, int max, Closure filter) {
-            action.addTargetSet(min, max)
             assert !entity.hasComponent(FilterComponent) : 'Only one target set is supported so far'
             FilterDelegate filterDelegate = FilterDelegate.fromClosure filter
+            action.addTargetSet(min, max, filterDelegate.domain)
             TargetFilter resultFilter = {Entity source, Entity target ->
                 filterDelegate.predicate.test(source, target)
             }
@@ -267,8 +282,7 @@ public class GeneralSystems {
         }
 
         CardDelegate.metaClass.onDeath << {Closure closure ->
-            triggerBefore((Entity) entity(), 'When this dies, %description%', EntityRemoveEvent.class,
-                    {Entity source, EntityRemoveEvent event -> source == event.entity}, closure)
+            triggerOwnBefore((Entity) entity(), 'When this dies, %description%', EntityRemoveEvent.class, closure)
         }
 
         CardDelegate.metaClass.spell << {String actionName ->
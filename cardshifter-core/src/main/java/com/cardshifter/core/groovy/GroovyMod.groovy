@@ -2,7 +2,9 @@ package com.cardshifter.core.groovy
 
 import com.cardshifter.api.config.DeckConfig
 import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.ECSSystem
 import com.cardshifter.modapi.base.Entity
+import com.cardshifter.modapi.base.GameFork
 import com.cardshifter.modapi.base.PlayerComponent
 import com.cardshifter.modapi.cards.DeckComponent
 import com.cardshifter.modapi.events.EntityCreatedEvent
@@ -118,6 +120,19 @@ public class GroovyMod {
             e.entity.setMetaClass(game.entityMeta)
         })
         enableMeta(game)
+        def gameMeta = game.metaClass
+        game.addSystem(new ECSSystem() {
+            @Override
+            void startGame(ECSGame ecsGame) {
+            }
+
+            @Override
+            ECSSystem fork(GameFork fork) {
+                // Forks of the game need the same meta methods as the game
+                fork.game.metaClass = gameMeta
+                this
+            }
+        })
         def confDelegate = new ConfigDelegate(game: game, mod: this, cardDelegate: cardDelegate)
 
         MaxInDeck maxInDeck = new MaxInDeck()
@@ -209,17 +224,7 @@ class SetupDelegate {
     }
 
     static def setupDeck(DeckComponent deck, DeckConfig deckConf) {
-        def game = deck.owner.game;
-        for (def chosen in deckConf.chosen.entrySet()) {
-            def entityId = chosen.key;
-            def count = chosen.value;
-
-            for (int i = 0; i < count; i++) {
-                def existing = game.getEntity(entityId);
-                def copy = existing.copy();
-                deck.addOnBottom(copy);
-            }
-        }
+        DeckComponent.setupDeck(deck, deckConf)
     }
 
     def playerDeckShuffle() {
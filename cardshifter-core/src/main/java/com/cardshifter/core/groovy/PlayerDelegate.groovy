@@ -36,10 +36,9 @@ public class PlayerDelegate {
     }
 
     def endTurnAction() {
-        PhaseController phaseController = ComponentRetriever.singleton(entity.game, PhaseController)
         entity.getComponent(ActionComponent).addAction(new ECSAction(entity, "End Turn",
-                {act -> phaseController.currentPhase.owner == entity},
-                {act -> phaseController.nextPhase()}))
+                {act -> ComponentRetriever.singleton(act.owner.game, PhaseController).currentPhase.owner == act.owner},
+                {act -> ComponentRetriever.singleton(act.owner.game, PhaseController).nextPhase()}))
     }
 
     def hand() {
@@ -65,7 +64,7 @@ public class PlayerDelegate {
         def deckConfig = new DeckDelegate()
         closure.delegate = deckConfig
         closure.call()
-        List cardList = entity.game.findEntities({en -> en.hasComponent(ZoneComponent)})
+        List cardList = new ArrayList<>(entity.game.getEntitiesWithComponent(ZoneComponent))
         assert cardList.size() == 1
         ZoneComponent zone = cardList.get(0).getComponent(ZoneComponent)
         assert zone.name == deckConfig.zoneName
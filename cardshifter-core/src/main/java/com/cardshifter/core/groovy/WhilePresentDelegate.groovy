@@ -4,6 +4,7 @@ import com.cardshifter.modapi.base.Entity
 import com.cardshifter.modapi.resources.ECSResource
 import com.cardshifter.modapi.resources.ECSResourceBiStrategy
 import com.cardshifter.modapi.resources.EntityModifier
+import com.cardshifter.modapi.resources.ModifierDependency
 import net.zomis.cardshifter.ecs.effects.TargetFilter
 
 import java.util.function.Function
@@ -30,9 +31,11 @@ class WhilePresentDelegate {
         filter.call()
         Predicate<Entity> active = {!it.isRemoved()}
         TargetFilter appliesTo = deleg.predicate
+        Set<ModifierDependency> dependencies = EnumSet.of(ModifierDependency.PRESENCE)
+        dependencies.addAll(deleg.dependencies)
 
         Closure<EntityModifier> closure = {Entity entity ->
-            new EntityModifier(entity, priority, active, appliesTo, strategy)
+            new EntityModifier(entity, priority, active, appliesTo, strategy, dependencies)
         }
 
         for (ECSResource res : resources) {
@@ -1,11 +1,8 @@
 package com.cardshifter.core.replays;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.Random;
-import java.util.concurrent.atomic.AtomicLong;
 
 import com.cardshifter.api.config.PlayerConfig;
 import net.zomis.cardshifter.ecs.config.ConfigComponent;
@@ -23,6 +20,8 @@ import com.cardshifter.modapi.ai.AISystem;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
+import com.cardshifter.modapi.base.GameRandom;
 import com.cardshifter.modapi.base.PlayerComponent;
 import com.cardshifter.modapi.events.StartGameEvent;
 
@@ -38,20 +37,18 @@ public class ReplayPlaybackSystem implements ECSSystem {
 	public ReplayPlaybackSystem(ECSGame game, ReplayRecordSystem replay) {
 		this.replayData = replay;
 		this.game = game;
-		applySeed(game, replay.getSeed());
+		applySeed(game.getGameRandom(), replay);
 	}
 
-	private void applySeed(ECSGame game, long newSeed) {
-		Random random = game.getRandom();
-		try {
-			Field field = random.getClass().getDeclaredField("seed");
-			field.setAccessible(true);
-			Object result = field.get(random);
-			AtomicLong seed = (AtomicLong) result;
-			seed.set(newSeed);
-		} catch (NoSuchFieldException | SecurityException | IllegalArgumentException | IllegalAccessException e) {
-			throw new RuntimeException("Cannot initialize random seed", e);
+	private void applySeed(GameRandom random, ReplayRecordSystem replay) {
+		if (replay.getRandomState() == null) {
+			// old replays stored the internal state of the only random of the game, which was used for everything
+			random.useMainStreamOnly();
+			random.main().setState(replay.getSeed());
+			return;
 		}
+		random.setSeed(replay.getSeed());
+		random.setState(replay.getRandomState());
 	}
 
 	@Override
@@ -65,6 +62,14 @@ public class ReplayPlaybackSystem implements ECSSystem {
 		players.forEach(this::giveReplayControls);
 	}
 	
+	/**
+	 * Replays are only played back in the real game
+	 */
+	@Override
+	public ECSSystem fork(GameFork fork) {
+		return null;
+	}
+	
 	private void setPlayerName(Entity playerEntity) {
 		PlayerComponent playerInfo = playerEntity.getComponent(PlayerComponent.class);
 		int index = playerInfo.getIndex();
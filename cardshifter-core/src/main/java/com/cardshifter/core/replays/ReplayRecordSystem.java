@@ -2,16 +2,13 @@ package com.cardshifter.core.replays;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import net.zomis.cardshifter.ecs.config.ConfigComponent;
@@ -22,6 +19,7 @@ import com.cardshifter.modapi.actions.ActionPerformEvent;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
 import com.cardshifter.modapi.base.PlayerComponent;
 import com.cardshifter.modapi.events.GameOverEvent;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -39,36 +37,32 @@ public class ReplayRecordSystem implements ECSSystem {
 	private final Map<Integer, PlayerConfigMessage> entityConfigs = new HashMap<>();
 	
 	private final long seed;
+	/**
+	 * The state of the random streams of the game when recording started. Null for replays that were saved before
+	 * games had separate random streams, in which case the seed is the internal state of the main stream
+	 * and the main stream is used for everything when the replay is played back.
+	 */
+	private final Map<String, Long> randomState;
 	private final File file;
 
 	private List<String> playerNames;
 
 	private final String modName;
 	
-	ReplayRecordSystem(@JsonProperty("seed") long seed) {
+	ReplayRecordSystem(@JsonProperty("seed") long seed, @JsonProperty("randomState") Map<String, Long> randomState) {
 		this.seed = seed;
+		this.randomState = randomState;
 		this.modName = null;
 		this.file = null;
 	}
 	
 	public ReplayRecordSystem(ECSGame game, String modName, File output) {
-		this.seed = fetchSeed(game.getRandom());
+		this.seed = game.getGameRandom().getSeed();
+		this.randomState = game.getGameRandom().getState();
 		this.modName = modName;
 		this.file = output;
 	}
 
-	private long fetchSeed(Random random) {
-		try {
-			Field field = random.getClass().getDeclaredField("seed");
-			field.setAccessible(true);
-			Object result = field.get(random);
-			AtomicLong seed = (AtomicLong) result;
-			return seed.get();
-		} catch (NoSuchFieldException | SecurityException | IllegalArgumentException | IllegalAccessException e) {
-			throw new RuntimeException("Cannot initialize random seed", e);
-		}
-	}
-
 	@Override
 	public void startGame(ECSGame game) {
 		if (file == null) {
@@ -85,6 +79,14 @@ public class ReplayRecordSystem implements ECSSystem {
 		
 	}
 	
+	/**
+	 * Only the actions of the real game are recorded
+	 */
+	@Override
+	public ECSSystem fork(GameFork fork) {
+		return null;
+	}
+	
 	private void recordAction(ActionPerformEvent event) {
 		actionInformation.add(ReplayAction.forAction(event));
 	}
@@ -107,6 +109,10 @@ public class ReplayRecordSystem implements ECSSystem {
 		return seed;
 	}
 	
+	public Map<String, Long> getRandomState() {
+		return randomState;
+	}
+	
 	public List<ReplayAction> getActionInformation() {
 		return actionInformation;
 	}
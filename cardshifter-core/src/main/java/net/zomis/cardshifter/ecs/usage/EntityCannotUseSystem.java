@@ -3,7 +3,9 @@ package net.zomis.cardshifter.ecs.usage;
 import com.cardshifter.modapi.actions.ActionAllowedCheckEvent;
 import com.cardshifter.modapi.actions.ActionPerformEvent;
 import com.cardshifter.modapi.actions.SpecificActionSystem;
+import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
 
 public class EntityCannotUseSystem extends SpecificActionSystem {
 
@@ -24,5 +26,10 @@ public class EntityCannotUseSystem extends SpecificActionSystem {
 	@Override
 	protected void onPerform(ActionPerformEvent event) {
 	}
+	
+	@Override
+	public ECSSystem fork(GameFork fork) {
+		return fork.start(new EntityCannotUseSystem(fork.entity(entity), getActionName()));
+	}
 
 }
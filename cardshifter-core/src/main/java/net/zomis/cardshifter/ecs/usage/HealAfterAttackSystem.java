@@ -2,7 +2,9 @@ package net.zomis.cardshifter.ecs.usage;
 
 import com.cardshifter.modapi.actions.ActionPerformEvent;
 import com.cardshifter.modapi.actions.SpecificActionSystem;
+import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
 import com.cardshifter.modapi.resources.ECSResource;
 import com.cardshifter.modapi.resources.ResourceRetriever;
 
@@ -19,6 +21,13 @@ public class HealAfterAttackSystem extends SpecificActionSystem {
 		this.healthMax = ResourceRetriever.forResource(healthMax);
 	}
 
+	private HealAfterAttackSystem(Entity entity, HealAfterAttackSystem original) {
+		super("Attack");
+		this.entity = entity;
+		this.health = original.health;
+		this.healthMax = original.healthMax;
+	}
+
 	@Override
 	protected void onPerform(ActionPerformEvent event) {
 		if (event.getEntity() != entity) {
@@ -29,7 +38,11 @@ public class HealAfterAttackSystem extends SpecificActionSystem {
 		}
 		health.resFor(entity).set(healthMax.getFor(entity));
 	}
-	
+
+	@Override
+	public ECSSystem fork(GameFork fork) {
+		return fork.start(new HealAfterAttackSystem(fork.entity(entity), this));
+	}
 	
 
 }
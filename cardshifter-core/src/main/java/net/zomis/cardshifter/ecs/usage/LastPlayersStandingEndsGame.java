@@ -41,7 +41,7 @@ public class LastPlayersStandingEndsGame implements ECSSystem {
 	
 	private void onPlayerEliminated(PlayerEliminatedEvent event) {
 		List<PlayerComponent> alive = event.getEntity().getGame()
-			.getEntitiesWithComponent(PlayerComponent.class).stream()
+			.entitiesWithComponentView(PlayerComponent.class).stream()
 			.map(e -> e.getComponent(PlayerComponent.class))
 			.filter(pl -> !pl.isEliminated())
             .collect(Collectors.toList());
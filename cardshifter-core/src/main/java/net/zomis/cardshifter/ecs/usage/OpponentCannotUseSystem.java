@@ -6,7 +6,9 @@ import com.cardshifter.modapi.actions.ActionAllowedCheckEvent;
 import com.cardshifter.modapi.actions.ActionPerformEvent;
 import com.cardshifter.modapi.actions.SpecificActionSystem;
 import com.cardshifter.modapi.base.ComponentRetriever;
+import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
 import com.cardshifter.modapi.base.PlayerComponent;
 import com.cardshifter.modapi.base.Retriever;
 import com.cardshifter.modapi.cards.CardComponent;
@@ -37,6 +39,11 @@ public class OpponentCannotUseSystem extends SpecificActionSystem {
 	protected void onPerform(ActionPerformEvent event) {
 	}
 	
+	@Override
+	public ECSSystem fork(GameFork fork) {
+		return fork.start(new OpponentCannotUseSystem(fork.entity(entity), getActionName()));
+	}
+	
 	private PlayerComponent findOwnerFor(Entity entity) {
 		Entity playerEntity = Objects.requireNonNull(Players.findOwnerFor(entity), entity + " is not a player or a card. No idea who the player is.");
 		return player.get(playerEntity);
@@ -37,7 +37,8 @@ public class TestMod implements ECSMod {
             ActionComponent actions = new ActionComponent();
             player.addComponent(actions);
 
-            ECSAction endTurnAction = new ECSAction(player, END_TURN_ACTION, act -> phaseController.getCurrentPhase() == playerPhase, act -> phaseController.nextPhase());
+            ECSAction endTurnAction = new ECSAction(player, END_TURN_ACTION,
+                    act -> phases(act).getCurrentPhase().getOwner() == act.getOwner(), act -> phases(act).nextPhase());
             actions.addAction(endTurnAction);
 
             ECSResourceMap.createFor(player)
@@ -89,12 +90,16 @@ public class TestMod implements ECSMod {
         }
     }
 
+    private static PhaseController phases(ECSAction action) {
+        return ComponentRetriever.singleton(action.getOwner().getGame(), PhaseController.class);
+    }
+
     private ECSAction damageAction(Entity entity) {
         ResourceRetriever health = ResourceRetriever.forResource(CyborgChroniclesGame.CyborgChroniclesResources.HEALTH);
         return new ECSAction(entity, "Damage", act -> true, act -> {
-            health.resFor(entity).change(-1);
-            if (health.getFor(entity) == 0) {
-                entity.destroy();
+            health.resFor(act.getOwner()).change(-1);
+            if (health.getFor(act.getOwner()) == 0) {
+                act.getOwner().destroy();
             }
         });
     }
@@ -105,7 +110,7 @@ public class TestMod implements ECSMod {
             Entity player = Players.findOwnerFor(act.getOwner());
             final Entity origPlayer = player;
             if (switchPlayer) {
-                Set<Entity> players = entity.getGame().getEntitiesWithComponent(PlayerComponent.class);
+                Set<Entity> players = act.getOwner().getGame().getEntitiesWithComponent(PlayerComponent.class);
                 player = players.stream().filter(pl -> pl != origPlayer).findAny().get();
             }
             card.moveToBottom(player.getComponent(zone));
@@ -3,6 +3,7 @@ package net.zomis.cardshifter.ecs.usage;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
 import com.cardshifter.modapi.phase.PhaseEndEvent;
 import com.cardshifter.modapi.players.Players;
 
@@ -17,7 +18,11 @@ public class UntilEndOfOwnerTurnSystem implements ECSSystem {
 	private final ECSSystem system;
 
 	public UntilEndOfOwnerTurnSystem(Entity entity, ECSSystem system) {
-		this.owner = Players.findOwnerFor(entity);
+		this(system, Players.findOwnerFor(entity));
+	}
+
+	private UntilEndOfOwnerTurnSystem(ECSSystem system, Entity owner) {
+		this.owner = owner;
 		this.system = system;
 	}
 
@@ -29,17 +34,32 @@ public class UntilEndOfOwnerTurnSystem implements ECSSystem {
 	@Override
 	public void startGame(ECSGame game) {
 		game.addSystem(system);
-		game.getEvents().registerHandlerAfter(system, PhaseEndEvent.class, this::phaseEnd);
+		game.getEvents().registerHandlerAfter(this, PhaseEndEvent.class, this::phaseEnd);
+	}
+
+	/**
+	 * The supplied system is forked by itself, as it is also a system of the game
+	 */
+	@Override
+	public ECSSystem fork(GameFork fork) {
+		ECSSystem copySystem = fork.system(system);
+		if (copySystem == null) {
+			return null;
+		}
+		UntilEndOfOwnerTurnSystem copy = new UntilEndOfOwnerTurnSystem(copySystem, fork.entity(owner));
+		fork.getGame().getEvents().registerHandlerAfter(copy, PhaseEndEvent.class, copy::phaseEnd);
+		return copy;
 	}
 	
 	/**
-	 * Remove the system from the game.
+	 * Remove the system, and this system, from the game.
 	 * 
 	 * @param event The PhaseEndEvent object
 	 */
 	private void phaseEnd(PhaseEndEvent event) {
 		if (owner == event.getOldPhase().getOwner()) {
 			owner.getGame().removeSystem(system);
+			owner.getGame().removeSystem(this);
 		}
 	}
 
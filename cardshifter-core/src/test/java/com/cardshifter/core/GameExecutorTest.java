@@ -0,0 +1,57 @@
+package com.cardshifter.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.cardshifter.core.game.GameExecutor;
+
+public class GameExecutorTest {
+
+	@Test(timeout = 10000)
+	public void tasksRunOneAtATimeInOrder() throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		GameExecutor executor = new GameExecutor(pool);
+		AtomicInteger running = new AtomicInteger();
+		List<Integer> order = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			int value = i;
+			executor.execute(() -> {
+				assertEquals(1, running.incrementAndGet());
+				assertTrue(executor.isExecutingThread());
+				order.add(value);
+				running.decrementAndGet();
+			});
+		}
+		assertEquals(Integer.valueOf(1000), executor.submit(() -> order.size()).join());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(Integer.valueOf(i), order.get(i));
+		}
+		assertFalse(executor.isExecutingThread());
+		pool.shutdown();
+		pool.awaitTermination(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void directExecutorRunsNestedTasksAfterCurrent() {
+		GameExecutor executor = GameExecutor.direct();
+		List<String> order = new ArrayList<>();
+		executor.execute(() -> {
+			executor.execute(() -> order.add("nested"));
+			order.add("outer");
+		});
+		assertEquals(2, order.size());
+		assertEquals("outer", order.get(0));
+		assertEquals("nested", order.get(1));
+	}
+
+}
@@ -1,11 +1,15 @@
 package com.cardshifter.core;
 
 import com.cardshifter.ai.AIs;
+import com.cardshifter.ai.MonteCarloAI;
 import com.cardshifter.ai.ScoringAI;
 import com.cardshifter.core.game.ModCollection;
 import com.cardshifter.core.modloader.ECSModTest;
 import com.cardshifter.core.modloader.GroovyMod;
+import com.cardshifter.modapi.actions.Actions;
 import com.cardshifter.modapi.actions.ECSAction;
+import com.cardshifter.modapi.actions.TargetSet;
+import com.cardshifter.modapi.ai.AIComponent;
 import com.cardshifter.modapi.ai.CardshifterAI;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSGameState;
@@ -15,6 +19,7 @@ import com.cardshifter.modapi.players.Players;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
+import net.zomis.aiscores.FieldScore;
 import net.zomis.cardshifter.ecs.config.ConfigComponent;
 import org.apache.log4j.PropertyConfigurator;
 
@@ -22,8 +27,13 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -32,6 +42,11 @@ import static org.junit.Assert.fail;
  */
 public class TestUtils {
 
+    /**
+     * Threads for scoring in parallel, a fixed number so that the parallel mode is used on any machine
+     */
+    private static final int SCORING_THREADS = 4;
+
     ModCollection createModCollection() {
         ModCollection mods = new ModCollection();
         mods.loadExternal(new File("../test-resources/mods").toPath());
@@ -70,8 +85,11 @@ public class TestUtils {
                 suite.addTest(untestedMod(modName));
                 return suite;
             }
-            tests.add(sequencialPlayTest(mods, modName));
+            tests.add(sequencialPlayTest(mods, modName, "quick play", new ScoringAI(AIs.fighter())));
+            tests.add(parallelScoringPlayTest(mods, modName));
+            tests.add(parallelScoringTest(mods, modName));
             tests.add(multithreadedPlayTest(mods, modName));
+            tests.add(monteCarloPlayTest(mods, modName));
             for (ECSModTest test : tests) {
                 suite.addTest(createTest(mods, modName, test));
             }
@@ -79,37 +97,156 @@ public class TestUtils {
         return suite;
     }
 
-    private ECSModTest sequencialPlayTest(ModCollection mods, String modName) {
-        ECSModTest modTest = new ECSModTest("quick play", new Runnable() {
+    private ECSModTest sequencialPlayTest(ModCollection mods, String modName, String testName, CardshifterAI ai) {
+        ECSModTest modTest = new ECSModTest(testName, new Runnable() {
+            @Override
+            public void run() {
+                playSequentially(mods.getModFor(modName), ai);
+            }
+        });
+        return modTest;
+    }
+
+    private ECSModTest parallelScoringPlayTest(ModCollection mods, String modName) {
+        return new ECSModTest("parallel scoring play", new Runnable() {
+            @Override
+            public void run() {
+                ForkJoinPool pool = new ForkJoinPool(SCORING_THREADS);
+                try {
+                    playSequentially(mods.getModFor(modName), new ScoringAI(AIs.fighter()).parallel(pool));
+                }
+                finally {
+                    pool.shutdown();
+                }
+            }
+        });
+    }
+
+    private static void playSequentially(ECSMod mod, CardshifterAI ai) {
+        ECSGame game = new ECSGame();
+        mod.declareConfiguration(game);
+        List<Entity> players = Players.getPlayersInGame(game);
+        for (Entity entity : players) {
+            ai.configure(entity, entity.getComponent(ConfigComponent.class));
+        }
+        mod.setupGame(game);
+        game.startGame();
+        while (!game.isGameOver()) {
+            boolean performed = false;
+            for (Entity entity : players) {
+                ECSAction action = ai.getAction(entity);
+                if (action != null) {
+                    boolean doSomething = action.perform(entity);
+                    if (doSomething) {
+                        System.out.println(entity + " performed " + action);
+                    }
+                    performed = performed || doSomething;
+                }
+            }
+            assertTrue("No player perfored any action: " + players, performed);
+        }
+    }
+
+    private ECSModTest parallelScoringTest(ModCollection mods, String modName) {
+        return new ECSModTest("parallel scoring matches sequential", new Runnable() {
             @Override
             public void run() {
                 ECSMod mod = mods.getModFor(modName);
                 ECSGame game = new ECSGame();
-                CardshifterAI ai = new ScoringAI(AIs.fighter());
-                mod.declareConfiguration(game);
-                List<Entity> players = Players.getPlayersInGame(game);
-                for (Entity entity : players) {
-                    ai.configure(entity, entity.getComponent(ConfigComponent.class));
+                ScoringAI sequential = new ScoringAI(AIs.fighter());
+                ForkJoinPool pool = new ForkJoinPool(SCORING_THREADS);
+                try {
+                    ScoringAI parallel = new ScoringAI(AIs.fighter()).parallel(pool);
+                    mod.declareConfiguration(game);
+                    List<Entity> players = Players.getPlayersInGame(game);
+                    for (Entity entity : players) {
+                        sequential.configure(entity, entity.getComponent(ConfigComponent.class));
+                    }
+                    mod.setupGame(game);
+                    game.startGame();
+                    for (int i = 0; i < 20 && !game.isGameOver(); i++) {
+                        boolean performed = false;
+                        for (Entity entity : players) {
+                            // scoring every action leaves the targets that the scorers chose for it on the action
+                            Map<ECSAction, FieldScore<ECSAction>> scores = sequential.calculateFullScore(entity).getScores();
+                            ECSGame fork = game.fork();
+                            ECSAction action = parallel.getAction(fork.getEntity(entity.getId()));
+                            if (scores.isEmpty()) {
+                                assertNull(action);
+                                continue;
+                            }
+                            assertNotNull(entity + " did not get an action in parallel", action);
+
+                            // actions with the same score are chosen at random, so any of the best actions may be chosen
+                            double best = scores.values().stream().mapToDouble(FieldScore::getScore).max().getAsDouble();
+                            ECSAction same = Actions.getAction(game.getEntity(action.getOwner().getId()), action.getName());
+                            assertEquals("Score of " + action, best, scores.get(same).getScore(), 0.0);
+                            assertEquals("Targets of " + action, targetIds(same), targetIds(action));
+
+                            ECSAction chosen = sequential.getAction(entity);
+                            performed = chosen != null && chosen.perform(entity) || performed;
+                        }
+                        assertTrue("No player perfored any action: " + players, performed);
+                    }
                 }
-                mod.setupGame(game);
-                game.startGame();
-                while (!game.isGameOver()) {
-                    boolean performed = false;
+                finally {
+                    pool.shutdown();
+                }
+            }
+        });
+    }
+
+    private static List<List<Integer>> targetIds(ECSAction action) {
+        List<List<Integer>> result = new ArrayList<>();
+        for (TargetSet targetSet : action.getTargetSets()) {
+            result.add(targetSet.getChosenTargets().stream().map(Entity::getId).collect(Collectors.toList()));
+        }
+        return result;
+    }
+
+    private ECSModTest monteCarloPlayTest(ModCollection mods, String modName) {
+        return new ECSModTest("monte carlo play", new Runnable() {
+            @Override
+            public void run() {
+                ECSMod mod = mods.getModFor(modName);
+                ECSGame game = new ECSGame();
+                ForkJoinPool pool = new ForkJoinPool(2);
+                try {
+                    CardshifterAI ai = new MonteCarloAI(AIs.fighter(), AIs::fighterDeck, AIs::playerHealth, pool, Integer.MAX_VALUE);
+                    mod.declareConfiguration(game);
+                    List<Entity> players = Players.getPlayersInGame(game);
                     for (Entity entity : players) {
-                        ECSAction action = ai.getAction(entity);
-                        if (action != null) {
-                            boolean doSomething = action.perform(entity);
-                            if (doSomething) {
-                                System.out.println(entity + " performed " + action);
+                        ai.configure(entity, entity.getComponent(ConfigComponent.class));
+                        AIComponent component = new AIComponent(ai);
+                        // the delay is the search budget of the AI
+                        component.setDelay(10);
+                        entity.addComponent(component);
+                    }
+                    mod.setupGame(game);
+                    game.startGame();
+                    while (!game.isGameOver()) {
+                        boolean performed = false;
+                        for (Entity entity : players) {
+                            if (game.isGameOver()) {
+                                break;
+                            }
+                            long hash = game.stateHash();
+                            ECSAction action = ai.getAction(entity);
+                            assertEquals("Searching changed the game", hash, game.stateHash());
+                            if (action != null) {
+                                assertTrue(entity + " chose an action that is not allowed: " + action, action.isAllowed(entity));
+                                assertTrue(entity + " could not perform " + action, action.perform(entity));
+                                performed = true;
                             }
-                            performed = performed || doSomething;
                         }
+                        assertTrue("No player perfored any action: " + players, performed);
                     }
-                    assertTrue("No player perfored any action: " + players, performed);
+                }
+                finally {
+                    pool.shutdown();
                 }
             }
         });
-        return modTest;
     }
 
     private ECSModTest multithreadedPlayTest(ModCollection mods, String modName) {
@@ -0,0 +1,89 @@
+package com.cardshifter.core.replays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.zomis.cardshifter.ecs.usage.CardshifterIO;
+import net.zomis.cardshifter.ecs.usage.TestMod;
+
+import org.junit.Test;
+
+import com.cardshifter.modapi.actions.Actions;
+import com.cardshifter.modapi.base.ComponentRetriever;
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameRandom;
+import com.cardshifter.modapi.base.PlayerComponent;
+import com.cardshifter.modapi.cards.DeckComponent;
+import com.cardshifter.modapi.cards.HandComponent;
+import com.cardshifter.modapi.cards.ZoneComponent;
+import com.cardshifter.modapi.phase.PhaseController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class ReplayPlaybackTest {
+
+	/**
+	 * The internal state of a {@link java.util.Random} with the seed 42, which is what replays stored
+	 * before games had separate random streams
+	 */
+	private static final long LEGACY_STATE = (42 ^ 0x5DEECE66DL) & ((1L << 48) - 1);
+
+	@Test
+	public void legacyReplayUsesMainStreamForEverything() throws Exception {
+		// play a game the way games were played when legacy replays were recorded, with one random for everything
+		ECSGame recorded = new ECSGame();
+		recorded.getGameRandom().useMainStreamOnly();
+		recorded.getGameRandom().main().setState(LEGACY_STATE);
+		ReplayRecordSystem recorder = new ReplayRecordSystem(recorded, "Test", new File("unsaved-replay.json"));
+		recorded.addSystem(recorder);
+		new TestMod().setupGame(recorded);
+		recorded.startGame();
+		PhaseController phases = ComponentRetriever.singleton(recorded, PhaseController.class);
+		for (int turn = 0; turn < 6; turn++) {
+			Entity player = phases.getCurrentEntity();
+			Entity card = player.getComponent(HandComponent.class).getTopCard();
+			assertTrue(Actions.getAction(card, "Field").perform(player));
+			assertTrue(Actions.getAction(player, TestMod.END_TURN_ACTION).perform(player));
+		}
+
+		// save it in the legacy format, which only has the state of the main stream
+		ObjectMapper mapper = CardshifterIO.mapper();
+		ObjectNode json = mapper.valueToTree(recorder);
+		json.remove("randomState");
+		json.put("seed", LEGACY_STATE);
+		ReplayRecordSystem replay = mapper.treeToValue(json, ReplayRecordSystem.class);
+		assertNull(replay.getRandomState());
+		assertEquals(12, replay.getActionInformation().size());
+
+		ECSGame played = new ECSGame();
+		ReplayPlaybackSystem playback = new ReplayPlaybackSystem(played, replay);
+		played.addSystem(playback);
+		new TestMod().setupGame(played);
+		played.startGame();
+		while (!playback.isReplayFinished()) {
+			playback.nextStep();
+		}
+
+		assertSame(played.getGameRandom().main(), played.getGameRandom().stream(GameRandom.SHUFFLE));
+		assertEquals(cardIds(recorded, DeckComponent.class), cardIds(played, DeckComponent.class));
+		assertEquals(cardIds(recorded, HandComponent.class), cardIds(played, HandComponent.class));
+	}
+
+	private static List<List<Integer>> cardIds(ECSGame game, Class<? extends ZoneComponent> zone) {
+		List<List<Integer>> result = new ArrayList<>();
+		for (Entity player : game.getEntitiesWithComponent(PlayerComponent.class)) {
+			List<Integer> ids = new ArrayList<>();
+			player.getComponent(zone).forEach(card -> ids.add(card.getId()));
+			result.add(ids);
+		}
+		return result;
+	}
+
+}
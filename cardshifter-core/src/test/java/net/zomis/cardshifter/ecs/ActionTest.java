@@ -8,12 +8,26 @@ import com.cardshifter.modapi.actions.*;
 import com.cardshifter.modapi.base.ComponentRetriever;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.PlayerComponent;
+import com.cardshifter.modapi.cards.BattlefieldComponent;
+import com.cardshifter.modapi.cards.CardComponent;
+import com.cardshifter.modapi.cards.HandComponent;
+import com.cardshifter.modapi.resources.ECSResource;
+import com.cardshifter.modapi.resources.ECSResourceMap;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -45,6 +59,57 @@ public class ActionTest {
 		verify(perform).accept(Mockito.any(ECSAction.class));
 	}
 
+	@Test
+	public void copiedActionsBelongToCopy() {
+		ActionComponent actions = retriever.get(entity);
+		ECSAction use = new ECSAction(entity, "Use", action -> true, action -> {});
+		actions.addAction(use);
+		Entity copy = entity.copy();
+
+		actions.removeAction("Use");
+		assertNull(actions.getAction("Use"));
+		ECSAction copyUse = retriever.get(copy).getAction("Use");
+		assertNotSame(use, copyUse);
+		assertSame(copy, copyUse.getOwner());
+		assertSame(copyUse, retriever.get(copy).getAction("Use"));
+	}
+
+	@Test
+	public void readingCopiedActionsDoesNotUnshare() {
+		ActionComponent actions = retriever.get(entity);
+		actions.addAction(new ECSAction(entity, "Use", action -> action.getOwner() != entity, action -> {}).addTargetSet(1, 1));
+		Entity copy = entity.copy();
+		ActionComponent copyActions = retriever.get(copy);
+
+		ECSAction copyUse = copyActions.getAction("Use");
+		assertSame(copy, copyUse.getOwner());
+		assertEquals(Collections.singletonList(copyUse), copyActions.getECSActions());
+		assertTrue(copyUse.isAllowed(copy));
+		assertFalse(actions.getAction("Use").isAllowed(entity));
+		assertEquals(1, copyUse.getTargetSets().size());
+		assertTrue(copyActions.isShared());
+		assertTrue(actions.isShared());
+
+		copyActions.addAction(new ECSAction(copy, "Other", action -> true, action -> {}));
+		assertFalse(copyActions.isShared());
+		assertSame(copyUse, copyActions.getAction("Use"));
+		assertEquals(Collections.singleton("Use"), actions.getActions());
+	}
+
+	@Test
+	public void originalKeepsItsActionsAfterCopy() {
+		ActionComponent actions = retriever.get(entity);
+		ECSAction use = new ECSAction(entity, "Use", action -> true, action -> {});
+		actions.addAction(use);
+		Entity copy = entity.copy();
+
+		assertSame(use, actions.getAction("Use"));
+		actions.addAction(new ECSAction(entity, "Other", action -> true, action -> {}));
+		assertEquals(Collections.singleton("Use"), retriever.get(copy).getActions());
+		assertSame(use, actions.getAction("Use"));
+		assertSame(copy, retriever.get(copy).getAction("Use").getOwner());
+	}
+
 	@Test
 	public void deniedActionWithSystem() {
 		String name = "Use";
@@ -73,4 +138,145 @@ public class ActionTest {
 		assertFalse(actions.getAction(name).isAllowed(entity));
 	}
 
+	private enum TestResource implements ECSResource {
+		MANA;
+	}
+
+	@Test
+	public void availableActionsOnlyRecheckChangedEntities() {
+		Entity player = game.newEntity().addComponent(new PlayerComponent(0, "Player")).addComponent(new ActionComponent());
+		ECSResourceMap.createFor(player).getResource(TestResource.MANA).set(0);
+		AvailableActions available = new AvailableActions();
+		game.addSystem(available);
+		game.startGame();
+
+		AtomicInteger checks = new AtomicInteger();
+		ECSAction use = new ECSAction(player, "Use", action -> {
+			checks.incrementAndGet();
+			return TestResource.MANA.getFor(player) > 0;
+		}, action -> {});
+		retriever.get(player).addAction(use);
+		available.invalidateAll();
+
+		assertTrue(available.update().isEmpty());
+		assertEquals(1, checks.get());
+		assertTrue(available.update().isEmpty());
+		assertEquals(1, checks.get());
+
+		TestResource.MANA.retriever().set(player, 1);
+		Map<Entity, AvailableActions.Diff> changes = available.update();
+		assertEquals(2, checks.get());
+		assertEquals(Collections.singletonList(use), changes.get(player).getAdded());
+		assertTrue(available.isAllowed(player, use));
+	}
+
+	@Test
+	public void rollbackChecksAvailableActionsAgain() {
+		Entity player = game.newEntity().addComponent(new PlayerComponent(0, "Player")).addComponent(new ActionComponent());
+		ECSResourceMap.createFor(player).getResource(TestResource.MANA).set(0);
+		AvailableActions available = new AvailableActions();
+		game.addSystem(available);
+		game.startGame();
+		ECSAction use = new ECSAction(player, "Use", action -> TestResource.MANA.getFor(player) > 0, action -> {});
+		retriever.get(player).addAction(use);
+		available.invalidateAll();
+		assertTrue(available.update().isEmpty());
+
+		int mark = game.mark();
+		TestResource.MANA.retriever().set(player, 1);
+		assertEquals(Collections.singletonList(use), available.update().get(player).getAdded());
+
+		// the resource is restored without any events, so only the rollback itself tells that the actions may have changed
+		game.rollback(mark);
+		Map<Entity, AvailableActions.Diff> changes = available.update();
+		assertEquals(Collections.singletonList(use), changes.get(player).getRemoved());
+		assertFalse(available.isAllowed(player, use));
+	}
+
+	@Test
+	public void zoneChangesOnlyRecheckAffectedActions() {
+		Entity player = game.newEntity().addComponent(new PlayerComponent(0, "Player"));
+		Entity opponent = game.newEntity().addComponent(new PlayerComponent(1, "Opponent")).addComponent(new ActionComponent());
+		HandComponent hand = new HandComponent(player);
+		BattlefieldComponent battlefield = new BattlefieldComponent(player);
+		BattlefieldComponent opponentBattlefield = new BattlefieldComponent(opponent);
+		player.addComponents(hand, battlefield);
+		opponent.addComponent(opponentBattlefield);
+		Entity card = game.newEntity().addComponent(new ActionComponent());
+		hand.addOnBottom(card);
+		Entity creature = game.newEntity().addComponent(new ActionComponent());
+		opponentBattlefield.addOnBottom(creature);
+		AvailableActions available = new AvailableActions();
+		game.addSystem(available);
+		game.startGame();
+
+		AtomicInteger playChecks = new AtomicInteger();
+		AtomicInteger attackChecks = new AtomicInteger();
+		AtomicInteger passChecks = new AtomicInteger();
+		retriever.get(card).addAction(new ECSAction(card, "Play", action -> playChecks.incrementAndGet() > 0, action -> {}));
+		retriever.get(creature).addAction(new ECSAction(creature, "Attack", action -> attackChecks.incrementAndGet() > 0, action -> {})
+			.addTargetSet(1, 1, new TargetDomain().zones("Battlefield").ownedBy(TargetDomain.Owner.OPPONENT)));
+		retriever.get(opponent).addAction(new ECSAction(opponent, "Pass", action -> passChecks.incrementAndGet() > 0, action -> {}));
+		available.update();
+		playChecks.set(0);
+		attackChecks.set(0);
+		passChecks.set(0);
+
+		card.getComponent(CardComponent.class).moveToBottom(battlefield);
+		available.update();
+		assertEquals(2, playChecks.get());
+		assertEquals(2, attackChecks.get());
+		assertEquals(0, passChecks.get());
+	}
+
+	@Test
+	public void targetDomainLimitsCheckedEntities() {
+		Entity player = game.newEntity().addComponent(new PlayerComponent(0, "Player"));
+		Entity opponent = game.newEntity().addComponent(new PlayerComponent(1, "Opponent"));
+		HandComponent hand = new HandComponent(player);
+		BattlefieldComponent battlefield = new BattlefieldComponent(opponent);
+		player.addComponent(hand);
+		opponent.addComponent(battlefield);
+		hand.addOnBottom(game.newEntity());
+		Entity creature = game.newEntity();
+		battlefield.addOnBottom(creature);
+		game.startGame();
+
+		AtomicInteger checks = new AtomicInteger();
+		game.getEvents().registerHandlerAfter(this, TargetableCheckEvent.class, event -> checks.incrementAndGet());
+		TargetDomain domain = new TargetDomain().zones("Battlefield").players().ownedBy(TargetDomain.Owner.OPPONENT);
+		ECSAction attack = new ECSAction(player, "Attack", action -> true, action -> {}).addTargetSet(1, 1, domain);
+
+		List<Entity> targets = attack.getTargetSets().get(0).findPossibleTargets();
+		assertEquals(Arrays.asList(opponent, creature), targets);
+		assertEquals(2, checks.get());
+		assertEquals(domain, attack.copy().getTargetSets().get(0).getDomain());
+	}
+
+	@Test
+	public void performAllStopsAtFirstDisallowedAction() {
+		game.startGame();
+		AtomicInteger performs = new AtomicInteger();
+		AtomicInteger batches = new AtomicInteger();
+		game.getEvents().registerHandlerAfter(this, ActionPerformEvent.class, event -> {
+			assertTrue(game.isPerformingBatch());
+			performs.incrementAndGet();
+		});
+		game.getEvents().registerHandlerAfter(this, ActionBatchEvent.class, event -> {
+			assertFalse(game.isPerformingBatch());
+			assertFalse(event.isComplete());
+			assertEquals(2, event.getPerformed().size());
+			batches.incrementAndGet();
+		});
+
+		ECSAction first = new ECSAction(entity, "First", action -> true, action -> {});
+		ECSAction second = new ECSAction(entity, "Second", action -> true, action -> {});
+		ECSAction denied = new ECSAction(entity, "Denied", action -> false, action -> {});
+		ECSAction last = new ECSAction(entity, "Last", action -> true, action -> {});
+
+		assertEquals(2, game.performAll(entity, Arrays.asList(first, second, denied, last)));
+		assertEquals(2, performs.get());
+		assertEquals(1, batches.get());
+	}
+
 }
@@ -1,17 +1,52 @@
 package net.zomis.cardshifter.ecs;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
+import com.cardshifter.modapi.actions.ECSAction;
+import com.cardshifter.modapi.actions.TargetSet;
+import com.cardshifter.modapi.attributes.Attributes;
+import com.cardshifter.modapi.attributes.ECSAttributeMap;
 import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.ComponentRetriever;
+import com.cardshifter.modapi.base.ComponentType;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.EntityQuery;
+import com.cardshifter.modapi.base.GameRandom;
+import com.cardshifter.modapi.base.PlayerComponent;
+import com.cardshifter.modapi.cards.CardComponent;
+import com.cardshifter.modapi.cards.DeckComponent;
+import com.cardshifter.modapi.cards.HandComponent;
+import com.cardshifter.modapi.cards.ZoneChangeEvent;
+import com.cardshifter.modapi.phase.Phase;
+import com.cardshifter.modapi.phase.PhaseController;
+import com.cardshifter.modapi.resources.ECSResource;
+import com.cardshifter.modapi.resources.ECSResourceMap;
 
 public class ECSTest {
 
+	private enum TestResource implements ECSResource {
+		HEALTH, ATTACK;
+	}
+	
+	private int zoneChanges;
+
 	private static class TestComponent extends Component {
 
 		private final int value;
@@ -33,4 +68,293 @@ public class ECSTest {
 		assertEquals(5, retreiver.get(entity).value);
 	}
 	
+	@Test
+	public void entitiesWithComponentIsUpdated() {
+		ECSGame game = new ECSGame();
+		Set<Entity> withTest = game.entitiesWithComponentView(TestComponent.class);
+		assertTrue(withTest.isEmpty());
+		
+		Entity first = game.newEntity().addComponent(new TestComponent(1));
+		Entity second = game.newEntity().addComponent(new TestComponent(2));
+		game.newEntity();
+		assertEquals(2, withTest.size());
+		assertTrue(withTest.contains(first));
+		assertSame(withTest, game.entitiesWithComponentView(TestComponent.class));
+		
+		Set<Entity> copy = game.getEntitiesWithComponent(TestComponent.class);
+		first.destroy();
+		assertEquals(1, withTest.size());
+		assertFalse(withTest.contains(first));
+		assertTrue(withTest.contains(second));
+		assertEquals(2, copy.size());
+	}
+	
+	@Test
+	public void entitiesCanBeDestroyedWhileIterating() {
+		ECSGame game = new ECSGame();
+		for (int i = 0; i < 5; i++) {
+			game.newEntity().addComponent(new TestComponent(i));
+		}
+		for (Entity entity : game.getEntitiesWithComponent(TestComponent.class)) {
+			entity.destroy();
+		}
+		assertTrue(game.getEntitiesWithComponent(TestComponent.class).isEmpty());
+	}
+	
+	@Test
+	public void singletonIsUpdated() {
+		ECSGame game = new ECSGame();
+		ComponentType<TestComponent> type = ComponentType.of(TestComponent.class);
+		assertNull(game.findSingleton(type));
+		
+		Entity first = game.newEntity().addComponent(new TestComponent(1));
+		assertEquals(1, ComponentRetriever.singleton(game, TestComponent.class).value);
+		
+		first.destroy();
+		assertNull(ComponentRetriever.singletonOptional(game, TestComponent.class));
+		
+		game.newEntity().addComponent(new TestComponent(2));
+		assertEquals(2, game.findSingleton(type).value);
+		game.newEntity().addComponent(new TestComponent(3));
+		try {
+			game.findSingleton(type);
+			fail("Expected more than one singleton to be found");
+		} catch (IllegalStateException ex) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void queryIsUpdated() {
+		ECSGame game = new ECSGame();
+		Entity before = game.newEntity().addComponent(new TestComponent(1));
+		EntityQuery query = game.query().all(TestComponent.class).none(PlayerComponent.class).build();
+		assertSame(query, game.query().none(PlayerComponent.class).all(TestComponent.class).build());
+		assertTrue(query.contains(before));
+		
+		Entity after = game.newEntity();
+		assertFalse(query.contains(after));
+		after.addComponent(new TestComponent(2));
+		assertTrue(query.contains(after));
+		after.addComponent(new PlayerComponent(0, "Test"));
+		assertFalse(query.contains(after));
+		
+		before.destroy();
+		assertTrue(query.isEmpty());
+	}
+	
+	@Test
+	public void forkKeepsQueries() {
+		ECSGame game = new ECSGame();
+		Entity first = game.newEntity();
+		ECSResourceMap.createFor(first);
+		Entity second = game.newEntity();
+		ECSResourceMap.createFor(second);
+		game.newEntity().addComponent(new PlayerComponent(0, "Test"));
+		first.removeComponent(ECSResourceMap.class);
+		ECSResourceMap.createFor(first);
+		EntityQuery query = game.query().all(ECSResourceMap.class).build();
+		
+		ECSGame fork = game.fork();
+		EntityQuery copy = fork.query().all(ECSResourceMap.class).build();
+		assertEquals(Arrays.asList(second.getId(), first.getId()), copy.stream().map(Entity::getId).collect(Collectors.toList()));
+		fork.getEntity(second.getId()).removeComponent(ECSResourceMap.class);
+		assertEquals(1, copy.size());
+		assertEquals(2, query.size());
+	}
+	
+	@Test
+	public void mainRandomIsSameAsJavaRandom() {
+		ECSGame game = new ECSGame();
+		game.setRandomSeed(42);
+		Random expected = new Random(42);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(expected.nextInt(100), game.getRandom().nextInt(100));
+		}
+	}
+	
+	@Test
+	public void randomStreamsAreIndependentAndRestorable() {
+		GameRandom random = new GameRandom(42);
+		GameRandom other = new GameRandom(42);
+		random.stream(GameRandom.AI).nextLong();
+		assertEquals(other.stream(GameRandom.SHUFFLE).nextLong(), random.stream(GameRandom.SHUFFLE).nextLong());
+		
+		Map<String, Long> state = random.getState();
+		long next = random.stream(GameRandom.AI).nextLong();
+		random.setState(state);
+		assertEquals(next, random.stream(GameRandom.AI).nextLong());
+		assertEquals(new GameRandom(42).split(3).getSeed(), random.split(3).getSeed());
+	}
+	
+	@Test
+	public void forkDoesNotAffectOriginal() {
+		ECSGame game = new ECSGame();
+		game.setRandomSeed(42);
+		Entity player = game.newEntity().addComponent(new PlayerComponent(0, "Player"));
+		DeckComponent deck = new DeckComponent(player);
+		HandComponent hand = new HandComponent(player);
+		player.addComponents(deck, hand);
+		ECSResourceMap.createFor(player).set(TestResource.HEALTH, 10);
+		ECSAttributeMap.createFor(player).set(Attributes.NAME, "Player");
+		TargetSet targets = new ECSAction(player, "Aim", action -> true, action -> {}).addTargetSet(1, 1)
+				.getTargetSets().get(0);
+		PhaseController phases = new PhaseController();
+		phases.addPhase(new Phase(player, "A"));
+		phases.addPhase(new Phase(player, "B"));
+		game.newEntity().addComponent(phases);
+		for (int i = 0; i < 5; i++) {
+			deck.addOnBottom(game.newEntity());
+		}
+		game.getEvents().registerHandlerAfter(this, ZoneChangeEvent.class, event -> zoneChanges++);
+		
+		ECSGame fork = game.fork();
+		Entity forkPlayer = fork.getEntity(player.getId());
+		Entity card = deck.getTopCard();
+		Entity forkCard = fork.getEntity(card.getId());
+		assertEquals(player.getId(), forkPlayer.getId());
+		assertEquals(5, forkPlayer.getComponent(DeckComponent.class).size());
+		
+		forkCard.getComponent(CardComponent.class).moveToBottom(forkPlayer.getComponent(HandComponent.class));
+		forkPlayer.getComponent(ECSResourceMap.class).getResource(TestResource.HEALTH).change(-3);
+		ComponentRetriever.singleton(fork, PhaseController.class).nextPhase();
+		
+		assertEquals(1, zoneChanges);
+		assertEquals(1, forkPlayer.getComponent(HandComponent.class).size());
+		assertTrue(forkPlayer.getComponent(HandComponent.class).contains(forkCard));
+		assertEquals(7, forkPlayer.getComponent(ECSResourceMap.class).getResource(TestResource.HEALTH).get());
+		assertEquals("B", ComponentRetriever.singleton(fork, PhaseController.class).getCurrentPhase().getName());
+		assertSame(forkPlayer, ComponentRetriever.singleton(fork, PhaseController.class).getCurrentPhase().getOwner());
+		
+		assertEquals(5, deck.size());
+		assertEquals(card, deck.getTopCard());
+		assertTrue(hand.isEmpty());
+		assertEquals(10, player.getComponent(ECSResourceMap.class).getResource(TestResource.HEALTH).get());
+		assertEquals("A", phases.getCurrentPhase().getName());
+		assertEquals(game.getRandom().nextLong(), fork.getRandom().nextLong());
+	}
+	
+	@Test
+	public void originalChangesDoNotAffectFork() {
+		ECSGame game = new ECSGame();
+		Entity player = game.newEntity().addComponent(new PlayerComponent(0, "Player"));
+		ECSResourceMap.createFor(player).set(TestResource.HEALTH, 10);
+		
+		ECSGame fork = game.fork();
+		player.getComponent(ECSResourceMap.class).set(TestResource.HEALTH, 4);
+		assertEquals(4, TestResource.HEALTH.getFor(player));
+		assertEquals(10, TestResource.HEALTH.getFor(fork.getEntity(player.getId())));
+	}
+	
+	@Test
+	public void rollbackRestoresGame() {
+		ECSGame game = new ECSGame();
+		game.setRandomSeed(42);
+		Entity player = game.newEntity().addComponent(new PlayerComponent(0, "Player"));
+		DeckComponent deck = new DeckComponent(player);
+		HandComponent hand = new HandComponent(player);
+		player.addComponents(deck, hand);
+		ECSResourceMap.createFor(player).set(TestResource.HEALTH, 10);
+		ECSAttributeMap.createFor(player).set(Attributes.NAME, "Player");
+		TargetSet targets = new ECSAction(player, "Aim", action -> true, action -> {}).addTargetSet(1, 1)
+				.getTargetSets().get(0);
+		PhaseController phases = new PhaseController();
+		phases.addPhase(new Phase(player, "A"));
+		phases.addPhase(new Phase(player, "B"));
+		game.newEntity().addComponent(phases);
+		for (int i = 0; i < 5; i++) {
+			deck.addOnBottom(game.newEntity());
+		}
+		game.getEvents().registerHandlerAfter(this, ZoneChangeEvent.class, event -> zoneChanges++);
+		deck.shuffle();
+		game.getRandom().nextInt(10);
+		List<Entity> cards = deck.getCards();
+		Set<Entity> withCards = game.entitiesWithComponentView(CardComponent.class);
+		List<Entity> cardOrder = new ArrayList<>(withCards);
+		Map<String, Long> randomState = game.getGameRandom().getState();
+		
+		int mark = game.mark();
+		cards.get(2).getComponent(CardComponent.class).moveToTop(hand);
+		deck.shuffle();
+		player.getComponent(ECSResourceMap.class).getResource(TestResource.HEALTH).change(-3);
+		phases.nextPhase();
+		game.getRandom().nextInt(10);
+		cards.get(0).destroy();
+		Entity created = game.newEntity().addComponent(new TestComponent(1));
+		player.getComponent(PlayerComponent.class).loseGame();
+		assertTrue(player.getComponent(PlayerComponent.class).isEliminated());
+		player.getComponent(ECSAttributeMap.class).set(Attributes.NAME, "Renamed");
+		assertTrue(targets.addTarget(player));
+		assertEquals(1, zoneChanges);
+		
+		game.rollback(mark);
+		assertEquals(1, zoneChanges);
+		assertEquals(cards, deck.getCards());
+		assertTrue(hand.isEmpty());
+		assertEquals(10, player.getComponent(ECSResourceMap.class).getResource(TestResource.HEALTH).get());
+		assertEquals("A", phases.getCurrentPhase().getName());
+		assertEquals(0, phases.getPhaseNumber());
+		assertEquals(randomState, game.getGameRandom().getState());
+		assertFalse(cards.get(0).isRemoved());
+		assertSame(cards.get(0), game.getEntity(cards.get(0).getId()));
+		assertEquals(cardOrder, new ArrayList<>(withCards));
+		assertTrue(created.isRemoved());
+		assertNull(game.getEntity(created.getId()));
+		assertTrue(game.getEntitiesWithComponent(TestComponent.class).isEmpty());
+		assertEquals(created.getId(), game.newEntity().getId());
+		assertFalse(player.getComponent(PlayerComponent.class).isEliminated());
+		assertNull(player.getComponent(PlayerComponent.class).getWinnerDeclaration());
+		assertEquals("Player", Attributes.NAME.getFor(player));
+		assertEquals(0, targets.selectedTargets());
+		
+		cards.get(0).getComponent(CardComponent.class).moveToBottom(hand);
+		assertEquals(2, zoneChanges);
+	}
+	
+	@Test
+	public void stateHashFollowsChanges() {
+		ECSGame game = new ECSGame();
+		Entity player = game.newEntity().addComponent(new PlayerComponent(0, "Player"));
+		DeckComponent deck = new DeckComponent(player);
+		HandComponent hand = new HandComponent(player);
+		player.addComponents(deck, hand);
+		ECSResourceMap resources = ECSResourceMap.createFor(player).set(TestResource.HEALTH, 10);
+		PhaseController phases = new PhaseController();
+		phases.addPhase(new Phase(player, "A"));
+		phases.addPhase(new Phase(player, "B"));
+		game.newEntity().addComponent(phases);
+		Entity card = game.newEntity();
+		deck.addOnBottom(card);
+		long start = game.stateHash();
+		assertEquals(start, game.fork().stateHash());
+		
+		int mark = game.mark();
+		card.getComponent(CardComponent.class).moveToTop(hand);
+		assertNotEquals(start, game.stateHash());
+		card.getComponent(CardComponent.class).moveToTop(deck);
+		assertEquals(start, game.stateHash());
+		
+		resources.getResource(TestResource.HEALTH).change(-3);
+		assertNotEquals(start, game.stateHash());
+		resources.getResource(TestResource.HEALTH).change(3);
+		assertEquals(start, game.stateHash());
+		resources.getResource(TestResource.ATTACK);
+		assertEquals(start, game.stateHash());
+		
+		phases.nextPhase();
+		assertNotEquals(start, game.stateHash());
+		phases.nextPhase();
+		assertEquals(start, game.stateHash());
+		
+		Entity created = game.newEntity();
+		assertNotEquals(start, game.stateHash());
+		created.destroy();
+		assertEquals(start, game.stateHash());
+		
+		card.destroy();
+		phases.nextPhase();
+		game.rollback(mark);
+		assertEquals(start, game.stateHash());
+	}
+	
 }
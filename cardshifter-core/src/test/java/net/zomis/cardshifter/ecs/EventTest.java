@@ -4,12 +4,16 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
 
 import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.events.EntityRemoveEvent;
 import com.cardshifter.modapi.events.IEvent;
+import com.cardshifter.modapi.events.KeyedEvent;
 
 public class EventTest {
 
@@ -26,6 +30,89 @@ public class EventTest {
 		}
 	}
 	
+	private static class TestKeyedEvent extends TestEvent implements KeyedEvent {
+		public TestKeyedEvent(String data) {
+			super(data);
+		}
+
+		@Override
+		public Object getEventKey() {
+			return data;
+		}
+	}
+	
+	@Test
+	public void keyedHandlersOnlyReceiveTheirKey() {
+		List<TestEvent> keyA = new ArrayList<>();
+		List<TestEvent> keyB = new ArrayList<>();
+		List<TestEvent> unkeyed = new ArrayList<>();
+		game.getEvents().registerHandlerAfter(this, TestKeyedEvent.class, "A", keyA::add);
+		game.getEvents().registerHandlerAfter(this, TestKeyedEvent.class, "B", keyB::add);
+		game.getEvents().registerHandlerAfter(this, TestKeyedEvent.class, unkeyed::add);
+		game.executeEvent(new TestKeyedEvent("A"), () -> {});
+		game.executeEvent(new TestKeyedEvent("C"), () -> {});
+		game.executeEvent(new TestKeyedEvent("A"), () -> {});
+		assertEquals(2, keyA.size());
+		assertEquals(0, keyB.size());
+		assertEquals(3, unkeyed.size());
+	}
+	
+	@Test
+	public void entityHandlersOnlyReceiveTheirEntity() {
+		Entity first = game.newEntity();
+		Entity second = game.newEntity();
+		List<EntityRemoveEvent> removed = new ArrayList<>();
+		game.getEvents().registerEntityHandlerBefore(this, first, EntityRemoveEvent.class, removed::add);
+		second.destroy();
+		assertEquals(0, removed.size());
+		first.destroy();
+		assertEquals(1, removed.size());
+		assertEquals(first, removed.get(0).getEntity());
+	}
+	
+	@Test
+	public void removeListenersWithIdentifier() {
+		Object other = new Object();
+		game.getEvents().registerHandlerBefore(this, TestEvent.class, pre::add);
+		game.getEvents().registerHandlerAfter(this, TestEvent.class, post::add);
+		game.getEvents().registerHandlerAfter(other, TestEvent.class, post::add);
+		game.getEvents().removeListenersWithIdentifier(this);
+		game.executeEvent(new TestEvent("Test"), () -> {});
+		assertEquals(0, pre.size());
+		assertEquals(1, post.size());
+		game.getEvents().removeListenersWithIdentifier(other);
+		game.executeEvent(new TestEvent("Test"), () -> {});
+		assertEquals(1, post.size());
+	}
+	
+	@Test
+	public void queuedPostEventsRunInOrder() {
+		game.enableEventQueue(10, 100);
+		List<String> order = new ArrayList<>();
+		game.getEvents().registerHandlerAfter(this, TestEvent.class, event -> {
+			order.add("post " + event.data);
+			if (event.data.length() < 3) {
+				game.executeEvent(new TestEvent(event.data + "a"), () -> order.add("run " + event.data + "a"));
+				game.executeEvent(new TestEvent(event.data + "b"), () -> order.add("run " + event.data + "b"));
+			}
+		});
+		game.getEvents().registerImmediateHandlerAfter(this, TestEvent.class, event -> order.add("immediate " + event.data));
+		game.executeEvent(new TestEvent("x"), () -> {});
+		assertEquals(Arrays.asList("immediate x", "post x",
+				"run xa", "immediate xa", "run xb", "immediate xb", "post xa",
+				"run xaa", "immediate xaa", "run xab", "immediate xab", "post xb",
+				"run xba", "immediate xba", "run xbb", "immediate xbb",
+				"post xaa", "post xab", "post xba", "post xbb"), order);
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void queuedEventsAreLimited() {
+		game.enableEventQueue(10, 5);
+		game.getEvents().registerHandlerAfter(this, TestEvent.class,
+				event -> game.executeEvent(new TestEvent(event.data), () -> {}));
+		game.executeEvent(new TestEvent("loop"), () -> {});
+	}
+	
 	@Test
 	public void executeTestEvent() {
 		assertEquals(42, value);
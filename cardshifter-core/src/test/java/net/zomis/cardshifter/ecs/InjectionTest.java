@@ -8,8 +8,10 @@ import com.cardshifter.modapi.base.ComponentRetriever;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.EntityQuery;
 import com.cardshifter.modapi.base.PlayerComponent;
 import com.cardshifter.modapi.base.Retriever;
+import com.cardshifter.modapi.base.RetrieverQuery;
 import com.cardshifter.modapi.base.RetrieverSingleton;
 import com.cardshifter.modapi.base.Retrievers;
 import com.cardshifter.modapi.phase.Phase;
@@ -23,6 +25,9 @@ public class InjectionTest {
 	@Retriever
 	private ComponentRetriever<PlayerComponent> playerData;
 	
+	@RetrieverQuery(all = PlayerComponent.class)
+	private EntityQuery players;
+	
 	private int test;
 	
 	@Test
@@ -54,6 +59,8 @@ public class InjectionTest {
 		Retrievers.inject(this, game);
 		
 		assertEquals(42, playerData.get(player).getIndex());
+		assertTrue(players.contains(player));
+		assertEquals(1, players.size());
 		assertEquals(phase, phases);
 		assertEquals("Main", phases.getCurrentPhase().getName());
 	}
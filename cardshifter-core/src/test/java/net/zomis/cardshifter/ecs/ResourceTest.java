@@ -15,6 +15,7 @@ import com.cardshifter.modapi.resources.ECSResource;
 import com.cardshifter.modapi.resources.ECSResourceData;
 import com.cardshifter.modapi.resources.ECSResourceMap;
 import com.cardshifter.modapi.resources.ResourceValueChange;
+import com.cardshifter.modapi.resources.Resources;
 
 public class ResourceTest {
 
@@ -72,6 +73,61 @@ public class ResourceTest {
 		assertEquals(15, resA.get());
 	}
 	
+	@Test
+	public void modifiedValueIsCachedUntilStateChanges() {
+		ECSResourceData resA = resMapper.get(entity).getResource(TestResource.TEST_A);
+		ECSResourceData resB = resMapper.get(entity).getResource(TestResource.TEST_B);
+		int[] calls = new int[1];
+		resA.setStrategy((ent, res, value) -> {
+			calls[0]++;
+			return value + resB.get();
+		});
+		assertEquals(15, resA.get());
+		assertEquals(15, resA.get());
+		assertEquals(1, calls[0]);
+		resB.set(7);
+		assertEquals(17, resA.get());
+		assertEquals(17, resA.get());
+		assertEquals(2, calls[0]);
+	}
+	
+	@Test
+	public void copiedResourcesAreIndependent() {
+		Entity copy = entity.copy();
+		ECSResourceMap copyMap = resMapper.get(copy);
+		assertEquals(10, copyMap.getOrDefault(TestResource.TEST_A, 0));
+		copyMap.getResource(TestResource.TEST_A).set(3);
+		assertEquals(3, TestResource.TEST_A.getFor(copy));
+		assertEquals(10, TestResource.TEST_A.getFor(entity));
+		assertEquals(-1, Resources.getOrDefault(game.newEntity(), TestResource.TEST_B, -1));
+	}
+	
+	@Test
+	public void copyIsNotChangedByOriginal() {
+		Entity copy = entity.copy();
+		Entity secondCopy = entity.copy();
+		resMapper.get(entity).getResource(TestResource.TEST_B).set(8);
+		assertEquals(8, TestResource.TEST_B.getFor(entity));
+		assertEquals(5, TestResource.TEST_B.getFor(copy));
+		assertEquals(5, TestResource.TEST_B.getFor(secondCopy));
+	}
+	
+	@Test
+	public void readingCopiesKeepsCachedValues() {
+		int[] calls = new int[1];
+		resMapper.get(entity).getResource(TestResource.TEST_A).setStrategy((ent, res, value) -> {
+			calls[0]++;
+			return value + 1;
+		});
+		assertEquals(11, TestResource.TEST_A.getFor(entity));
+		Entity copy = entity.copy();
+		assertEquals(11, TestResource.TEST_A.getFor(entity));
+		assertEquals(1, calls[0]);
+		assertEquals(11, TestResource.TEST_A.getFor(copy));
+		assertEquals(11, TestResource.TEST_A.getFor(copy));
+		assertEquals(2, calls[0]);
+	}
+	
 	@Test
 	public void addResourceEachTurn() {
 		game.addSystem(g -> g.getEvents().registerHandlerAfter(this, PhaseStartEvent.class, this::addResources));
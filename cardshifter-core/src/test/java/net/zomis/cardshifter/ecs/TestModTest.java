@@ -1,5 +1,7 @@
 package net.zomis.cardshifter.ecs;
 
+import com.cardshifter.modapi.actions.ActionPerformEvent;
+import com.cardshifter.modapi.actions.ECSAction;
 import com.cardshifter.modapi.attributes.AttributeRetriever;
 import com.cardshifter.modapi.attributes.Attributes;
 import com.cardshifter.modapi.base.*;
@@ -9,6 +11,7 @@ import net.zomis.cardshifter.ecs.usage.TestMod;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -44,6 +47,22 @@ public class TestModTest extends GameTest {
 		assertEquals(6, oppHand.size());
 	}
 	
+	@Test
+	public void deniedActionStaysDeniedWithEventQueue() {
+		game.enableEventQueue(20, 1000);
+		Entity opponentCard = hand.get(opponent()).getTopCard();
+		ECSAction opponentAction = getAction(opponentCard, "Damage");
+		List<Boolean> allowedInHandler = new ArrayList<>();
+		game.getEvents().registerHandlerAfter(this, ActionPerformEvent.class,
+				event -> allowedInHandler.add(opponentAction.isAllowed(opponent())));
+		assertFalse(opponentAction.isAllowed(opponent()));
+		
+		Entity entity = cardToHand(hasName("Test"));
+		useAction(entity, "Field");
+		useAction(entity, "Hand");
+		assertEquals(Arrays.asList(false, false), allowedInHandler);
+	}
+	
 	private Entity opponent() {
 		List<Entity> list = game.getEntitiesWithComponent(PlayerComponent.class).stream()
 			.filter(entity -> entity != phase.getCurrentEntity())
@@ -0,0 +1,113 @@
+package net.zomis.cardshifter.ecs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameRandom;
+import com.cardshifter.modapi.base.PlayerComponent;
+import com.cardshifter.modapi.cards.CardComponent;
+import com.cardshifter.modapi.cards.DeckComponent;
+import com.cardshifter.modapi.cards.HandComponent;
+
+public class ZoneTest {
+
+	private ECSGame game;
+	private Entity player;
+	private DeckComponent deck;
+	private HandComponent hand;
+	private List<Entity> cards;
+
+	@Before
+	public void setup() {
+		game = new ECSGame();
+		player = game.newEntity().addComponent(new PlayerComponent(0, "Player"));
+		deck = new DeckComponent(player);
+		hand = new HandComponent(player);
+		player.addComponents(deck, hand);
+		cards = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			Entity card = game.newEntity();
+			deck.addOnBottom(card);
+			cards.add(card);
+		}
+	}
+
+	@Test
+	public void cardsKeepTheirOrderWhenMoved() {
+		assertEquals(cards, deck.getCards());
+		assertEquals(cards.get(0), deck.getTopCard());
+
+		Entity middle = cards.get(30);
+		middle.getComponent(CardComponent.class).moveToTop(hand);
+		cards.get(0).getComponent(CardComponent.class).moveToBottom(hand);
+		cards.get(59).getComponent(CardComponent.class).moveToTop(deck);
+
+		List<Entity> expected = new ArrayList<>(cards.subList(1, 59));
+		expected.remove(middle);
+		expected.add(0, cards.get(59));
+		assertEquals(expected, deck.getCards());
+		assertEquals(expected, deck.stream().collect(Collectors.toList()));
+		assertEquals(Arrays.asList(middle, cards.get(0)), hand.getCards());
+
+		assertFalse(deck.contains(middle));
+		assertTrue(hand.contains(middle));
+		assertEquals(1, hand.indexOf(cards.get(0)));
+		assertEquals(0, deck.indexOf(cards.get(59)));
+		assertEquals(57, deck.size());
+	}
+
+	@Test
+	public void shuffleIsSameAsCollectionsShuffle() {
+		game.setRandomSeed(42);
+		deck.shuffle();
+
+		List<Entity> expected = new ArrayList<>(cards);
+		Collections.shuffle(expected, new GameRandom(42).stream(GameRandom.SHUFFLE));
+		assertEquals(expected, deck.getCards());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(i, deck.indexOf(expected.get(i)));
+		}
+	}
+
+	@Test
+	public void swapCardsBetweenZones() {
+		Entity inHand = cards.get(10);
+		inHand.getComponent(CardComponent.class).moveToTop(hand);
+		Entity inDeck = cards.get(20);
+		long hash = game.stateHash();
+
+		inHand.getComponent(CardComponent.class).swapWith(inDeck.getComponent(CardComponent.class));
+		assertEquals(Arrays.asList(inDeck), hand.getCards());
+		assertEquals(deck, inHand.getComponent(CardComponent.class).getCurrentZone());
+		assertEquals(19, deck.indexOf(inHand));
+		assertFalse(deck.contains(inDeck));
+
+		cards.get(0).getComponent(CardComponent.class).swapWith(cards.get(59).getComponent(CardComponent.class));
+		assertEquals(cards.get(59), deck.getTopCard());
+		assertEquals(58, deck.indexOf(cards.get(0)));
+
+		inDeck.getComponent(CardComponent.class).swapWith(inHand.getComponent(CardComponent.class));
+		assertEquals(hash, game.stateHash());
+	}
+
+	@Test
+	public void handIsKnownToOwner() {
+		Entity opponent = game.newEntity().addComponent(new PlayerComponent(1, "Opponent"));
+		assertTrue(hand.isKnownTo(player));
+		assertFalse(hand.isKnownTo(opponent));
+		assertFalse(deck.isKnownTo(player));
+	}
+
+}
@@ -37,6 +37,7 @@ import com.cardshifter.api.outgoing.EntityRemoveMessage;
 import com.cardshifter.api.outgoing.GameOverMessage;
 import com.cardshifter.api.outgoing.NewGameMessage;
 import com.cardshifter.api.outgoing.PlayerMessage;
+import com.cardshifter.api.outgoing.RemoveUsableActionMessage;
 import com.cardshifter.api.outgoing.ResetAvailableActionsMessage;
 import com.cardshifter.api.outgoing.UpdateMessage;
 import com.cardshifter.api.outgoing.UsableActionMessage;
@@ -165,6 +166,8 @@ public class GameClientController {
 		} else if (message instanceof UsableActionMessage) {
 			this.savedMessages.add((UsableActionMessage)message);
 			this.processUseableActionMessage((UsableActionMessage)message);
+		} else if (message instanceof RemoveUsableActionMessage) {
+			this.processRemoveUsableActionMessage((RemoveUsableActionMessage)message);
 		} else if (message instanceof UpdateMessage) {
 			this.processUpdateMessage((UpdateMessage)message);
 		} else if (message instanceof ZoneChangeMessage) {
@@ -303,6 +306,15 @@ public class GameClientController {
 		
 	}
 	
+	private void processRemoveUsableActionMessage(RemoveUsableActionMessage message) {
+		this.savedMessages.removeIf(saved -> saved.getId() == message.getId() && saved.getAction().equals(message.getAction()));
+		this.clearActiveFromAllCards();
+		this.actionBox.getChildren().clear();
+		for (UsableActionMessage saved : this.savedMessages) {
+			this.processUseableActionMessage(saved);
+		}
+	}
+	
 	private void processUpdateMessage(UpdateMessage message) {
 		if (message.getId() == this.playerId) {
 			this.processUpdateMessageForPlayer(playerStatBox, message, playerStatBoxMap);
@@ -153,15 +153,15 @@ public final class GameClientLauncherController implements Initializable {
 			public void performIncoming(Message message, ClientIO clientIO) {
 				if (message instanceof UseAbilityMessage) {
 					UseAbilityMessage msg = (UseAbilityMessage) message;
-					game.handleMove(msg, clientIO);
+					game.execute(() -> game.handleMove(msg, clientIO));
 				}
 				if (message instanceof RequestTargetsMessage) {
 					RequestTargetsMessage msg = (RequestTargetsMessage) message;
-					game.informAboutTargets(msg, clientIO);
+					game.execute(() -> game.informAboutTargets(msg, clientIO));
 				}
 				if (message instanceof PlayerConfigMessage) {
 					PlayerConfigMessage msg = (PlayerConfigMessage) message;
-					game.incomingPlayerConfig(msg, clientIO);
+					game.execute(() -> game.incomingPlayerConfig(msg, clientIO));
 				}
 			}
 			
@@ -1,9 +1,10 @@
 package com.cardshifter.modapi.actions;
 
 import com.cardshifter.modapi.base.Entity;
-import com.cardshifter.modapi.events.IEvent;
+import com.cardshifter.modapi.events.KeyedEvent;
+import com.cardshifter.modapi.events.ReadOnlyEvent;
 
-public class ActionAllowedCheckEvent implements IEvent {
+public class ActionAllowedCheckEvent implements KeyedEvent, ReadOnlyEvent {
 
 	private final Entity entity;
 	private final ECSAction action;
@@ -20,6 +21,14 @@ public class ActionAllowedCheckEvent implements IEvent {
 		return action;
 	}
 	
+	/**
+	 * @return The name of the action
+	 */
+	@Override
+	public Object getEventKey() {
+		return action.getName();
+	}
+	
 	public Entity getEntity() {
 		return entity;
 	}
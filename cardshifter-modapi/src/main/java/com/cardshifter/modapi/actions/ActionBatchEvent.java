@@ -0,0 +1,45 @@
+package com.cardshifter.modapi.actions;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.events.IEvent;
+
+/**
+ * Executed after a batch of actions has been performed with {@link com.cardshifter.modapi.base.ECSGame#performAll}
+ */
+public class ActionBatchEvent implements IEvent {
+
+	private final Entity performer;
+	private final List<ECSAction> performed;
+	private final boolean complete;
+
+	public ActionBatchEvent(Entity performer, List<ECSAction> performed, boolean complete) {
+		this.performer = performer;
+		this.performed = Collections.unmodifiableList(performed);
+		this.complete = complete;
+	}
+
+	/**
+	 * @return The entity that performed the actions
+	 */
+	public Entity getPerformer() {
+		return performer;
+	}
+
+	/**
+	 * @return The actions that were performed, in order
+	 */
+	public List<ECSAction> getPerformed() {
+		return performed;
+	}
+
+	/**
+	 * @return True if all actions in the batch were performed, false if the batch was stopped by an action that was not allowed
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+}
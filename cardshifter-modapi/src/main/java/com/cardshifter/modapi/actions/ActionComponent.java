@@ -2,7 +2,9 @@ package com.cardshifter.modapi.actions;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -10,40 +12,113 @@ import java.util.Set;
 import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.CopyableComponent;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.ForkableComponent;
+import com.cardshifter.modapi.base.GameFork;
 
-public class ActionComponent extends Component implements CopyableComponent {
+/**
+ * The actions of an entity. Copies share the actions of the component they were copied from
+ * until actions are added or removed, at which point that component makes its own map of the actions.
+ * Reading the actions of a copy does not copy the map: each action is bound to the entity of the copy the first time
+ * it is read, and its target sets are only created when it is targeted or performed.
+ * <p>
+ * Forks of the game get their own copies of the actions right away, as the actions of the original game may still change.
+ */
+public class ActionComponent extends Component implements CopyableComponent, ForkableComponent {
 
-	private final Map<String, ECSAction> actions = new HashMap<>();
+	private Map<String, ECSAction> actions = new HashMap<>();
+	/**
+	 * Actions of a shared map that belong to another entity, bound to the entity of this component when they were read
+	 */
+	private Map<String, ECSAction> bound;
+	/**
+	 * True if the map of actions is shared with other components. A shared map is never modified.
+	 */
+	private boolean shared;
 
 	public ActionComponent() {
 	}
 	
 	public ActionComponent addAction(ECSAction action) {
-		this.actions.put(action.getName(), action);
+		ownActions().put(action.getName(), action);
 		return this;
 	}
 
 	public Set<String> getActions() {
-		return actions.keySet();
+		return Collections.unmodifiableSet(actions.keySet());
 	}
 
 	public ECSAction getAction(String key) {
-		return this.actions.get(key);
+		return action(key);
 	}
 
 	public Collection<ECSAction> getECSActions() {
-		return new ArrayList<>(actions.values());
+		List<ECSAction> result = new ArrayList<>(actions.size());
+		for (String name : actions.keySet()) {
+			result.add(action(name));
+		}
+		return result;
 	}
 	
 	public boolean removeAction(String actionName) {
-		return actions.remove(actionName) != null;
+		return ownActions().remove(actionName) != null;
+	}
+	
+	/**
+	 * @return True if this component shares its map of actions with the component it was copied from, or with copies of it
+	 */
+	public boolean isShared() {
+		return shared;
+	}
+	
+	/**
+	 * @param name The name of the action
+	 * @return The action for the entity of this component, or null if there is no such action
+	 */
+	private ECSAction action(String name) {
+		ECSAction action = actions.get(name);
+		if (!shared || action == null || action.getOwner() == getEntity()) {
+			return action;
+		}
+		if (bound == null) {
+			bound = new HashMap<>();
+		}
+		return bound.computeIfAbsent(name, key -> action.bind(getEntity()));
+	}
+	
+	/**
+	 * @return The actions to modify, which are not shared with any other component
+	 */
+	private Map<String, ECSAction> ownActions() {
+		if (shared) {
+			Map<String, ECSAction> own = new HashMap<>();
+			for (String name : actions.keySet()) {
+				own.put(name, action(name));
+			}
+			actions = own;
+			bound = null;
+			shared = false;
+		}
+		return actions;
 	}
 
 	@Override
 	public Component copy(Entity copyTo) {
+		ActionComponent copy = new ActionComponent();
+		copy.actions = this.actions;
+		copy.shared = true;
+		this.shared = true;
+		return copy;
+	}
+
+	@Override
+	public Component fork(Entity copyTo, GameFork fork) {
 		ActionComponent copy = new ActionComponent();
 		for (Entry<String, ECSAction> entry : actions.entrySet()) {
-			copy.addAction(entry.getValue().copy(copyTo));
+			ECSAction action = entry.getValue();
+			ECSAction read = bound == null ? null : bound.get(entry.getKey());
+			// shared actions of another entity are forked as if they had been bound to this entity
+			Entity owner = shared && action.getOwner() != getEntity() ? copyTo : fork.entity(action.getOwner());
+			copy.actions.put(entry.getKey(), (read != null ? read : action).fork(owner, fork));
 		}
 		return copy;
 	}
@@ -1,9 +1,9 @@
 package com.cardshifter.modapi.actions;
 
 import com.cardshifter.modapi.base.Entity;
-import com.cardshifter.modapi.events.IEvent;
+import com.cardshifter.modapi.events.KeyedEvent;
 
-public class ActionPerformEvent implements IEvent {
+public class ActionPerformEvent implements KeyedEvent {
 
 	private final Entity entity;
 	private final ECSAction action;
@@ -19,6 +19,14 @@ public class ActionPerformEvent implements IEvent {
 		return action;
 	}
 	
+	/**
+	 * @return The name of the action
+	 */
+	@Override
+	public Object getEventKey() {
+		return action.getName();
+	}
+	
 	/**
 	 * @return The entity that this Action is attached to. Is the same as <code>getAction().getEntity()</code>
 	 */
@@ -20,7 +20,7 @@ public class Actions {
 	}
 	
 	public static List<ECSAction> getAllActions(ECSGame game) {
-		return game.getEntitiesWithComponent(ActionComponent.class)
+		return game.entitiesWithComponentView(ActionComponent.class)
 			.stream()
 			.flatMap(entity -> entity.getComponent(ActionComponent.class)
 					.getECSActions().stream())
@@ -0,0 +1,251 @@
+package com.cardshifter.modapi.actions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.cardshifter.modapi.attributes.AttributeValueChange;
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.ECSSystem;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
+import com.cardshifter.modapi.base.PlayerComponent;
+import com.cardshifter.modapi.cards.ZoneChangeEvent;
+import com.cardshifter.modapi.cards.ZoneComponent;
+import com.cardshifter.modapi.events.EntityRemoveEvent;
+import com.cardshifter.modapi.phase.PhaseChangeEvent;
+import com.cardshifter.modapi.phase.PhaseEndEvent;
+import com.cardshifter.modapi.phase.PhaseStartEvent;
+import com.cardshifter.modapi.players.Players;
+import com.cardshifter.modapi.resources.ResourceValueChange;
+import com.cardshifter.modapi.resources.ResourceViewUpdate;
+
+/**
+ * Keeps track of which actions each player is allowed to perform.
+ * Actions are only checked again when something that they may depend on has changed:
+ * <ul>
+ * <li>Resource and attribute changes and performed actions affect the actions of the entity itself,
+ * and if the entity is a player, all actions of the entities owned by that player</li>
+ * <li>Phase changes affect the actions of the players that own the old and the new phase</li>
+ * <li>Zone changes affect the actions of the moved card, of the owners of the zones,
+ * and the actions whose targets may be found in one of the zones</li>
+ * <li>Removed entities affect the actions of their owner and all actions that have targets</li>
+ * </ul>
+ */
+public class AvailableActions implements ECSSystem {
+
+	/**
+	 * The difference between the allowed actions of a player before and after an update
+	 */
+	public static class Diff {
+
+		private final List<ECSAction> added = new ArrayList<>();
+		private final List<ECSAction> removed = new ArrayList<>();
+
+		public List<ECSAction> getAdded() {
+			return Collections.unmodifiableList(added);
+		}
+
+		public List<ECSAction> getRemoved() {
+			return Collections.unmodifiableList(removed);
+		}
+
+		public boolean isEmpty() {
+			return added.isEmpty() && removed.isEmpty();
+		}
+
+		@Override
+		public String toString() {
+			return "Diff [added=" + added + ", removed=" + removed + "]";
+		}
+	}
+
+	private final Map<Entity, Set<ECSAction>> allowed = new HashMap<>();
+	private final Set<Entity> dirtyEntities = new HashSet<>();
+	private final Set<Entity> dirtyOwners = new HashSet<>();
+	/**
+	 * Names of the zones that cards have been moved to or from
+	 */
+	private final Set<String> dirtyZones = new HashSet<>();
+	private boolean targetsDirty;
+	private boolean allDirty = true;
+	private int actionEntityCount = -1;
+	private ECSGame game;
+
+	@Override
+	public void startGame(ECSGame game) {
+		this.game = game;
+		game.getEvents().registerHandlerAfter(this, PhaseStartEvent.class, this::phaseChanged);
+		game.getEvents().registerHandlerAfter(this, PhaseEndEvent.class, this::phaseChanged);
+		game.getEvents().registerHandlerAfter(this, ZoneChangeEvent.class, this::zoneChanged);
+		game.getEvents().registerHandlerAfter(this, EntityRemoveEvent.class, event -> {
+			entityChanged(Players.findOwnerFor(event.getEntity()));
+			targetsDirty = true;
+		});
+		game.getEvents().registerHandlerAfter(this, ResourceValueChange.class, event -> entityChanged(event.getEntity()));
+		game.getEvents().registerHandlerAfter(this, ResourceViewUpdate.class, event -> entityChanged(event.getEntity()));
+		game.getEvents().registerHandlerAfter(this, AttributeValueChange.class, event -> entityChanged(event.getEntity()));
+		game.getEvents().registerHandlerAfter(this, ActionPerformEvent.class, event -> {
+			entityChanged(event.getEntity());
+			entityChanged(event.getPerformer());
+		});
+	}
+
+	/**
+	 * The allowed actions of the fork are checked again on its first update
+	 */
+	@Override
+	public ECSSystem fork(GameFork fork) {
+		return fork.start(new AvailableActions());
+	}
+
+	/**
+	 * The changes that were undone are not known, so all actions are checked again on the next update
+	 */
+	@Override
+	public void rolledBack(ECSGame game) {
+		invalidateAll();
+	}
+
+	private void entityChanged(Entity entity) {
+		if (allDirty || entity == null) {
+			return;
+		}
+		dirtyEntities.add(entity);
+		if (entity.hasComponent(PlayerComponent.class)) {
+			dirtyOwners.add(entity);
+		}
+	}
+
+	private void phaseChanged(PhaseChangeEvent event) {
+		Entity oldOwner = event.getOldPhase() == null ? null : event.getOldPhase().getOwner();
+		Entity newOwner = event.getNewPhase() == null ? null : event.getNewPhase().getOwner();
+		if (oldOwner == null && newOwner == null) {
+			allDirty = true;
+			return;
+		}
+		entityChanged(oldOwner);
+		entityChanged(newOwner);
+	}
+
+	private void zoneChanged(ZoneChangeEvent event) {
+		entityChanged(event.getCard());
+		zoneChanged(event.getSource());
+		zoneChanged(event.getDestination());
+	}
+
+	private void zoneChanged(ZoneComponent zone) {
+		if (zone == null) {
+			return;
+		}
+		entityChanged(zone.getOwner());
+		dirtyZones.add(zone.getName());
+	}
+
+	/**
+	 * @param entity An entity with actions
+	 * @return True if any of the actions of the entity has targets that may be in a changed zone
+	 */
+	private boolean hasDirtyTargets(Entity entity) {
+		if (!targetsDirty && dirtyZones.isEmpty()) {
+			return false;
+		}
+		for (ECSAction action : entity.getComponent(ActionComponent.class).getECSActions()) {
+			for (TargetSet targetSet : action.targetSetDefinitions()) {
+				if (targetsDirty || targetSet.getDomain() == null || targetSet.getDomain().dependsOnZones(dirtyZones)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Mark all actions to be checked again on the next update
+	 */
+	public void invalidateAll() {
+		allDirty = true;
+	}
+
+	/**
+	 * Checks the actions that may have changed since the last update
+	 *
+	 * @return The changes for each player whose allowed actions have changed
+	 */
+	public Map<Entity, Diff> update() {
+		Set<Entity> actionEntities = game.entitiesWithComponentView(ActionComponent.class);
+		if (actionEntities.size() != actionEntityCount) {
+			allDirty = true;
+		}
+		Collection<Entity> players = game.entitiesWithComponentView(PlayerComponent.class);
+		Map<Entity, Diff> result = new HashMap<>();
+
+		Collection<Entity> check;
+		if (allDirty) {
+			check = actionEntities;
+			for (Entity player : players) {
+				Set<ECSAction> previous = allowed.put(player, new HashSet<>());
+				if (previous != null && !previous.isEmpty()) {
+					result.computeIfAbsent(player, p -> new Diff()).removed.addAll(previous);
+				}
+			}
+		}
+		else {
+			check = new ArrayList<>();
+			for (Entity entity : actionEntities) {
+				if (dirtyEntities.contains(entity) || (!dirtyOwners.isEmpty() && dirtyOwners.contains(Players.findOwnerFor(entity)))
+						|| hasDirtyTargets(entity)) {
+					check.add(entity);
+				}
+			}
+		}
+
+		for (Entity entity : check) {
+			for (ECSAction action : entity.getComponent(ActionComponent.class).getECSActions()) {
+				for (Entity player : players) {
+					Set<ECSAction> playerAllowed = allowed.computeIfAbsent(player, p -> new HashSet<>());
+					boolean isAllowed = action.isAllowed(player);
+					if (isAllowed && playerAllowed.add(action)) {
+						Diff diff = result.computeIfAbsent(player, p -> new Diff());
+						if (!diff.removed.remove(action)) {
+							diff.added.add(action);
+						}
+					}
+					else if (!isAllowed && playerAllowed.remove(action)) {
+						result.computeIfAbsent(player, p -> new Diff()).removed.add(action);
+					}
+				}
+			}
+		}
+
+		result.values().removeIf(Diff::isEmpty);
+		actionEntityCount = actionEntities.size();
+		allDirty = false;
+		dirtyEntities.clear();
+		dirtyOwners.clear();
+		dirtyZones.clear();
+		targetsDirty = false;
+		return result;
+	}
+
+	/**
+	 * @param player The player to check
+	 * @param action The action to check
+	 * @return True if the player was allowed to perform the action at the last update
+	 */
+	public boolean isAllowed(Entity player, ECSAction action) {
+		Set<ECSAction> playerAllowed = allowed.get(player);
+		return playerAllowed != null && playerAllowed.contains(action);
+	}
+
+	@Override
+	public String toString() {
+		return "AvailableActions [allDirty=" + allDirty + ", dirtyEntities=" + dirtyEntities + "]";
+	}
+
+}
@@ -7,6 +7,7 @@ import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
 
 public class ECSAction {
 
@@ -16,6 +17,10 @@ public class ECSAction {
 	private final Predicate<ECSAction> allowed;
 	private final Consumer<ECSAction> perform;
 	private final List<TargetSet> targetSets = new ArrayList<>();
+	/**
+	 * The action that this action was bound from, until the target sets of this action are first used
+	 */
+	private ECSAction template;
 	
 	public ECSAction(Entity owner, String name, Predicate<ECSAction> allowed, Consumer<ECSAction> perform) {
 		this.owner = owner;
@@ -38,50 +43,107 @@ public class ECSAction {
 
 	public ECSAction copy(Entity copyTo) {
 		ECSAction action = new ECSAction(copyTo, this.name, this.allowed, this.perform);
-		for (TargetSet set : targetSets) {
-			action.addTargetSet(set.getMin(), set.getMax());
-			TargetSet lastSet = action.getTargetSets().get(action.getTargetSets().size() - 1);
-			set.getChosenTargets().forEach(target -> lastSet.addTarget(target));
+		for (TargetSet set : targetSets()) {
+			TargetSet copySet = new TargetSet(action, set.getMin(), set.getMax()).setDomain(set.getDomain());
+			set.getChosenTargets().forEach(target -> copySet.addTarget(target));
+			action.targetSets.add(copySet);
+		}
+		return action;
+	}
+	
+	/**
+	 * Copy this action to another entity without copying its target sets. The target sets are created
+	 * without any chosen targets when they are first used, as most copies are never targeted or performed.
+	 * 
+	 * @param copyTo The entity that owns the copy
+	 * @return A copy of this action
+	 */
+	ECSAction bind(Entity copyTo) {
+		ECSAction action = new ECSAction(copyTo, this.name, this.allowed, this.perform);
+		action.template = this;
+		return action;
+	}
+	
+	private List<TargetSet> targetSets() {
+		ECSAction template = this.template;
+		if (template != null) {
+			this.template = null;
+			for (TargetSet set : template.targetSetDefinitions()) {
+				targetSets.add(new TargetSet(this, set.getMin(), set.getMax()).setDomain(set.getDomain()));
+			}
+		}
+		return targetSets;
+	}
+	
+	/**
+	 * @return The target sets of this action, or of the action it was bound from if they have not been used yet.
+	 * Only for reading the limits and domains of the target sets.
+	 */
+	List<TargetSet> targetSetDefinitions() {
+		ECSAction template = this.template;
+		return template != null ? template.targetSetDefinitions() : targetSets;
+	}
+	
+	/**
+	 * Copy this action to a fork of the game. The copy shares the checks and effects of this action.
+	 * 
+	 * @param copyTo The entity in the fork that owns the copy
+	 * @param fork The fork that is being created
+	 * @return A copy of this action with the same chosen targets
+	 */
+	public ECSAction fork(Entity copyTo, GameFork fork) {
+		ECSAction action = new ECSAction(copyTo, this.name, this.allowed, this.perform);
+		for (TargetSet set : targetSets()) {
+			action.targetSets.add(set.fork(action, fork));
 		}
 		return action;
 	}
 	
 	public boolean perform(Entity performer) {
-        synchronized (performer.getGame()) {
-            if (!this.isAllowed(performer)) {
-                return false;
-            }
-            if (!this.targetSets.stream().allMatch(targets -> targets.hasEnoughTargets())) {
-                return false;
-            }
+		if (!this.isAllowed(performer)) {
+			return false;
+		}
+		if (!this.targetSets().stream().allMatch(targets -> targets.hasEnoughTargets())) {
+			return false;
+		}
 
-            try {
-                this.owner.getGame().executeEvent(new ActionPerformEvent(owner, this, performer), () -> this.perform.accept(this));
-            } catch (RuntimeException ex) {
-                throw new RuntimeException("Error performing action " + this, ex);
-            }
-            this.targetSets.forEach(TargetSet::clearTargets);
-            return true;
-        }
+		try {
+			this.owner.getGame().executeEvent(new ActionPerformEvent(owner, this, performer), () -> this.perform.accept(this));
+		} catch (RuntimeException ex) {
+			throw new RuntimeException("Error performing action " + this, ex);
+		}
+		this.targetSets().forEach(TargetSet::clearTargets);
+		return true;
 	}
 
 	public boolean isAllowed(Entity performer) {
-        synchronized (performer.getGame()) {
-            ActionAllowedCheckEvent event = new ActionAllowedCheckEvent(owner, this, performer);
-            if (!owner.getGame().getEvents().executePostEvent(event).isAllowed()) {
-                return false;
-            }
-            return this.allowed.test(this);
-        }
+		ActionAllowedCheckEvent event = new ActionAllowedCheckEvent(owner, this, performer);
+		if (!owner.getGame().getEvents().executePostEvent(event).isAllowed()) {
+			return false;
+		}
+		return this.allowed.test(this);
 	}
 
 	public List<TargetSet> getTargetSets() {
-		return new ArrayList<>(targetSets);
+		return new ArrayList<>(targetSets());
 	}
 	
 	public ECSAction addTargetSet(int min, int max) {
 		// TODO: Consider using an ECSAction builder and put `addTargetSet` there
-		this.targetSets.add(new TargetSet(this, min, max));
+		this.targetSets().add(new TargetSet(this, min, max));
+		return this;
+	}
+	
+	/**
+	 * Add a target set whose possible targets are limited to the candidates of a domain
+	 * 
+	 * @param min Minimum number of targets
+	 * @param max Maximum number of targets
+	 * @param domain The entities that can possibly be targeted
+	 * @return This action
+	 */
+	public ECSAction addTargetSet(int min, int max, TargetDomain domain) {
+		this.targetSets().add(new TargetSet(this, min, max).setDomain(domain));
 		return this;
 	}
 	
@@ -91,7 +153,7 @@ public class ECSAction {
 	}
 
 	public Stream<Entity> getAllTargets() {
-		return targetSets.stream().flatMap(e -> e.getChosenTargets().stream());
+		return targetSets().stream().flatMap(e -> e.getChosenTargets().stream());
 	}
 
 }
@@ -1,5 +1,7 @@
 package com.cardshifter.modapi.actions;
 
+import java.util.Objects;
+
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSSystem;
 
@@ -8,36 +10,21 @@ public abstract class SpecificActionSystem implements ECSSystem {
 	private final String actionName;
 
 	public SpecificActionSystem(String actionName) {
-		this.actionName = actionName;
+		this.actionName = Objects.requireNonNull(actionName);
 	}
 
+	/**
+	 * Registers the handlers with the action name as key, so that this system is only called for its own action
+	 */
 	@Override
 	public final void startGame(ECSGame game) {
-		game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent.class, this::canAfford);
-		game.getEvents().registerHandlerAfter(this, ActionPerformEvent.class, this::perform);
-	}
-	
-	private void canAfford(ActionAllowedCheckEvent event) {
-		if (!isInterestingAction(event.getAction())) {
-			return;
-		}
-		this.isAllowed(event);
+		game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent.class, actionName, this::isAllowed);
+		game.getEvents().registerHandlerAfter(this, ActionPerformEvent.class, actionName, this::onPerform);
 	}
 	
 	protected void isAllowed(ActionAllowedCheckEvent event) {
 	}
 
-	private boolean isInterestingAction(ECSAction action) {
-		return actionName.equals(action.getName());
-	}
-
-	private void perform(ActionPerformEvent event) {
-		if (!isInterestingAction(event.getAction())) {
-			return;
-		}
-		this.onPerform(event);
-	}
-
 	protected abstract void onPerform(ActionPerformEvent event);
 
 	@Override
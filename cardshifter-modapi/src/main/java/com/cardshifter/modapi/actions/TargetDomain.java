@@ -0,0 +1,172 @@
+package com.cardshifter.modapi.actions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.cardshifter.modapi.base.Component;
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.PlayerComponent;
+import com.cardshifter.modapi.cards.ZoneComponent;
+import com.cardshifter.modapi.players.Players;
+
+/**
+ * Describes which entities a {@link TargetSet} can possibly target, so that
+ * only those entities need to go through the {@link TargetableCheckEvent}.
+ * The candidates are found through the zones of the players and the component indexes of the game,
+ * the domain only needs to be a superset of the entities that are actually targetable.
+ */
+public class TargetDomain {
+
+	/**
+	 * Which player the candidates should belong to, relative to the owner of the action
+	 */
+	public enum Owner {
+		ANY, YOU, OPPONENT;
+	}
+
+	private final Set<String> zones = new HashSet<>();
+	private final List<Class<? extends Component>> required = new ArrayList<>();
+	private boolean players;
+	private Owner owner = Owner.ANY;
+
+	/**
+	 * @param zoneNames Names of zones whose cards are candidates
+	 * @return This domain
+	 */
+	public TargetDomain zones(String... zoneNames) {
+		zones.addAll(Arrays.asList(zoneNames));
+		return this;
+	}
+
+	/**
+	 * Include the player entities as candidates
+	 *
+	 * @return This domain
+	 */
+	public TargetDomain players() {
+		this.players = true;
+		return this;
+	}
+
+	/**
+	 * @param owner Which player the candidates should belong to
+	 * @return This domain
+	 */
+	public TargetDomain ownedBy(Owner owner) {
+		this.owner = owner;
+		return this;
+	}
+
+	/**
+	 * @param components Components that all candidates must have
+	 * @return This domain
+	 */
+	@SafeVarargs
+	public final TargetDomain requiring(Class<? extends Component>... components) {
+		required.addAll(Arrays.asList(components));
+		return this;
+	}
+
+	/**
+	 * @return True if this domain does not limit the candidates by zone or player
+	 */
+	public boolean isUnbounded() {
+		return zones.isEmpty() && !players;
+	}
+
+	/**
+	 * @param zoneNames Names of zones whose cards have changed
+	 * @return True if the candidates of this domain may have changed when cards are moved to or from the zones
+	 */
+	public boolean dependsOnZones(Set<String> zoneNames) {
+		if (isUnbounded()) {
+			return true;
+		}
+		for (String zone : zoneNames) {
+			if (zones.contains(zone)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param action The action that is looking for targets
+	 * @return The entities that may be targeted by the action
+	 */
+	public Collection<Entity> findCandidates(ECSAction action) {
+		ECSGame game = action.getOwner().getGame();
+		Entity you = Players.findOwnerFor(action.getOwner());
+		Collection<Entity> candidates;
+		if (isUnbounded()) {
+			candidates = required.isEmpty() ? game.findEntities(e -> true) : indexed(game);
+		}
+		else {
+			candidates = new LinkedHashSet<>();
+			for (Entity player : game.entitiesWithComponentView(PlayerComponent.class)) {
+				if (players) {
+					candidates.add(player);
+				}
+				if (zones.isEmpty()) {
+					continue;
+				}
+				for (ZoneComponent zone : player.getSuperComponents(ZoneComponent.class)) {
+					if (zones.contains(zone.getName())) {
+						zone.forEach(candidates::add);
+					}
+				}
+			}
+		}
+
+		List<Entity> result = new ArrayList<>(candidates.size());
+		for (Entity entity : candidates) {
+			if (isOwnerMatch(you, entity) && hasRequired(entity)) {
+				result.add(entity);
+			}
+		}
+		return result;
+	}
+
+	private Collection<Entity> indexed(ECSGame game) {
+		Collection<Entity> smallest = null;
+		for (Class<? extends Component> component : required) {
+			Set<Entity> entities = game.entitiesWithComponentView(component);
+			if (smallest == null || entities.size() < smallest.size()) {
+				smallest = entities;
+			}
+		}
+		return new ArrayList<>(smallest);
+	}
+
+	private boolean isOwnerMatch(Entity you, Entity entity) {
+		if (owner == Owner.ANY || you == null) {
+			return true;
+		}
+		Entity entityOwner = Players.findOwnerFor(entity);
+		if (owner == Owner.YOU) {
+			return entityOwner == you;
+		}
+		return entityOwner != null && entityOwner != you;
+	}
+
+	private boolean hasRequired(Entity entity) {
+		for (Class<? extends Component> component : required) {
+			if (!entity.hasComponent(component)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "TargetDomain [zones=" + zones + ", players=" + players + ", owner=" + owner + ", required=" + required + "]";
+	}
+
+}
@@ -1,18 +1,26 @@
 package com.cardshifter.modapi.actions;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
+import com.cardshifter.modapi.base.GameJournal;
 import com.cardshifter.modapi.events.EventExecutor;
 
 public class TargetSet {
 
+	private static final GameJournal.Undo<TargetSet> UNDO_ADD_TARGET = (set, target, unused) -> set.chosenTargets.remove(set.chosenTargets.size() - 1);
+	@SuppressWarnings("unchecked")
+	private static final GameJournal.Undo<TargetSet> UNDO_CLEAR_TARGETS = (set, targets, unused) -> set.chosenTargets.addAll((List<Entity>) targets);
+
 	private final List<Entity> chosenTargets;
 	private final int min;
 	private final int max;
 	private final ECSAction action;
+	private TargetDomain domain;
 	
 	public TargetSet(ECSAction action, int min, int max) {
 		this.chosenTargets = new ArrayList<>(min);
@@ -26,6 +34,10 @@ public class TargetSet {
 		if (!isTargetable(target)) {
 			return false;
 		}
+		GameJournal journal = game().getJournal();
+		if (journal != null) {
+			journal.record(UNDO_ADD_TARGET, this, target, 0);
+		}
 		chosenTargets.add(target);
 		return true;
 	}
@@ -45,7 +57,32 @@ public class TargetSet {
 	}
 	
 	public List<Entity> findPossibleTargets() {
-		return game().findEntities(entity -> isTargetable(entity));
+		if (domain == null) {
+			return game().findEntities(entity -> isTargetable(entity));
+		}
+		Collection<Entity> candidates = domain.findCandidates(action);
+		List<Entity> result = new ArrayList<>(candidates.size());
+		for (Entity entity : candidates) {
+			if (isTargetable(entity)) {
+				result.add(entity);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Limit the entities that {@link #findPossibleTargets()} checks to the candidates of a domain
+	 * 
+	 * @param domain The domain of possible targets, or null to check all entities
+	 * @return This target set
+	 */
+	public TargetSet setDomain(TargetDomain domain) {
+		this.domain = domain;
+		return this;
+	}
+	
+	public TargetDomain getDomain() {
+		return domain;
 	}
 	
 	public int selectedTargets() {
@@ -62,6 +99,10 @@ public class TargetSet {
 	}
 
 	public void clearTargets() {
+		GameJournal journal = game().getJournal();
+		if (journal != null && !chosenTargets.isEmpty()) {
+			journal.record(UNDO_CLEAR_TARGETS, this, new ArrayList<>(chosenTargets), 0);
+		}
 		chosenTargets.clear();
 	}
 	
@@ -73,4 +114,16 @@ public class TargetSet {
 		return max;
 	}
 	
+	/**
+	 * Copy this target set to an action in a fork of the game, with the same chosen targets.
+	 * The targets are not checked again, as they were already allowed in the original game.
+	 */
+	TargetSet fork(ECSAction copyTo, GameFork fork) {
+		TargetSet copy = new TargetSet(copyTo, min, max).setDomain(domain);
+		for (Entity target : chosenTargets) {
+			copy.chosenTargets.add(fork.entity(target));
+		}
+		return copy;
+	}
+	
 }
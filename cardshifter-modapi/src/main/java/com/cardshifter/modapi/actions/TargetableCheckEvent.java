@@ -1,9 +1,10 @@
 package com.cardshifter.modapi.actions;
 
 import com.cardshifter.modapi.base.Entity;
-import com.cardshifter.modapi.events.IEvent;
+import com.cardshifter.modapi.events.KeyedEvent;
+import com.cardshifter.modapi.events.ReadOnlyEvent;
 
-public class TargetableCheckEvent implements IEvent {
+public class TargetableCheckEvent implements KeyedEvent, ReadOnlyEvent {
 
 	private final ECSAction action;
 	private final TargetSet targetSet;
@@ -20,6 +21,14 @@ public class TargetableCheckEvent implements IEvent {
 		return action;
 	}
 	
+	/**
+	 * @return The name of the action
+	 */
+	@Override
+	public Object getEventKey() {
+		return action.getName();
+	}
+	
 	public Entity getTarget() {
 		return target;
 	}
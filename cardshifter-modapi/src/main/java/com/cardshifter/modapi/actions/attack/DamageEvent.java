@@ -1,9 +1,10 @@
 package com.cardshifter.modapi.actions.attack;
 
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.events.EntityEvent;
 import com.cardshifter.modapi.events.IEvent;
 
-public class DamageEvent implements IEvent {
+public class DamageEvent implements EntityEvent {
 
 	private final Entity target;
 	private final Entity damagedBy;
@@ -24,6 +25,11 @@ public class DamageEvent implements IEvent {
 	public Entity getTarget() {
 		return target;
 	}
+	
+	@Override
+	public Entity getSubjectEntity() {
+		return target;
+	}
 
     public IEvent getCausedBy() {
         return causedBy;
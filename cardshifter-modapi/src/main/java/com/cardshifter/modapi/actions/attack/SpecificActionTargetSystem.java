@@ -16,13 +16,7 @@ public abstract class SpecificActionTargetSystem implements ECSSystem {
 
 	@Override
 	public final void startGame(ECSGame game) {
-		game.getEvents().registerHandlerAfter(this, TargetableCheckEvent.class, this::targetableCheck);
-	}
-	
-	private void targetableCheck(TargetableCheckEvent event) {
-		if (event.getAction().getName().equals(actionName)) {
-			this.checkTargetable(event);
-		}
+		game.getEvents().registerHandlerAfter(this, TargetableCheckEvent.class, actionName, this::checkTargetable);
 	}
 
 	protected abstract void checkTargetable(TargetableCheckEvent event);
@@ -1,16 +1,22 @@
 package com.cardshifter.modapi.ai;
 
 import java.util.Objects;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Future;
 
 import com.cardshifter.modapi.base.Component;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.ForkableComponent;
+import com.cardshifter.modapi.base.GameFork;
 
-public class AIComponent extends Component {
+public class AIComponent extends Component implements ForkableComponent {
 	
 	private CardshifterAI ai;
 	private long delay = 4000;
 	private boolean paused;
-	ScheduledFuture<?> future;
+	/**
+	 * The action that the AI is choosing or waiting to perform, cleared when the action is performed or cannot be handed over to the game
+	 */
+	volatile Future<?> future;
 
 	public AIComponent(CardshifterAI ai) {
 		setAI(ai);
@@ -24,6 +30,10 @@ public class AIComponent extends Component {
 		return ai;
 	}
 
+	/**
+	 * @return Milliseconds from when the AI is asked for an action until the action is performed, including the time
+	 * that the AI spends on choosing it. AIs that search for a good action use this as their time budget.
+	 */
 	public long getDelay() {
 		return delay;
 	}
@@ -33,7 +43,8 @@ public class AIComponent extends Component {
 	}
 
 	public boolean hasWaitingAction() {
-		return future != null && !future.isDone();
+		Future<?> future = this.future;
+		return future != null && !future.isCancelled();
 	}
 	
 	public boolean isPaused() {
@@ -43,5 +54,16 @@ public class AIComponent extends Component {
 	public void setPaused(boolean paused) {
 		this.paused = paused;
 	}
+
+	/**
+	 * The copy does not have the waiting action of this component
+	 */
+	@Override
+	public Component fork(Entity copyTo, GameFork fork) {
+		AIComponent copy = new AIComponent(ai);
+		copy.delay = delay;
+		copy.paused = paused;
+		return copy;
+	}
 	
 }
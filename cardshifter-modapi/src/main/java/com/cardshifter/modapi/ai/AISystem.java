@@ -1,13 +1,18 @@
 package com.cardshifter.modapi.ai;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
+import com.cardshifter.modapi.actions.ActionBatchEvent;
 import com.cardshifter.modapi.actions.ActionPerformEvent;
 import com.cardshifter.modapi.actions.ECSAction;
 import com.cardshifter.modapi.base.ComponentRetriever;
@@ -15,6 +20,7 @@ import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSGameState;
 import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
 import com.cardshifter.modapi.base.Retriever;
 import com.cardshifter.modapi.events.StartGameEvent;
 
@@ -26,13 +32,27 @@ public class AISystem implements ECSSystem {
 	private ComponentRetriever<AIComponent> ai;
 	
 	private final ScheduledExecutorService executor;
+	private final Executor gameExecutor;
 	
 	public AISystem(ScheduledExecutorService executor) {
+		this(executor, Runnable::run);
+	}
+	
+	/**
+	 * @param executor Scheduler that is used to wait for the AI delay
+	 * @param gameExecutor Executor that runs the AI actions, so that they do not run at the same time as other tasks in the game
+	 */
+	public AISystem(ScheduledExecutorService executor, Executor gameExecutor) {
 		this.executor = executor;
+		this.gameExecutor = gameExecutor;
 	}
 
 	public static void setup(ECSGame game, ScheduledExecutorService executor) {
-		AISystem system = new AISystem(executor);
+		setup(game, executor, Runnable::run);
+	}
+
+	public static void setup(ECSGame game, ScheduledExecutorService executor, Executor gameExecutor) {
+		AISystem system = new AISystem(executor, gameExecutor);
 		game.addSystem(system);
 		if (game.getGameState() != ECSGameState.NOT_STARTED) {
 			logger.warn("Game has already been started when adding AISystem. Performing AI Check directly");
@@ -55,37 +75,76 @@ public class AISystem implements ECSSystem {
 				continue;
 			}
 			
-			long delay = aiComp.getDelay();
-			ECSAction action = aiComp.getAI().getAction(entity);
-			if (action != null && !game.isGameOver()) {
-				logger.info(entity + " will perform " + action + " in " + delay + " milliseconds");
-				Runnable runnable = () -> this.perform(entity, action);
-				if (delay <= 0) {
-					runnable.run();
-				}
-				else {
-					ScheduledFuture<?> future = executor.schedule(runnable, delay, TimeUnit.MILLISECONDS);
-					aiComp.future = future;
-				}
-				return;
-			}
-			else {
+			long start = System.currentTimeMillis();
+			CompletableFuture<Function<ECSGame, ECSAction>> choice = aiComp.getAI().chooseAction(entity);
+			if (choice.isDone() && !choice.isCompletedExceptionally() && choice.join().apply(game) == null) {
 				logger.info(entity + ": No actions available");
+				continue;
+			}
+			if (game.isGameOver()) {
+				return;
 			}
+			logger.info(entity + " is choosing an action");
+			aiComp.future = choice;
+			choice.whenComplete((chosen, error) -> this.handOver(entity, aiComp, choice, chosen, error, start));
+			return;
 		}
 	}
 
-	private void perform(Entity entity, ECSAction action) {
+	/**
+	 * Wait for the rest of the delay and hand the chosen action over to the game, without performing it
+	 * while the event that asked for it is still being handled
+	 */
+	private void handOver(Entity entity, AIComponent aiComp, Future<?> choice, Function<ECSGame, ECSAction> chosen, Throwable error, long start) {
+		if (error != null) {
+			logger.error(entity + " AI could not choose an action", error);
+			clearWaiting(aiComp, choice);
+			return;
+		}
+		// the time that the AI spent on choosing the action is part of the delay
+		long delay = Math.max(aiComp.getDelay() - (System.currentTimeMillis() - start), 0);
+		logger.info(entity + " will perform its action in " + delay + " milliseconds");
+		Runnable runnable = () -> this.perform(entity, chosen);
+		try {
+			executor.schedule(() -> {
+				try {
+					gameExecutor.execute(runnable);
+				}
+				catch (RejectedExecutionException ex) {
+					logger.warn(entity + " AI action was rejected by the game", ex);
+					clearWaiting(aiComp, choice);
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+		catch (RejectedExecutionException ex) {
+			logger.warn(entity + " AI action could not be scheduled", ex);
+			clearWaiting(aiComp, choice);
+		}
+	}
+
+	private static void clearWaiting(AIComponent aiComp, Future<?> choice) {
+		if (aiComp.future == choice) {
+			aiComp.future = null;
+		}
+	}
+
+	private void perform(Entity entity, Function<ECSGame, ECSAction> chosen) {
+		ECSAction action = null;
 		try {
-			logger.info(entity + " performs " + action);
 			if (ai.has(entity)) {
 				ai.get(entity).future = null;
 			}
-			boolean performed = action.perform(entity);
+			ECSGame game = entity.getGame();
+			if (game.isGameOver()) {
+				return;
+			}
+			action = chosen.apply(game);
+			logger.info(entity + " performs " + action);
+			boolean performed = action != null && action.perform(entity);
 			
 			if (!performed) {
 				logger.error(entity + " AI cannot perform action " + action);
-				aiPerform(entity.getGame());
+				aiPerform(game);
 			}
 		}
 		catch (Throwable ex) {
@@ -96,10 +155,23 @@ public class AISystem implements ECSSystem {
 
 	@Override
 	public void startGame(ECSGame game) {
-		game.getEvents().registerHandlerAfter(this, ActionPerformEvent.class, event -> this.aiPerform(event.getEntity().getGame()));
+		game.getEvents().registerHandlerAfter(this, ActionPerformEvent.class, event -> {
+			if (!game.isPerformingBatch()) {
+				this.aiPerform(game);
+			}
+		});
+		game.getEvents().registerHandlerAfter(this, ActionBatchEvent.class, event -> this.aiPerform(game));
 		game.getEvents().registerHandlerAfter(this, StartGameEvent.class, event -> this.aiPerform(event.getGame()));
 	}
 
+	/**
+	 * AIs do not play by themselves in forks of the game, whoever forks the game decides what happens in it
+	 */
+	@Override
+	public ECSSystem fork(GameFork fork) {
+		return null;
+	}
+
 	/**
 	 * Call all AIs in the game directly. Useful for when a new AI has been initialized while the game is running
 	 * @param game Game to call AIs in
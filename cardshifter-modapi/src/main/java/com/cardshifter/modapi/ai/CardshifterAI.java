@@ -1,13 +1,31 @@
 package com.cardshifter.modapi.ai;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 import net.zomis.cardshifter.ecs.config.ConfigComponent;
 
 import com.cardshifter.modapi.actions.ECSAction;
+import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
 
 public interface CardshifterAI {
 	ECSAction getAction(Entity player);
 	
+	/**
+	 * Start choosing an action, for AIs that take a long time to choose and should not hold up the game meanwhile.
+	 * This is called on the thread that runs the game, but the returned future may be completed on another thread.
+	 * The game may change before the future is completed, so the future contains a function that is applied
+	 * on the thread that runs the game, and that finds the chosen action in the game as it is then.
+	 * 
+	 * @param player The player to choose an action for
+	 * @return A future of a function that returns the chosen action, or null if there is no action to perform
+	 */
+	default CompletableFuture<Function<ECSGame, ECSAction>> chooseAction(Entity player) {
+		ECSAction action = getAction(player);
+		return CompletableFuture.completedFuture(game -> action);
+	}
+	
 	default void configure(Entity entity, ConfigComponent config) {
 		
 	}
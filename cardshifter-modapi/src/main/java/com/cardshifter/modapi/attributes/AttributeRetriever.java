@@ -1,7 +1,6 @@
 package com.cardshifter.modapi.attributes;
 
 import java.util.Objects;
-import java.util.Optional;
 
 import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.Entity;
@@ -19,7 +18,7 @@ public class AttributeRetriever {
 	}
 
 	public String getFor(Entity entity) {
-		return attrMap(entity).getAttribute(attribute).get();
+		return attrMap(entity).getValue(attribute);
 	}
 
 	private ECSAttributeMap attrMap(Entity entity) {
@@ -51,8 +50,7 @@ public class AttributeRetriever {
 		if (map == null) {
 			return defaultValue;
 		}
-		Optional<ECSAttributeData> attrData = map.get(attribute);
-		return !attrData.isPresent() ? defaultValue : attrData.get().get();
+		return map.getOrDefault(attribute, defaultValue);
 	}
 	
 }
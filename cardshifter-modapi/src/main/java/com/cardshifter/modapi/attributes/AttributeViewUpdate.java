@@ -1,9 +1,9 @@
 package com.cardshifter.modapi.attributes;
 
 import com.cardshifter.modapi.base.Entity;
-import com.cardshifter.modapi.events.IEvent;
+import com.cardshifter.modapi.events.ReadOnlyEvent;
 
-public class AttributeViewUpdate implements IEvent {
+public class AttributeViewUpdate implements ReadOnlyEvent {
 
 	private final Entity entity;
 	private final ECSAttribute attribute;
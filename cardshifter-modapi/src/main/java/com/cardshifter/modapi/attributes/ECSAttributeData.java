@@ -6,6 +6,7 @@ import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameJournal;
 
 
 
@@ -26,7 +27,7 @@ public class ECSAttributeData {
 	}
 	
 	public String get() {
-		String result = strategy == null ? current : strategy.getAttribute(entity, current);
+		String result = compute(entity);
 		if (!Objects.equals(previousGet, result)) {
 			// Execute an event for UIs to update their values, or for other entities to react
 			entity.getGame().getEvents().executePostEvent(new AttributeViewUpdate(entity, attribute, result));
@@ -35,11 +36,28 @@ public class ECSAttributeData {
 		return result;
 	}
 	
+	/**
+	 * @param forEntity The entity to compute the value for
+	 * @return The current value of this attribute including modifiers, without triggering any events
+	 */
+	String compute(Entity forEntity) {
+		return strategy == null ? current : strategy.getAttribute(forEntity, current);
+	}
+	
+	/**
+	 * @param value A value returned by {@link #compute(Entity)}
+	 * @return True if {@link #get()} would not need to notify about a change of the value
+	 */
+	boolean isLastResult(String value) {
+		return Objects.equals(previousGet, value);
+	}
+	
 	public void set(String value) {
 		// Execute change event (for taking changing creature type, description, etc...).
 		if (!Objects.equals(this.current, value)) {
 			entity.getGame().executeEvent(new AttributeValueChange(entity, attribute, get(), current, value),
 					() -> {
+						recordChange();
 						this.current = value;
 						logger.debug("Modified " + attribute + " for " + entity + " to " + value);
 					});
@@ -47,8 +65,29 @@ public class ECSAttributeData {
 	}
 
 	public void setStrategy(ECSAttributeStrategy strategy) {
+		recordChange();
 		this.strategy = strategy;
 	}
+
+	/**
+	 * Record the current state of this attribute so that it can be rolled back. The change is undone through the map,
+	 * as the map may have been copied and be sharing this data with a fork of the game by the time it is rolled back.
+	 */
+	private void recordChange() {
+		GameJournal journal = entity.getGame().getJournal();
+		if (journal != null) {
+			journal.record(ECSAttributeMap.UNDO_ATTRIBUTE, entity.getComponent(ECSAttributeMap.class), copy(entity), 0);
+		}
+	}
+
+	/**
+	 * Put back the state of a copy made by {@link #copy(Entity)}
+	 */
+	void restore(ECSAttributeData previous) {
+		this.current = previous.current;
+		this.previousGet = previous.previousGet;
+		this.strategy = previous.strategy;
+	}
 	
 	public boolean contains(final CharSequence value) {
 		Objects.requireNonNull(value, "value");
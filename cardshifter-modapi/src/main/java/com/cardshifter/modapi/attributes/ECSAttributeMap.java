@@ -8,10 +8,23 @@ import java.util.stream.Stream;
 import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.CopyableComponent;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameJournal;
 
+/**
+ * The attributes of an entity. Copies share their attributes with the map they were copied from
+ * until one of them hands out or changes its attributes, at which point that map makes its own copy of the attributes.
+ * Reading the value of an attribute through {@link AttributeRetriever} does not make a copy.
+ */
 public class ECSAttributeMap extends Component implements CopyableComponent {
 
-	private final Map<ECSAttribute, ECSAttributeData> map = new HashMap<>();
+	static final GameJournal.Undo<ECSAttributeMap> UNDO_ATTRIBUTE = (map, previous, unused) -> map.restore((ECSAttributeData) previous);
+	private static final GameJournal.Undo<ECSAttributeMap> UNDO_ADD_ATTRIBUTE = (map, attribute, unused) -> map.map().remove(attribute);
+
+	private Map<ECSAttribute, ECSAttributeData> map = new HashMap<>();
+	/**
+	 * True if the attributes are shared with other maps. A shared map is never modified.
+	 */
+	private boolean shared;
 
 	private ECSAttributeMap() {
 	}
@@ -23,12 +36,66 @@ public class ECSAttributeMap extends Component implements CopyableComponent {
 	}
 
     public Optional<ECSAttributeData> get(ECSAttribute res) {
-        return Optional.ofNullable(map.get(res));
+        return Optional.ofNullable(map().get(res));
     }
 
     public ECSAttributeData getAttribute(ECSAttribute attr) {
-		map.computeIfAbsent(attr, r -> new ECSAttributeData(getEntity(), r));
-		return map.get(attr);
+		Map<ECSAttribute, ECSAttributeData> own = map();
+		ECSAttributeData data = own.get(attr);
+		if (data == null) {
+			data = new ECSAttributeData(getEntity(), attr);
+			own.put(attr, data);
+			GameJournal journal = getEntity().getGame().getJournal();
+			if (journal != null) {
+				journal.record(UNDO_ADD_ATTRIBUTE, this, attr, 0);
+			}
+		}
+		return data;
+	}
+	
+	/**
+	 * @param attr The attribute to get the value of
+	 * @param defaultValue The value to return if this map does not contain the attribute
+	 * @return The current value of the attribute, including modifiers
+	 */
+	String getOrDefault(ECSAttribute attr, String defaultValue) {
+		ECSAttributeData data = map.get(attr);
+		if (data == null) {
+			return defaultValue;
+		}
+		if (shared) {
+			// the shared data belongs to another entity, so it is only used if the value is the same as last time
+			String result = data.compute(getEntity());
+			if (data.isLastResult(result)) {
+				return result;
+			}
+			data = map().get(attr);
+		}
+		return data.get();
+	}
+	
+	/**
+	 * @param attr The attribute to get the value of
+	 * @return The current value of the attribute, including modifiers, adding the attribute if this map does not contain it
+	 */
+	String getValue(ECSAttribute attr) {
+		return map.containsKey(attr) ? getOrDefault(attr, null) : getAttribute(attr).get();
+	}
+	
+	private Map<ECSAttribute, ECSAttributeData> map() {
+		if (shared) {
+			Map<ECSAttribute, ECSAttributeData> own = new HashMap<>();
+			for (ECSAttributeData data : map.values()) {
+				own.put(data.getAttribute(), data.copy(getEntity()));
+			}
+			map = own;
+			shared = false;
+		}
+		return map;
+	}
+
+	private void restore(ECSAttributeData previous) {
+		map().get(previous.getAttribute()).restore(previous);
 	}
 
 	public static ECSAttributeMap createFor(Entity entity) {
@@ -52,16 +119,15 @@ public class ECSAttributeMap extends Component implements CopyableComponent {
 	}
 
 	public Stream<ECSAttributeData> getAttributes() {
-		return map.values().stream();
+		return map().values().stream();
 	}
 
 	@Override
 	public Component copy(Entity copyTo) {
 		ECSAttributeMap copy = new ECSAttributeMap();
-		for (ECSAttributeData data : map.values()) {
-			ECSAttributeData copyData = data.copy(copyTo);
-			copy.map.put(data.getAttribute(), copyData);
-		}
+		copy.map = this.map;
+		copy.shared = true;
+		this.shared = true;
 		return copy;
 	}
 	
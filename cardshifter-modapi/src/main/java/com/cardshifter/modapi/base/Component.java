@@ -17,6 +17,13 @@ public abstract class Component {
 		this.entity = entity;
 		// TODO: Is it possible to avoid having a Component know about its entity?
 	}
+
+	/**
+	 * Connect this component to the entity that it had before a change that is rolled back
+	 */
+	void restoreEntity(Entity entity) {
+		this.entity = entity;
+	}
 	
 	protected final <T extends IEvent> T executeEvent(T event) {
 		return getGame().getEvents().executePostEvent(event);
@@ -1,29 +1,34 @@
 package com.cardshifter.modapi.base;
 
-import java.util.Objects;
-import java.util.Set;
-
 public class ComponentRetriever<T extends Component> {
 
 	private final Class<T> clazz;
+	private final ComponentType<T> type;
 
 	public ComponentRetriever(Class<T> clazz) {
 		this.clazz = clazz;
+		this.type = clazz == null ? null : ComponentType.of(clazz);
 	}
 
 	public boolean has(Entity entity) {
-		return entity.hasComponent(clazz);
+		return entity.hasComponent(type);
 	}
 
 	public T get(Entity entity) {
-		Objects.requireNonNull(entity, "Cannot retrieve component " + clazz.getSimpleName() + " on a null entity");
-		return entity.getComponent(clazz);
+		if (entity == null) {
+			throw new NullPointerException("Cannot retrieve component " + clazz.getSimpleName() + " on a null entity");
+		}
+		return entity.getComponent(type);
 	}
 
 	public T required(Entity entity) {
-		String removed = entity.isRemoved() ? " Entity has been removed!" : "";
-		return Objects.requireNonNull(get(entity), clazz.getName() + " not found on entity: " + entity +
-				" available components is: " + entity.getSuperComponents(Component.class) + removed);
+		T component = get(entity);
+		if (component == null) {
+			String removed = entity.isRemoved() ? " Entity has been removed!" : "";
+			throw new NullPointerException(clazz.getName() + " not found on entity: " + entity +
+					" available components is: " + entity.getSuperComponents(Component.class) + removed);
+		}
+		return component;
 	}
 	
 	public static <T extends Component> ComponentRetriever<T> retreiverFor(Class<T> clazz) {
@@ -31,35 +36,15 @@ public class ComponentRetriever<T extends Component> {
 	}
 
 	public static <T extends Component> ComponentRetriever<T> singleton(Class<T> class1) {
-		return new ComponentRetriever<T>(null) {
-			
-			@Override
-			public boolean has(Entity entity) {
-				return get(entity) != null;
-			}
-			
-			@Override
-			public T get(Entity entity) {
-				return singleton(entity.getGame(), class1);
-			}
-			
-		};
+		return Retrievers.singleton(class1);
 	}
 
 	public static <T extends Component> T singleton(ECSGame game, Class<T> class1) {
-		Set<Entity> all = game.getEntitiesWithComponent(class1);
-		if (all.size() != 1) {
-			throw new IllegalStateException("Expected to find exactly one " + class1.getSimpleName() + ", found " + all.size());
-		}
-		return all.iterator().next().getComponent(class1);
+		return Retrievers.singleton(game, class1);
 	}
 
     public static <T extends Component> T singletonOptional(ECSGame game, Class<T> class1) {
-        Set<Entity> all = game.getEntitiesWithComponent(class1);
-        if (all.size() > 1) {
-            throw new IllegalStateException("Expected to find exactly one " + class1.getSimpleName() + ", found " + all.size());
-        }
-        return all.isEmpty() ? null : all.iterator().next().getComponent(class1);
+        return game.findSingleton(ComponentType.of(class1));
     }
 
 }
@@ -0,0 +1,87 @@
+package com.cardshifter.modapi.base;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Identifies a component class by a small int id, so that entities can store their components in an array.
+ * Ids are assigned the first time a component class is used and are shared by all games.
+ *
+ * @param <T> The component class
+ */
+public final class ComponentType<T extends Component> {
+
+	private static final List<ComponentType<?>> types = new ArrayList<>();
+
+	private static final ClassValue<ComponentType<?>> registry = new ClassValue<ComponentType<?>>() {
+		@Override
+		protected ComponentType<?> computeValue(Class<?> type) {
+			return register(type.asSubclass(Component.class));
+		}
+	};
+
+	private final Class<T> componentClass;
+	private final int id;
+
+	private ComponentType(Class<T> componentClass, int id) {
+		this.componentClass = componentClass;
+		this.id = id;
+	}
+
+	private static <T extends Component> ComponentType<T> register(Class<T> componentClass) {
+		synchronized (types) {
+			for (ComponentType<?> existing : types) {
+				if (existing.componentClass == componentClass) {
+					return existing.asType(componentClass);
+				}
+			}
+			ComponentType<T> type = new ComponentType<>(componentClass, types.size());
+			types.add(type);
+			return type;
+		}
+	}
+
+	/**
+	 * @param <T> The component class
+	 * @param componentClass The component class to get the type for
+	 * @return The type of the component class, registering it if it has not been used before
+	 */
+	public static <T extends Component> ComponentType<T> of(Class<T> componentClass) {
+		return registry.get(componentClass).asType(componentClass);
+	}
+
+	/**
+	 * @param component The component to get the type of
+	 * @return The type of the actual class of the component
+	 */
+	@SuppressWarnings("unchecked")
+	public static ComponentType<? extends Component> of(Component component) {
+		return (ComponentType<? extends Component>) registry.get(component.getClass());
+	}
+
+	@SuppressWarnings("unchecked")
+	private <E extends Component> ComponentType<E> asType(Class<E> componentClass) {
+		return (ComponentType<E>) this;
+	}
+
+	/**
+	 * @return The index of this type in a component array
+	 */
+	public int getId() {
+		return id;
+	}
+
+	public Class<T> getComponentClass() {
+		return componentClass;
+	}
+
+	public T cast(Component component) {
+		return componentClass.cast(component);
+	}
+
+	@Override
+	public String toString() {
+		return "ComponentType [" + componentClass.getSimpleName() + ", id=" + id + "]";
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.cardshifter.modapi.base;
+
+import java.util.Random;
+
+/**
+ * A {@link Random} whose state can be read and restored. It produces the same numbers as {@link Random} with the same seed,
+ * but it keeps its state in a plain field, so it is not thread-safe and does not pay for synchronization.
+ * <p>
+ * The state does not include the extra value that {@link #nextGaussian()} keeps between calls.
+ */
+public class DeterministicRandom extends Random {
+	private static final long serialVersionUID = 1L;
+
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+	private static final GameJournal.Undo<DeterministicRandom> UNDO_STATE = (random, unused, state) -> random.state = state;
+
+	private long state;
+	/**
+	 * Where to record the changes of the state, or null if they are not recorded
+	 */
+	private GameJournal journal;
+
+	public DeterministicRandom(long seed) {
+		super(seed);
+	}
+
+	@Override
+	public void setSeed(long seed) {
+		super.setSeed(seed);
+		if (journal != null) {
+			journal.record(UNDO_STATE, this, null, state);
+		}
+		this.state = (seed ^ MULTIPLIER) & MASK;
+	}
+
+	@Override
+	protected int next(int bits) {
+		if (journal != null) {
+			journal.record(UNDO_STATE, this, null, state);
+		}
+		state = (state * MULTIPLIER + ADDEND) & MASK;
+		return (int) (state >>> (48 - bits));
+	}
+
+	/**
+	 * @return The current internal state, which can be given to {@link #setState(long)} to continue from this point
+	 */
+	public long getState() {
+		return state;
+	}
+
+	void setJournal(GameJournal journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * @param state An internal state that was returned by {@link #getState()}
+	 */
+	public void setState(long state) {
+		this.state = state & MASK;
+	}
+
+}
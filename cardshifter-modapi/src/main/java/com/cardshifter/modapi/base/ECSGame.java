@@ -1,16 +1,21 @@
 package com.cardshifter.modapi.base;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import com.cardshifter.modapi.actions.ActionBatchEvent;
+import com.cardshifter.modapi.actions.ECSAction;
 import com.cardshifter.modapi.events.*;
+import com.cardshifter.modapi.resources.ResourceRegistry;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -22,23 +27,70 @@ import org.apache.log4j.Logger;
 public final class ECSGame {
 	private static final Logger logger = LogManager.getLogger(ECSGame.class);
 
+	private static final GameJournal.Undo<ECSGame> UNDO_NEW_ENTITY = (game, entity, previousId) -> game.undoNewEntity((Entity) entity, (int) previousId);
+	private static final GameJournal.Undo<ECSGame> UNDO_REMOVE_ENTITY = (game, entity, unused) -> game.entities[((Entity) entity).getId()] = (Entity) entity;
+	private static final GameJournal.Undo<ECSGame> UNDO_ADD_SYSTEM = (game, system, index) -> game.systems.remove((int) index);
+	private static final GameJournal.Undo<ECSGame> UNDO_REMOVE_SYSTEM = (game, system, index) -> game.systems.add((int) index, (ECSSystem) system);
+	private static final GameJournal.Undo<ECSGame> UNDO_STATE_HASH = (game, unused, hash) -> game.stateHash = hash;
+	private static final GameJournal.Undo<ECSGame> UNDO_GAME_STATE = (game, state, unused) -> game.gameState = (ECSGameState) state;
+	private static final GameJournal.Undo<EntityIndex> UNDO_ADD_TO_SET = (set, entity, unused) -> set.remove(entity);
+	private static final GameJournal.Undo<EntityIndex> UNDO_REMOVE_FROM_SET = (set, place, unused) -> set.restore(place);
+	private static final GameJournal.Undo<Entity> UNDO_COMPONENT_CHANGE = Entity::restoreComponent;
+	private static final GameJournal.Undo<Entity> UNDO_DESTROY = Entity::restoreDestroyed;
+	private static final long ENTITY_KEY = StateHash.kind("entity");
+
 	private final AtomicInteger ids = new AtomicInteger();
 	/**
-	 * All the entities of a single game
+	 * All the entities of a single game, indexed by entity id. Removed entities leave a null in their slot.
+	 */
+	private Entity[] entities = new Entity[64];
+	/**
+	 * Index of which entities currently have a component, indexed by the id of the {@link ComponentType}
+	 */
+	private final List<EntityIndex> componentIndex = new ArrayList<>();
+	/**
+	 * Read-only views of the sets in componentIndex, so that they can be returned without copying
+	 */
+	private final List<Set<Entity>> componentViews = new ArrayList<>();
+	/**
+	 * Cached owners of singleton components, indexed by the id of the {@link ComponentType}.
+	 * Cleared for a type whenever a component of that type is added or removed.
+	 */
+	private final List<Entity> singletonOwners = new ArrayList<>();
+	/**
+	 * All queries that has been created for this game
 	 */
-	private final Map<Integer, Entity> entities = new HashMap<>();
+	private final List<EntityQuery> queries = new ArrayList<>();
+	/**
+	 * The queries that depend on a component type, indexed by the id of the {@link ComponentType}
+	 */
+	private final List<List<EntityQuery>> queriesByType = new ArrayList<>();
 	private final EventExecutor events = new EventExecutor();
 	/**
 	 * All the systems that comprise the game
 	 */
 	private final List<ECSSystem> systems = new ArrayList<>();
-	private final Random random = new Random();
+	private final GameRandom random;
+	private int batchDepth;
 	/**
 	 * An enum for the current state of the game
 	 */
 	private ECSGameState gameState = ECSGameState.NOT_STARTED;
+	/**
+	 * The changes made to this game since {@link #mark()} was first called, or null if changes are not recorded
+	 */
+	private GameJournal journal;
+	/**
+	 * The XOR of the keys of the entities in the game and of the state hashes of the {@link HashedComponent}s
+	 */
+	private long stateHash;
 	
 	public ECSGame() {
+		this(new GameRandom());
+	}
+	
+	private ECSGame(GameRandom random) {
+		this.random = random;
 	}
 	
 	/**
@@ -47,7 +99,20 @@ public final class ECSGame {
 	 */
 	public Entity newEntity() {
 		Entity entity = new Entity(this, ids.incrementAndGet());
-		this.entities.put(entity.getId(), entity);
+		int id = entity.getId();
+		if (id >= entities.length) {
+			entities = Arrays.copyOf(entities, Math.max(id + 1, entities.length * 2));
+		}
+		this.entities[id] = entity;
+		stateHash ^= StateHash.key(ENTITY_KEY, id, 0, 0);
+		if (journal != null) {
+			journal.record(UNDO_NEW_ENTITY, this, entity, id - 1);
+		}
+		for (EntityQuery query : queries) {
+			if (query.matchesEmptyEntity()) {
+				updateQuery(query, entity);
+			}
+		}
         getEvents().executePostEvent(new EntityCreatedEvent(entity));
 		return entity;
 	}
@@ -78,12 +143,242 @@ public final class ECSGame {
 	}
 	
 	/**
+	 * Returns the entities that has the specified component. The result is a copy, so components
+	 * may be added and removed while iterating over it.
 	 * 
 	 * @param clazz The component to search for
 	 * @return All entities that contain the component
 	 */
 	public Set<Entity> getEntitiesWithComponent(Class<? extends Component> clazz) {
-		return entities.values().stream().filter(e -> e.hasComponent(clazz)).collect(Collectors.toSet());
+		return getEntitiesWithComponent(ComponentType.of(clazz));
+	}
+
+	/**
+	 * @param type The component type to search for
+	 * @return A copy of the set of all entities that contain the component
+	 * @see #getEntitiesWithComponent(Class)
+	 */
+	public Set<Entity> getEntitiesWithComponent(ComponentType<? extends Component> type) {
+		return new LinkedHashSet<>(entitiesWithComponentView(type));
+	}
+
+	/**
+	 * Returns a live read-only view of the entities that has the specified component, without copying.
+	 * The view is updated as components are added and removed, so it must not be iterated over
+	 * while components of the same type might be added or removed.
+	 * 
+	 * @param clazz The component to search for
+	 * @return A view of all entities that contain the component
+	 */
+	public Set<Entity> entitiesWithComponentView(Class<? extends Component> clazz) {
+		return entitiesWithComponentView(ComponentType.of(clazz));
+	}
+
+	/**
+	 * @param type The component type to search for
+	 * @return A view of all entities that contain the component
+	 * @see #entitiesWithComponentView(Class)
+	 */
+	public Set<Entity> entitiesWithComponentView(ComponentType<? extends Component> type) {
+		indexFor(type);
+		return componentViews.get(type.getId());
+	}
+
+	private EntityIndex indexFor(ComponentType<? extends Component> type) {
+		int id = type.getId();
+		while (componentIndex.size() <= id) {
+			EntityIndex index = new EntityIndex();
+			componentIndex.add(index);
+			componentViews.add(Collections.unmodifiableSet(index));
+			singletonOwners.add(null);
+			queriesByType.add(new ArrayList<>());
+		}
+		return componentIndex.get(id);
+	}
+
+	/**
+	 * Called by an entity when a component has been added to it
+	 * 
+	 * @param entity The entity that got the component
+	 * @param type The type of the added component
+	 * @param replaced The component of the same type that the entity had before, or null
+	 */
+	void componentAdded(Entity entity, ComponentType<? extends Component> type, Component replaced) {
+		events.stateChanged();
+		stateHash ^= hashOf(replaced) ^ hashOf(entity.getComponent(type));
+		addTo(indexFor(type), entity);
+		singletonOwners.set(type.getId(), null);
+		updateQueries(entity, type);
+	}
+
+	/**
+	 * Called by an entity when a component has been removed from it
+	 * 
+	 * @param entity The entity that lost the component
+	 * @param type The type of the removed component
+	 * @param component The removed component
+	 */
+	void componentRemoved(Entity entity, ComponentType<? extends Component> type, Component component) {
+		events.stateChanged();
+		stateHash ^= hashOf(component);
+		removeFrom(indexFor(type), entity);
+		singletonOwners.set(type.getId(), null);
+		updateQueries(entity, type);
+	}
+
+	private static long hashOf(Component component) {
+		return component instanceof HashedComponent ? ((HashedComponent) component).stateHash() : 0;
+	}
+
+	/**
+	 * A hash of the state of this game, which is kept up to date as the game changes instead of being computed when asked for.
+	 * <p>
+	 * The hash includes which entities exist and the state of all {@link HashedComponent}s:
+	 * the resource values, which zone each card is in, and the current phase and its owner.
+	 * It does not include the order of the cards in a zone, the number of phases that have passed,
+	 * the random streams, or the state of other components and systems.
+	 * The same state gives the same hash in a {@link #fork()} of a game, after a {@link #rollback(int)},
+	 * and in another game where the same entities were created and the same resources were used in the same order.
+	 * 
+	 * @return A 64-bit hash of the state of this game
+	 */
+	public long stateHash() {
+		return stateHash;
+	}
+
+	/**
+	 * Called by a {@link HashedComponent} when its state changes. Changes of components that are not in this game are ignored.
+	 * 
+	 * @param component The component that changes
+	 * @param oldKey The keys of the state that the component no longer has
+	 * @param newKey The keys of the state that the component now has
+	 */
+	public void changeStateHash(Component component, long oldKey, long newKey) {
+		Entity entity = component.getEntity();
+		if (entity != null && entity.getGame() == this && !entity.isRemoved() && entity.getComponent(ComponentType.of(component)) == component) {
+			stateHash ^= oldKey ^ newKey;
+		}
+	}
+
+	private void updateQueries(Entity entity, ComponentType<? extends Component> type) {
+		List<EntityQuery> affected = queriesByType.get(type.getId());
+		for (int i = 0; i < affected.size(); i++) {
+			updateQuery(affected.get(i), entity);
+		}
+	}
+
+	private void updateQuery(EntityQuery query, Entity entity) {
+		if (query.matches(entity)) {
+			addTo(query.members(), entity);
+		}
+		else {
+			removeFrom(query.members(), entity);
+		}
+	}
+
+	/**
+	 * Add an entity to an index or a query, recording the change if changes are recorded
+	 */
+	private void addTo(EntityIndex set, Entity entity) {
+		if (set.add(entity) && journal != null) {
+			journal.record(UNDO_ADD_TO_SET, set, entity, 0);
+		}
+	}
+
+	/**
+	 * Remove an entity from an index or a query, recording where it was so that the order can be restored
+	 */
+	private void removeFrom(EntityIndex set, Entity entity) {
+		Object place = set.removeEntity(entity);
+		if (place != null && journal != null) {
+			journal.record(UNDO_REMOVE_FROM_SET, set, place, 0);
+		}
+	}
+
+	/**
+	 * Called by an entity before it changes one of its components, so that the change can be rolled back
+	 * 
+	 * @param entity The entity that changes a component
+	 * @param index The id of the {@link ComponentType} of the component
+	 * @param previous The component that is replaced or removed, or null if there is none
+	 */
+	void componentChanging(Entity entity, int index, Component previous) {
+		if (journal != null) {
+			journal.record(UNDO_COMPONENT_CHANGE, entity, previous, index);
+		}
+	}
+
+	/**
+	 * Called by an entity before it removes all of its components when it is destroyed, so that the change can be rolled back
+	 * 
+	 * @param entity The entity that is destroyed
+	 * @param components The components of the entity
+	 */
+	void entityDestroying(Entity entity, Component[] components) {
+		if (journal != null) {
+			journal.record(UNDO_DESTROY, entity, components, 0);
+		}
+	}
+
+	private void undoNewEntity(Entity entity, int previousId) {
+		entities[entity.getId()] = null;
+		ids.set(previousId);
+		entity.markRemoved();
+	}
+
+	/**
+	 * Start building a query for entities with a specific combination of components.
+	 * The resulting {@link EntityQuery} is kept up to date as components are added and removed.
+	 * 
+	 * @return A builder for the query
+	 */
+	public EntityQuery.Builder query() {
+		return new EntityQuery.Builder(this);
+	}
+
+	EntityQuery registerQuery(EntityQuery query) {
+		for (EntityQuery existing : queries) {
+			if (existing.hasSameDefinition(query)) {
+				return existing;
+			}
+		}
+		queries.add(query);
+		for (ComponentType<?> type : query.getComponentTypes()) {
+			indexFor(type);
+			queriesByType.get(type.getId()).add(query);
+		}
+		for (Entity entity : entities) {
+			if (entity != null) {
+				query.update(entity);
+			}
+		}
+		return query;
+	}
+
+	/**
+	 * Find a component that only exists on one entity in the game. The entity owning the component is cached
+	 * until a component of the same type is added or removed.
+	 * 
+	 * @param <T> The component type to search for
+	 * @param type The component type to search for
+	 * @return The component, or null if no entity has it
+	 * @throws IllegalStateException If more than one entity has the component
+	 */
+	public <T extends Component> T findSingleton(ComponentType<T> type) {
+		int id = type.getId();
+		Entity owner = id < singletonOwners.size() ? singletonOwners.get(id) : null;
+		if (owner == null) {
+			Set<Entity> all = indexFor(type);
+			if (all.size() > 1) {
+				throw new IllegalStateException("Expected to find exactly one " + type.getComponentClass().getSimpleName() + ", found " + all.size());
+			}
+			if (all.isEmpty()) {
+				return null;
+			}
+			owner = all.iterator().next();
+			singletonOwners.set(id, owner);
+		}
+		return owner.getComponent(type);
 	}
 
 	/**
@@ -94,6 +389,18 @@ public final class ECSGame {
 		return events;
 	}
 
+	/**
+	 * Queue post-events instead of executing them recursively, so that chains of events
+	 * fired from post-handlers are executed iteratively within the current action.
+	 * 
+	 * @param maxDepth The maximum number of events that may be executing inside each other
+	 * @param maxQueuedEvents The maximum number of post-events that are executed from the queue at once
+	 * @see EventExecutor#enableQueue(int, int)
+	 */
+	public void enableEventQueue(int maxDepth, int maxQueuedEvents) {
+		events.enableQueue(maxDepth, maxQueuedEvents);
+	}
+
 	/**
 	 * Add a system to the systems list.
 	 * If the game is in any other state besides NOT_STARTED, the system will be started
@@ -103,6 +410,9 @@ public final class ECSGame {
 	public void addSystem(ECSSystem system) {
 		logger.info("Add system: " + system);
 		this.systems.add(system);
+		if (journal != null) {
+			journal.record(UNDO_ADD_SYSTEM, this, system, systems.size() - 1);
+		}
 		Retrievers.inject(system, this);
 		if (gameState != ECSGameState.NOT_STARTED) {
 			system.startGame(this);
@@ -131,22 +441,166 @@ public final class ECSGame {
      * @return A random number in the inclusive range min - max
      */
     public int randomRange(int min, int max) {
-        return random.nextInt(max - min + 1) + min;
+        return getRandom().nextInt(max - min + 1) + min;
     }
 
 	/**
 	 * 
-	 * @return A random number from Random() class
+	 * @return The main random stream of this game
 	 */
 	public Random getRandom() {
+		return random.main();
+	}
+	
+	/**
+	 * 
+	 * @return The source of all randomness in this game, which gives out a separate stream for each purpose
+	 */
+	public GameRandom getGameRandom() {
 		return random;
 	}
 
+	/**
+	 * 
+	 * @return The registry of resource ordinals, which is shared by all games
+	 */
+	public ResourceRegistry getResourceRegistry() {
+		return ResourceRegistry.global();
+	}
+
+	/**
+	 * Perform several actions in order as one unit.
+	 * The batch stops at the first action that is not allowed, or when the game is over.
+	 * An {@link ActionBatchEvent} is executed when the batch is done, and {@link #isPerformingBatch()}
+	 * returns true while the actions are performed, so that systems can wait until the end of the batch
+	 * before reacting to the performed actions.
+	 * 
+	 * @param performer The entity that performs the actions
+	 * @param actions The actions to perform. The iterator is advanced after the previous action has been performed,
+	 * so the actions may be prepared lazily. A null action stops the batch.
+	 * @return The number of actions that were performed
+	 */
+	public int performAll(Entity performer, Iterator<ECSAction> actions) {
+		List<ECSAction> performed = new ArrayList<>();
+		boolean complete = true;
+		batchDepth++;
+		try {
+			while (actions.hasNext()) {
+				ECSAction action = actions.next();
+				if (isGameOver() || action == null || !action.perform(performer)) {
+					complete = false;
+					break;
+				}
+				performed.add(action);
+			}
+		}
+		finally {
+			batchDepth--;
+		}
+		events.executePostEvent(new ActionBatchEvent(performer, performed, complete));
+		return performed.size();
+	}
+
+	/**
+	 * @param performer The entity that performs the actions
+	 * @param actions The actions to perform
+	 * @return The number of actions that were performed
+	 * @see #performAll(Entity, Iterator)
+	 */
+	public int performAll(Entity performer, List<ECSAction> actions) {
+		return performAll(performer, actions.iterator());
+	}
+
+	/**
+	 * 
+	 * @return True if a batch of actions is currently being performed
+	 */
+	public boolean isPerformingBatch() {
+		return batchDepth > 0;
+	}
+
+	/**
+	 * Creates a copy of this game that can be changed without affecting this game, for example to look ahead when searching for a good action.
+	 * <p>
+	 * The copy has the same entities, with the same ids, and copies of their components and of the random streams.
+	 * Data that the game does not change, such as actions and effects of cards, is shared with the copy.
+	 * Systems are shared as well unless they keep state about the game, see {@link ECSSystem#fork(GameFork)},
+	 * and the event handlers of the systems are registered in the copy in the same order as in this game.
+	 * Event handlers that were registered by objects that are not systems of this game are also copied.
+	 * No events are executed when forking.
+	 * <p>
+	 * Once created, the copy does not share anything with this game that either of them changes,
+	 * so it may be used on another thread while this game continues.
+	 * 
+	 * @return A copy of this game
+	 * @throws IllegalStateException If this game is performing a batch of actions
+	 * @throws UnsupportedOperationException If a component of this game cannot be copied
+	 */
+	public ECSGame fork() {
+		if (batchDepth > 0) {
+			throw new IllegalStateException("Cannot fork a game while it is performing a batch of actions");
+		}
+		ECSGame copy = new ECSGame(random.copy());
+		copy.ids.set(ids.get());
+		copy.gameState = gameState;
+		copy.stateHash = stateHash;
+		copy.entities = new Entity[entities.length];
+		for (Entity entity : entities) {
+			if (entity != null) {
+				copy.entities[entity.getId()] = entity.forkTo(copy);
+			}
+		}
+		
+		GameFork fork = new GameFork(this, copy, systems);
+		for (Entity entity : entities) {
+			if (entity != null) {
+				for (Component component : entity.getSuperComponents(Component.class)) {
+					fork.component(component);
+				}
+			}
+		}
+		// same order as in this game, so that iterating over the entities of a component gives the same result
+		for (EntityIndex index : componentIndex) {
+			EntityIndex copyIndex = new EntityIndex();
+			for (Entity entity : index) {
+				copyIndex.add(fork.entity(entity));
+			}
+			copy.componentIndex.add(copyIndex);
+			copy.componentViews.add(Collections.unmodifiableSet(copyIndex));
+			copy.singletonOwners.add(null);
+			copy.queriesByType.add(new ArrayList<>());
+		}
+		for (EntityQuery query : queries) {
+			EntityQuery copyQuery = query.copyDefinition();
+			for (Entity entity : query.members()) {
+				copyQuery.members().add(fork.entity(entity));
+			}
+			copy.queries.add(copyQuery);
+			for (ComponentType<?> type : copyQuery.getComponentTypes()) {
+				copy.queriesByType.get(type.getId()).add(copyQuery);
+			}
+		}
+		
+		for (ECSSystem system : systems) {
+			ECSSystem copySystem = fork.system(system);
+			if (copySystem != null) {
+				copy.systems.add(copySystem);
+			}
+		}
+		copy.events.copyFrom(events, fork::identifier, fork::key);
+		return copy;
+	}
+
 	/**
 	 * Fire off a GameOverEvent, set the game state to GAME_ENDED.
 	 */
 	public void endGame() {
-		this.executeCancellableEvent(new GameOverEvent(this), () -> gameState = ECSGameState.GAME_ENDED);
+		this.executeCancellableEvent(new GameOverEvent(this), () -> {
+			if (journal != null) {
+				journal.record(UNDO_GAME_STATE, this, gameState, 0);
+			}
+			gameState = ECSGameState.GAME_ENDED;
+		});
 	}
 	
 	/**
@@ -171,16 +625,29 @@ public final class ECSGame {
 	 * @param entity The entity to remove
 	 */
 	void removeEntity(Entity entity) {
-		entities.remove(entity.getId());
+		entities[entity.getId()] = null;
+		stateHash ^= StateHash.key(ENTITY_KEY, entity.getId(), 0, 0);
+		if (journal != null) {
+			journal.record(UNDO_REMOVE_ENTITY, this, entity, 0);
+		}
+		for (EntityQuery query : queries) {
+			removeFrom(query.members(), entity);
+		}
 	}
 
 	/**
 	 * 
 	 * @param condition The type of entity to search for
-	 * @return A list of matching entities.
+	 * @return A list of matching entities, ordered by entity id.
 	 */
 	public List<Entity> findEntities(Predicate<Entity> condition) {
-		return entities.values().stream().filter(condition).collect(Collectors.toList());
+		List<Entity> result = new ArrayList<>();
+		for (Entity entity : entities) {
+			if (entity != null && condition.test(entity)) {
+				result.add(entity);
+			}
+		}
+		return result;
 	}
 
 	/**
@@ -200,11 +667,14 @@ public final class ECSGame {
 	 * @return The requested entity object
 	 */
 	public Entity getEntity(int entity) {
-		return entities.get(entity);
+		if (entity < 0 || entity >= entities.length) {
+			return null;
+		}
+		return entities[entity];
 	}
 	
 	/**
-	 * Sets a new seed for the random object.
+	 * Sets a new seed for the random object, and restarts all the random streams of the game from it.
 	 * 
 	 * @param seed The seed to set
 	 */
@@ -234,7 +704,82 @@ public final class ECSGame {
 	public boolean removeSystem(ECSSystem system) {
 		logger.info("Remove system " + system);
 		events.removeListenersWithIdentifier(system);
-		return systems.remove(system);
+		int index = systems.indexOf(system);
+		if (index < 0) {
+			return false;
+		}
+		systems.remove(index);
+		if (journal != null) {
+			journal.record(UNDO_REMOVE_SYSTEM, this, system, index);
+		}
+		return true;
+	}
+
+	/**
+	 * Start recording the changes that are made to this game, unless they are already recorded,
+	 * so that the game can later be rolled back to the current state with {@link #rollback(int)}.
+	 * This is an alternative to {@link #fork()} for looking ahead, for example in a depth-first search.
+	 * <p>
+	 * The recorded changes are: resource values, cards moving between zones and zones being shuffled,
+	 * components being added and removed, entities being created and destroyed, phase changes,
+	 * the random streams, event handlers and systems being added and removed, players being eliminated, and the game ending.
+	 * Attribute values and the targets chosen in a {@link com.cardshifter.modapi.actions.TargetSet} are also recorded.
+	 * Other state of components and systems is only restored if they record their changes in {@link #getJournal()},
+	 * and systems are told about the rollback with {@link ECSSystem#rolledBack(ECSGame)}.
+	 * 
+	 * @return A mark for the current state of the game
+	 */
+	public int mark() {
+		if (journal == null) {
+			journal = new GameJournal();
+			random.setJournal(journal);
+			events.setJournal(journal);
+		}
+		int mark = journal.size();
+		// undone last when rolling back to this mark, which gives back the hash that the game has now
+		journal.record(UNDO_STATE_HASH, this, null, stateHash);
+		return mark;
+	}
+
+	/**
+	 * Undo all the recorded changes that were made after a mark, without executing any events.
+	 * Marks that were returned after the given mark can no longer be used.
+	 * 
+	 * @param mark A mark returned by {@link #mark()}
+	 * @throws IllegalStateException If changes are not recorded, or if events or a batch of actions are being executed
+	 * @throws IllegalArgumentException If the mark has already been rolled back
+	 */
+	public void rollback(int mark) {
+		if (journal == null) {
+			throw new IllegalStateException("Changes to the game are not recorded");
+		}
+		if (batchDepth > 0 || events.isExecuting()) {
+			throw new IllegalStateException("Cannot roll back while events are being executed");
+		}
+		journal.rollback(mark);
+		Collections.fill(singletonOwners, null);
+		events.stateChanged();
+		for (ECSSystem system : new ArrayList<>(systems)) {
+			system.rolledBack(this);
+		}
+	}
+
+	/**
+	 * Stop recording the changes that are made to this game. Changes that were recorded can no longer be rolled back.
+	 */
+	public void stopRecording() {
+		journal = null;
+		random.setJournal(null);
+		events.setJournal(null);
+	}
+
+	/**
+	 * 
+	 * @return The recorded changes of this game, or null if changes are not recorded
+	 * @see #mark()
+	 */
+	public GameJournal getJournal() {
+		return journal;
 	}
 	
 	// TODO: copy actions. Set<ActionOptions>. choose one, choose two
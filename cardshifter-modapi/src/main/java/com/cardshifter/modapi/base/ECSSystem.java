@@ -2,4 +2,30 @@ package com.cardshifter.modapi.base;
 
 public interface ECSSystem {
 	void startGame(ECSGame game);
+
+	/**
+	 * Decide what to use instead of this system in a fork of the game, see {@link ECSGame#fork()}.
+	 * <p>
+	 * Systems that do not keep any state about the game are shared with the fork, and their event handlers are copied to it.
+	 * A system that keeps state returns a new system, which has to register its own event handlers in
+	 * {@link GameFork#getGame()}, for example by using {@link GameFork#start(ECSSystem)}.
+	 * A system that should not run in forks, such as one that talks to the clients, returns null.
+	 *
+	 * @param fork The fork that is being created
+	 * @return The system to use in the fork, this system if it can be shared, or null to leave it out of the fork
+	 */
+	default ECSSystem fork(GameFork fork) {
+		return this;
+	}
+
+	/**
+	 * Called after the game has been rolled back with {@link ECSGame#rollback(int)}.
+	 * <p>
+	 * A system that keeps state which is not recorded in {@link ECSGame#getJournal()}, such as a cache of what has changed,
+	 * has to forget or recompute that state here, as it may describe changes that were undone.
+	 *
+	 * @param game The game that was rolled back
+	 */
+	default void rolledBack(ECSGame game) {
+	}
 }
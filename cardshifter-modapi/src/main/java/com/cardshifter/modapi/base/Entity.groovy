@@ -1,13 +1,21 @@
 package com.cardshifter.modapi.base;
 
+import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
+
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 import com.cardshifter.modapi.events.EntityRemoveEvent;
 
+@CompileStatic
 public final class Entity {
 
-    private Map<Class<? extends Component>, Component> components = new HashMap<>();
+    private static final Component[] NO_COMPONENTS = new Component[0];
+
+    /**
+     * Components indexed by the id of their {@link ComponentType}
+     */
+    private Component[] components = NO_COMPONENTS;
 
     private final int id;
     private final ECSGame game;
@@ -20,17 +28,35 @@ public final class Entity {
     }
 
     public Entity addComponent(Component component) {
-        components.put(component.getClass(), component);
+        ComponentType<? extends Component> type = ComponentType.of(component);
+        int index = type.getId();
+        if (index >= components.length) {
+            components = (Component[]) Arrays.copyOf(components, index + 1);
+        }
+        Component previous = components[index];
+        game.componentChanging(this, index, previous);
+        components[index] = component;
         component.setEntity(this);
+        game.componentAdded(this, type, previous);
         return this;
     }
 
     public boolean hasComponent(Class<? extends Component> clazz) {
-        return components.containsKey(clazz);
+        return getComponent(ComponentType.of(clazz)) != null;
+    }
+
+    public boolean hasComponent(ComponentType<? extends Component> type) {
+        return getComponent(type) != null;
     }
 
     public <T extends Component> T getComponent(Class<T> clazz) {
-        return clazz.cast(components.get(clazz));
+        ComponentType<T> type = ComponentType.of(clazz);
+        return getComponent(type);
+    }
+
+    public <T extends Component> T getComponent(ComponentType<T> type) {
+        int index = type.getId();
+        return index < components.length ? type.cast(components[index]) : null;
     }
 
     public <T extends Component> T get(ComponentRetriever<T> retriever) {
@@ -59,10 +85,13 @@ public final class Entity {
      * @return A collection with all the components extending the specified class
      */
     public <T extends Component> Collection<T> getSuperComponents(Class<T> componentClass) {
-        return this.components.entrySet().stream()
-                .filter({entry -> componentClass.isAssignableFrom(entry.getKey())})
-                .map({entry -> componentClass.cast(entry.getValue())})
-                .collect(Collectors.toList());
+        List<T> result = new ArrayList<>();
+        for (Component component : components) {
+            if (componentClass.isInstance(component)) {
+                result.add(componentClass.cast(component));
+            }
+        }
+        return result;
     }
 
     @Override
@@ -72,10 +101,18 @@ public final class Entity {
 
     public void destroy() {
         getGame().executeEvent(new EntityRemoveEvent(this), {
-            components.clear();
+            Component[] removedComponents = components;
+            game.entityDestroying(this, removedComponents);
+            components = NO_COMPONENTS;
+            for (Component component : removedComponents) {
+                if (component != null) {
+                    game.componentRemoved(this, ComponentType.of(component), component);
+                }
+            }
             game.removeEntity(this);
             removed = true;
         });
+        game.getEvents().removeEntityHandlers(this);
     }
 
     /**
@@ -88,12 +125,20 @@ public final class Entity {
     }
 
     public void removeComponent(Class<? extends Component> component) {
-        Component comp = this.components.remove(component);
+        ComponentType<? extends Component> type = ComponentType.of(component);
+        Component comp = getComponent(type);
+        if (comp == null) {
+            return;
+        }
+        game.componentChanging(this, type.getId(), comp);
+        components[type.getId()] = null;
+        game.componentRemoved(this, type, comp);
         comp.setEntity(null);
     }
 
     /**
-     * Copy this entity and all of it's copyable components
+     * Copy this entity and all of it's copyable components.
+     * Components may share their data with the copy until either of them is used.
      *
      * @see CopyableComponent
      *
@@ -104,8 +149,9 @@ public final class Entity {
             throw new IllegalStateException("Unable to copy a removed entity");
         }
         Entity copy = game.newEntity();
+        copy.components = new Component[components.length];
 
-        for (Component comp : components.values()) {
+        for (Component comp : components) {
             if (comp instanceof CopyableComponent) {
                 CopyableComponent copyable = (CopyableComponent) comp;
                 copy.addComponent(copyable.copy(copy));
@@ -115,6 +161,73 @@ public final class Entity {
         return copy;
     }
 
+    /**
+     * Create the entity with the same id in a fork of the game, without any components
+     *
+     * @param fork The game that is created by the fork
+     * @return The entity for the fork
+     */
+    @PackageScope Entity forkTo(ECSGame fork) {
+        Entity copy = new Entity(fork, id);
+        copy.setMetaClass(getMetaClass());
+        copy.removed = removed;
+        if (!removed) {
+            copy.components = new Component[components.length];
+        }
+        return copy;
+    }
+
+    /**
+     * Add a component that has been copied to a fork of the game, without updating the indexes of the game
+     *
+     * @param component The copied component
+     */
+    @PackageScope void forkComponent(Component component) {
+        if (!removed) {
+            int index = ComponentType.of(component).getId();
+            if (index >= components.length) {
+                components = (Component[]) Arrays.copyOf(components, index + 1);
+            }
+            components[index] = component;
+        }
+        component.setEntity(this);
+    }
+
+    /**
+     * Put back a component that was replaced or removed, when the game is rolled back
+     *
+     * @param previous The component to put back, or null if there was none
+     * @param index The id of the {@link ComponentType} of the component
+     */
+    @PackageScope void restoreComponent(Object previous, long index) {
+        Component current = components[(int) index];
+        components[(int) index] = (Component) previous;
+        if (current != null && !current.is(previous)) {
+            current.restoreEntity(null);
+        }
+        if (previous != null) {
+            ((Component) previous).restoreEntity(this);
+        }
+    }
+
+    /**
+     * Bring back this entity and its components after it has been destroyed, when the game is rolled back
+     *
+     * @param components The components that the entity had
+     * @param unused Not used
+     */
+    @PackageScope void restoreDestroyed(Object components, long unused) {
+        this.components = (Component[]) components;
+        removed = false;
+    }
+
+    /**
+     * Mark this entity as removed when its creation is rolled back
+     */
+    @PackageScope void markRemoved() {
+        removed = true;
+    }
+
     /**
      * Apply an effect to this entity
      * @param effect Effect to apply
@@ -129,7 +242,7 @@ public final class Entity {
         if (entity == null) {
             return "null entity";
         }
-        return entity.toString() + " --- " + entity.components.toString();
+        return entity.toString() + " --- " + entity.getSuperComponents(Component.class).toString();
     }
 
     public String debug() {
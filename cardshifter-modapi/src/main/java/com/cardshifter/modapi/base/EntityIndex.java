@@ -0,0 +1,173 @@
+package com.cardshifter.modapi.base;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of entities in the order they were added, used for the component index and the members of queries.
+ * <p>
+ * Removing an entity with {@link #removeEntity(Entity)} gives back its place in the order, which can be given to
+ * {@link #restore(Object)} to put the entity back where it was. As a rollback undoes the changes in the opposite order
+ * of how they were made, the neighbours of the entity are the same when it is restored, so this does not require a scan.
+ */
+final class EntityIndex extends AbstractSet<Entity> {
+
+	private static final class Node {
+		private final Entity entity;
+		private Node previous;
+		private Node next;
+
+		private Node(Entity entity) {
+			this.entity = entity;
+		}
+	}
+
+	private final Map<Entity, Node> nodes = new HashMap<>();
+	private Node first;
+	private Node last;
+	private int modifications;
+
+	@Override
+	public boolean add(Entity entity) {
+		if (nodes.containsKey(entity)) {
+			return false;
+		}
+		Node node = new Node(entity);
+		node.previous = last;
+		nodes.put(entity, node);
+		link(node);
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object entity) {
+		return removeEntity((Entity) entity) != null;
+	}
+
+	/**
+	 * @param entity The entity to remove
+	 * @return The place of the entity, to be used with {@link #restore(Object)}, or null if the entity was not in this set
+	 */
+	Object removeEntity(Entity entity) {
+		Node node = nodes.remove(entity);
+		if (node == null) {
+			return null;
+		}
+		unlink(node);
+		return node;
+	}
+
+	/**
+	 * Put back an entity that was removed, in the place that it was removed from.
+	 * All the changes made to this set after the entity was removed must have been undone first.
+	 *
+	 * @param place A place returned by {@link #removeEntity(Entity)}
+	 */
+	void restore(Object place) {
+		Node node = (Node) place;
+		nodes.put(node.entity, node);
+		link(node);
+	}
+
+	/**
+	 * Link a node between its previous node and the node after that
+	 */
+	private void link(Node node) {
+		node.next = node.previous == null ? first : node.previous.next;
+		if (node.previous == null) {
+			first = node;
+		}
+		else {
+			node.previous.next = node;
+		}
+		if (node.next == null) {
+			last = node;
+		}
+		else {
+			node.next.previous = node;
+		}
+		modifications++;
+	}
+
+	/**
+	 * Unlink a node, keeping its own links so that it can be linked again
+	 */
+	private void unlink(Node node) {
+		if (node.previous == null) {
+			first = node.next;
+		}
+		else {
+			node.previous.next = node.next;
+		}
+		if (node.next == null) {
+			last = node.previous;
+		}
+		else {
+			node.next.previous = node.previous;
+		}
+		modifications++;
+	}
+
+	@Override
+	public boolean contains(Object entity) {
+		return nodes.containsKey(entity);
+	}
+
+	@Override
+	public int size() {
+		return nodes.size();
+	}
+
+	@Override
+	public void clear() {
+		nodes.clear();
+		first = null;
+		last = null;
+		modifications++;
+	}
+
+	@Override
+	public Iterator<Entity> iterator() {
+		return new Iterator<Entity>() {
+			private Node next = first;
+			private Node current;
+			private int expected = modifications;
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public Entity next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				if (expected != modifications) {
+					throw new ConcurrentModificationException();
+				}
+				current = next;
+				next = next.next;
+				return current.entity;
+			}
+
+			@Override
+			public void remove() {
+				if (current == null) {
+					throw new IllegalStateException();
+				}
+				if (expected != modifications) {
+					throw new ConcurrentModificationException();
+				}
+				removeEntity(current.entity);
+				current = null;
+				expected = modifications;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,227 @@
+package com.cardshifter.modapi.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * A live set of the entities that have all of some component types, at least one of some other component types
+ * and none of a third set of component types. The members are updated by the {@link ECSGame} as components
+ * are added and removed, so iterating over a query does not require a scan of all entities.
+ *
+ * @see ECSGame#query()
+ */
+public final class EntityQuery implements Iterable<Entity> {
+
+	private final ComponentType<?>[] all;
+	private final ComponentType<?>[] any;
+	private final ComponentType<?>[] none;
+	private final EntityIndex entities = new EntityIndex();
+	private final Set<Entity> view = Collections.unmodifiableSet(entities);
+
+	private EntityQuery(ComponentType<?>[] all, ComponentType<?>[] any, ComponentType<?>[] none) {
+		this.all = all;
+		this.any = any;
+		this.none = none;
+	}
+
+	/**
+	 * @param entity The entity to check
+	 * @return True if the entity currently fulfills the requirements of this query
+	 */
+	public boolean matches(Entity entity) {
+		for (ComponentType<?> type : all) {
+			if (!entity.hasComponent(type)) {
+				return false;
+			}
+		}
+		for (ComponentType<?> type : none) {
+			if (entity.hasComponent(type)) {
+				return false;
+			}
+		}
+		if (any.length == 0) {
+			return true;
+		}
+		for (ComponentType<?> type : any) {
+			if (entity.hasComponent(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	void update(Entity entity) {
+		if (matches(entity)) {
+			entities.add(entity);
+		}
+		else {
+			entities.remove(entity);
+		}
+	}
+
+	/**
+	 * @return The modifiable set of the entities matching this query, which is kept up to date by the game
+	 */
+	EntityIndex members() {
+		return entities;
+	}
+
+	/**
+	 * @return A query with the same requirements as this query, without any members
+	 */
+	EntityQuery copyDefinition() {
+		return new EntityQuery(all, any, none);
+	}
+
+	/**
+	 * @return True if this query can match an entity without any components
+	 */
+	boolean matchesEmptyEntity() {
+		return all.length == 0 && any.length == 0;
+	}
+
+	/**
+	 * @return All the component types that can change the result of this query
+	 */
+	ComponentType<?>[] getComponentTypes() {
+		List<ComponentType<?>> result = new ArrayList<>();
+		Collections.addAll(result, all);
+		Collections.addAll(result, any);
+		Collections.addAll(result, none);
+		return result.toArray(new ComponentType<?>[result.size()]);
+	}
+
+	boolean hasSameDefinition(EntityQuery other) {
+		return sameTypes(all, other.all) && sameTypes(any, other.any) && sameTypes(none, other.none);
+	}
+
+	private static boolean sameTypes(ComponentType<?>[] a, ComponentType<?>[] b) {
+		if (a.length != b.length) {
+			return false;
+		}
+		for (ComponentType<?> type : a) {
+			if (!contains(b, type)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean contains(ComponentType<?>[] types, ComponentType<?> type) {
+		for (ComponentType<?> current : types) {
+			if (current == type) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return A live read-only view of the entities currently matching this query
+	 */
+	public Set<Entity> getEntities() {
+		return view;
+	}
+
+	public boolean contains(Entity entity) {
+		return entities.contains(entity);
+	}
+
+	public int size() {
+		return entities.size();
+	}
+
+	public boolean isEmpty() {
+		return entities.isEmpty();
+	}
+
+	public Stream<Entity> stream() {
+		return view.stream();
+	}
+
+	@Override
+	public Iterator<Entity> iterator() {
+		return view.iterator();
+	}
+
+	@Override
+	public String toString() {
+		return "EntityQuery [all=" + Arrays.toString(all) + ", any=" + Arrays.toString(any)
+				+ ", none=" + Arrays.toString(none) + ", size=" + size() + "]";
+	}
+
+	/**
+	 * Builds an {@link EntityQuery}. Created by {@link ECSGame#query()}
+	 */
+	public static final class Builder {
+
+		private final ECSGame game;
+		private final List<ComponentType<?>> all = new ArrayList<>();
+		private final List<ComponentType<?>> any = new ArrayList<>();
+		private final List<ComponentType<?>> none = new ArrayList<>();
+
+		Builder(ECSGame game) {
+			this.game = game;
+		}
+
+		/**
+		 * @param types Component types that an entity must have all of
+		 * @return This builder
+		 */
+		@SafeVarargs
+		public final Builder all(Class<? extends Component>... types) {
+			addTypes(all, types);
+			return this;
+		}
+
+		/**
+		 * @param types Component types that an entity must have at least one of
+		 * @return This builder
+		 */
+		@SafeVarargs
+		public final Builder any(Class<? extends Component>... types) {
+			addTypes(any, types);
+			return this;
+		}
+
+		/**
+		 * @param types Component types that an entity must not have any of
+		 * @return This builder
+		 */
+		@SafeVarargs
+		public final Builder none(Class<? extends Component>... types) {
+			addTypes(none, types);
+			return this;
+		}
+
+		private static void addTypes(List<ComponentType<?>> list, Class<? extends Component>[] types) {
+			for (Class<? extends Component> type : types) {
+				ComponentType<?> componentType = ComponentType.of(type);
+				if (!list.contains(componentType)) {
+					list.add(componentType);
+				}
+			}
+		}
+
+		/**
+		 * Create the query, or return an existing query in the game with the same requirements
+		 *
+		 * @return A live query of the entities matching the requirements
+		 */
+		public EntityQuery build() {
+			EntityQuery query = new EntityQuery(toArray(all), toArray(any), toArray(none));
+			return game.registerQuery(query);
+		}
+
+		private static ComponentType<?>[] toArray(List<ComponentType<?>> list) {
+			return list.toArray(new ComponentType<?>[list.size()]);
+		}
+
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.cardshifter.modapi.base;
+
+/**
+ * A component that can be copied to a fork of its game, see {@link ECSGame#fork()}.
+ * Components that implement {@link CopyableComponent} and do not refer to other entities do not need to implement this.
+ */
+public interface ForkableComponent {
+
+	/**
+	 * @param copyTo The entity in the fork that the copy is added to
+	 * @param fork The fork that is being created, used to find the copies of other entities and components
+	 * @return A copy of this component that can be changed without affecting this component
+	 */
+	Component fork(Entity copyTo, GameFork fork);
+
+}
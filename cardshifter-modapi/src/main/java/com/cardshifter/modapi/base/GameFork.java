@@ -0,0 +1,178 @@
+package com.cardshifter.modapi.base;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * A fork of a game that is being created by {@link ECSGame#fork()}.
+ * Used by components and systems to find the copies of the entities, components and other objects that they refer to.
+ * Every object is only copied once, so objects that are shared in the original game are also shared in the fork.
+ */
+public final class GameFork {
+
+	private final ECSGame original;
+	private final ECSGame game;
+	private final Set<ECSSystem> systems = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Map<ECSSystem, ECSSystem> systemCopies = new IdentityHashMap<>();
+	private final Map<Component, Component> componentCopies = new IdentityHashMap<>();
+	private final Map<Object, Object> copies = new IdentityHashMap<>();
+	/**
+	 * Copies of entities that have been removed from the original game but are still referred to
+	 */
+	private final Map<Integer, Entity> removedEntities = new HashMap<>();
+
+	GameFork(ECSGame original, ECSGame game, List<ECSSystem> systems) {
+		this.original = original;
+		this.game = game;
+		this.systems.addAll(systems);
+	}
+
+	/**
+	 * @return The game that is being forked
+	 */
+	public ECSGame getOriginal() {
+		return original;
+	}
+
+	/**
+	 * @return The new game
+	 */
+	public ECSGame getGame() {
+		return game;
+	}
+
+	/**
+	 * @param entity An entity of the original game
+	 * @return The entity with the same id in the fork. Entities that have been removed from the original game
+	 * are copied as removed entities without components.
+	 */
+	public Entity entity(Entity entity) {
+		if (entity == null) {
+			return null;
+		}
+		if (entity.getGame() != original) {
+			throw new IllegalArgumentException(entity + " is not an entity of the game that is forked");
+		}
+		Entity result = game.getEntity(entity.getId());
+		if (result == null) {
+			result = removedEntities.computeIfAbsent(entity.getId(), id -> entity.forkTo(game));
+		}
+		return result;
+	}
+
+	/**
+	 * Get the copy of a component, copying it if it has not been copied yet
+	 *
+	 * @param <T> The type of the component
+	 * @param component A component of the original game
+	 * @return The copy of the component, which belongs to the copy of the entity of the component
+	 * @throws UnsupportedOperationException If the component cannot be copied
+	 */
+	public <T extends Component> T component(T component) {
+		if (component == null) {
+			return null;
+		}
+		Component result = componentCopies.get(component);
+		if (result == null) {
+			Entity entity = component.getEntity();
+			if (entity == null) {
+				throw new IllegalArgumentException("Component " + component + " is not connected to an entity");
+			}
+			Entity copyTo = entity(entity);
+			if (component instanceof ForkableComponent) {
+				result = ((ForkableComponent) component).fork(copyTo, this);
+			}
+			else if (component instanceof CopyableComponent) {
+				result = ((CopyableComponent) component).copy(copyTo);
+			}
+			else {
+				throw new UnsupportedOperationException("Component cannot be forked: " + component.getClass().getName());
+			}
+			if (result.getClass() != component.getClass()) {
+				throw new IllegalStateException("Fork of " + component.getClass().getName() + " returned " + result.getClass().getName());
+			}
+			componentCopies.put(component, result);
+			copyTo.forkComponent(result);
+		}
+		@SuppressWarnings("unchecked")
+		T copy = (T) result;
+		return copy;
+	}
+
+	/**
+	 * Copy an object that may be referred to from several places in the game, such as a phase,
+	 * so that all of them refer to the same copy in the fork
+	 *
+	 * @param <T> The type of the object
+	 * @param object The object of the original game
+	 * @param copier Creates the copy, called only the first time an object is copied
+	 * @return The copy of the object
+	 */
+	public <T> T copy(T object, UnaryOperator<T> copier) {
+		if (object == null) {
+			return null;
+		}
+		@SuppressWarnings("unchecked")
+		T result = (T) copies.get(object);
+		if (result == null) {
+			result = copier.apply(object);
+			copies.put(object, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @param system A system of the original game
+	 * @return The system to use in the fork as decided by {@link ECSSystem#fork(GameFork)},
+	 * or null if it is left out of the fork or is not a system of the original game
+	 */
+	public ECSSystem system(ECSSystem system) {
+		if (!systems.contains(system)) {
+			return null;
+		}
+		if (systemCopies.containsKey(system)) {
+			return systemCopies.get(system);
+		}
+		ECSSystem result = system.fork(this);
+		systemCopies.put(system, result);
+		return result;
+	}
+
+	/**
+	 * Start a new system in the fork, for systems whose {@link ECSSystem#startGame(ECSGame)} only registers event handlers
+	 *
+	 * @param <T> The type of the system
+	 * @param system A system that has been created for the fork
+	 * @return The same system
+	 */
+	public <T extends ECSSystem> T start(T system) {
+		Retrievers.inject(system, game);
+		system.startGame(game);
+		return system;
+	}
+
+	/**
+	 * @param identifier The identifier of an event handler in the original game
+	 * @return The identifier to use in the fork, or null to leave the handler out
+	 */
+	Object identifier(Object identifier) {
+		if (identifier instanceof ECSSystem && systems.contains(identifier)) {
+			return system((ECSSystem) identifier);
+		}
+		return identifier;
+	}
+
+	/**
+	 * @param key The key of an event handler in the original game
+	 * @return The key to use in the fork
+	 */
+	Object key(Object key) {
+		return key instanceof Entity ? entity((Entity) key) : key;
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.cardshifter.modapi.base;
+
+import java.util.Arrays;
+
+/**
+ * The changes that have been made to a game since it started recording them, so that the game can be rolled back
+ * to an earlier state, see {@link ECSGame#mark()} and {@link ECSGame#rollback(int)}.
+ * <p>
+ * Each change is recorded as an {@link Undo} together with the changed object, the previous value as an object and a number.
+ * The entries are kept in arrays that are reused, so recording a change usually does not allocate anything.
+ * Components and systems that keep other state can record their own changes with {@link #record(Undo, Object, Object, long)}.
+ */
+public final class GameJournal {
+
+	/**
+	 * Reverts one recorded change. Implementations should be constants, so that recording does not allocate.
+	 *
+	 * @param <T> The type of the changed object
+	 */
+	@FunctionalInterface
+	public interface Undo<T> {
+		/**
+		 * Put back the previous value, without executing any events. Changes made while undoing are not recorded.
+		 *
+		 * @param target The changed object
+		 * @param previous The previous value, or any other object given when recording the change
+		 * @param value A number given when recording the change
+		 */
+		void undo(T target, Object previous, long value);
+	}
+
+	private Undo<?>[] undos = new Undo<?>[64];
+	private Object[] targets = new Object[64];
+	private Object[] previous = new Object[64];
+	private long[] values = new long[64];
+	private int size;
+	private boolean rollingBack;
+
+	GameJournal() {
+	}
+
+	/**
+	 * Record a change that has been made, or is about to be made, to the game
+	 *
+	 * @param <T> The type of the changed object
+	 * @param undo Reverts the change
+	 * @param target The changed object
+	 * @param previous The previous value, or any other object that is needed to revert the change
+	 * @param value A number that is needed to revert the change
+	 */
+	public <T> void record(Undo<T> undo, T target, Object previous, long value) {
+		if (rollingBack) {
+			return;
+		}
+		if (size == undos.length) {
+			int length = size * 2;
+			undos = Arrays.copyOf(undos, length);
+			targets = Arrays.copyOf(targets, length);
+			this.previous = Arrays.copyOf(this.previous, length);
+			values = Arrays.copyOf(values, length);
+		}
+		undos[size] = undo;
+		targets[size] = target;
+		this.previous[size] = previous;
+		values[size] = value;
+		size++;
+	}
+
+	/**
+	 * @return The number of recorded changes, which is used as the mark of the current state
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return True while changes are being undone
+	 */
+	public boolean isRollingBack() {
+		return rollingBack;
+	}
+
+	/**
+	 * Undo the changes after a mark, the latest change first
+	 *
+	 * @param mark The number of changes to keep
+	 */
+	void rollback(int mark) {
+		if (mark < 0 || mark > size) {
+			throw new IllegalArgumentException("Mark " + mark + " is not in the journal, which has " + size + " changes");
+		}
+		rollingBack = true;
+		try {
+			while (size > mark) {
+				size--;
+				@SuppressWarnings("unchecked")
+				Undo<Object> undo = (Undo<Object>) undos[size];
+				undo.undo(targets[size], previous[size], values[size]);
+				undos[size] = null;
+				targets[size] = null;
+				previous[size] = null;
+			}
+		}
+		finally {
+			rollingBack = false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "GameJournal [size=" + size + "]";
+	}
+
+}
@@ -0,0 +1,168 @@
+package com.cardshifter.modapi.base;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The randomness of a game. Everything is derived from a single seed, which is split into independent streams
+ * identified by name, so that one system using random numbers does not change the numbers that another system gets.
+ * <p>
+ * The streams are not thread-safe, they should only be used by the thread that is running the game.
+ */
+public final class GameRandom {
+
+	/**
+	 * The stream returned by {@link ECSGame#getRandom()}. It gives the same numbers as a {@link java.util.Random} with the seed of the game.
+	 */
+	public static final String MAIN = "main";
+	public static final String SHUFFLE = "shuffle";
+	public static final String EFFECTS = "effects";
+	public static final String AI = "ai";
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private long seed;
+	private final Map<String, DeterministicRandom> streams = new HashMap<>();
+	/**
+	 * True if every name gives the main stream, see {@link #useMainStreamOnly()}
+	 */
+	private boolean mainStreamOnly;
+	private GameJournal journal;
+
+	/**
+	 * Creates a game random with a random seed
+	 */
+	public GameRandom() {
+		this(ThreadLocalRandom.current().nextLong());
+	}
+
+	public GameRandom(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * @return The seed that all the streams are derived from
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Sets a new seed and restarts all the streams from it
+	 *
+	 * @param seed The seed to set
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		for (Entry<String, DeterministicRandom> entry : streams.entrySet()) {
+			entry.getValue().setSeed(seedFor(entry.getKey()));
+		}
+	}
+
+	/**
+	 * Get the stream for a name. The same name always gives the same stream in this game.
+	 *
+	 * @param name The name of the stream, such as {@link #SHUFFLE}
+	 * @return The stream of random numbers for the name
+	 */
+	public DeterministicRandom stream(String name) {
+		if (mainStreamOnly) {
+			name = MAIN;
+		}
+		DeterministicRandom stream = streams.get(name);
+		if (stream == null) {
+			stream = new DeterministicRandom(seedFor(Objects.requireNonNull(name, "Stream name cannot be null")));
+			stream.setJournal(journal);
+			streams.put(name, stream);
+		}
+		return stream;
+	}
+
+	/**
+	 * Makes every name give the {@link #MAIN} stream, which is how games used random numbers before there were separate streams.
+	 * Used to play back games that were recorded back then.
+	 */
+	public void useMainStreamOnly() {
+		mainStreamOnly = true;
+		streams.keySet().retainAll(Collections.singleton(MAIN));
+	}
+
+	/**
+	 * @return The stream named {@link #MAIN}
+	 */
+	public DeterministicRandom main() {
+		return stream(MAIN);
+	}
+
+	/**
+	 * Creates a new game random that is independent of this one, for example for a simulation that runs on another thread.
+	 * Splitting with the same index from the same seed always gives the same result.
+	 *
+	 * @param index Which of the split game randoms to create
+	 * @return A new game random with a seed derived from this seed and the index
+	 */
+	public GameRandom split(long index) {
+		return new GameRandom(StateHash.mix(seed + (index + 1) * GOLDEN_GAMMA));
+	}
+
+	/**
+	 * @return A game random with the same seed and streams that continue from the current state of the streams of this game random
+	 */
+	public GameRandom copy() {
+		GameRandom copy = new GameRandom(seed);
+		copy.mainStreamOnly = mainStreamOnly;
+		copy.setState(getState());
+		return copy;
+	}
+
+	/**
+	 * @return The current state of every stream that has been used, which can be given to {@link #setState(Map)}
+	 */
+	public Map<String, Long> getState() {
+		Map<String, Long> result = new TreeMap<>();
+		for (Entry<String, DeterministicRandom> entry : streams.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().getState());
+		}
+		return result;
+	}
+
+	/**
+	 * Restores the streams to a state returned by {@link #getState()}. Streams that are not included in the state are not changed.
+	 *
+	 * @param state The state of each stream
+	 */
+	public void setState(Map<String, Long> state) {
+		for (Entry<String, Long> entry : state.entrySet()) {
+			stream(entry.getKey()).setState(entry.getValue());
+		}
+	}
+
+	/**
+	 * @param journal Where the streams record their draws so that they can be rolled back, or null to stop recording
+	 */
+	void setJournal(GameJournal journal) {
+		this.journal = journal;
+		for (DeterministicRandom stream : streams.values()) {
+			stream.setJournal(journal);
+		}
+	}
+
+	private long seedFor(String name) {
+		if (MAIN.equals(name)) {
+			return seed;
+		}
+		// String.hashCode is specified, so the same name gives the same stream on every JVM
+		return StateHash.mix(seed ^ StateHash.mix(name.hashCode() * GOLDEN_GAMMA));
+	}
+
+	@Override
+	public String toString() {
+		return "GameRandom [seed=" + seed + ", streams=" + streams.keySet() + "]";
+	}
+
+}
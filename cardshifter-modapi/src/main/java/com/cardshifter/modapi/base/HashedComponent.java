@@ -0,0 +1,17 @@
+package com.cardshifter.modapi.base;
+
+/**
+ * A component whose state is part of the state hash of its game, see {@link ECSGame#stateHash()}.
+ * <p>
+ * The hash of the component is added to the game when the component is added to an entity, and removed when it is removed.
+ * When the state of the component changes, it has to call {@link ECSGame#changeStateHash(Component, long, long)}
+ * so that the hash of the game stays the same as if the component had been added with its new state.
+ */
+public interface HashedComponent {
+
+	/**
+	 * @return The XOR of the keys of the current state of this component, created with {@link StateHash#key(long, long, long, long)}
+	 */
+	long stateHash();
+
+}
@@ -2,7 +2,12 @@ package com.cardshifter.modapi.base;
 
 import java.util.*;
 
-public class PlayerComponent extends Component {
+public class PlayerComponent extends Component implements ForkableComponent {
+
+	private static final GameJournal.Undo<PlayerComponent> UNDO_ELIMINATE = (player, winner, position) -> {
+		player.resultPosition = (int) position;
+		player.winnerDeclaration = (Boolean) winner;
+	};
 
 	private final int index;
 	private int resultPosition;
@@ -41,7 +46,7 @@ public class PlayerComponent extends Component {
 	}
 	
 	private void eliminate(boolean winner) {
-		List<Entity> players = new ArrayList<>(getEntity().getGame().getEntitiesWithComponent(PlayerComponent.class));
+		List<Entity> players = new ArrayList<>(getEntity().getGame().entitiesWithComponentView(PlayerComponent.class));
 		players.sort(Comparator.comparing(e -> e.getComponent(PlayerComponent.class).getIndex()));
 		
 		// if no one else has been eliminated, the player is at 1st place. Because the player itself has not been eliminated, it should get increased below.
@@ -72,6 +77,10 @@ public class PlayerComponent extends Component {
 			return;
 		}
 		executeCancellableEvent(new PlayerEliminatedEvent(getEntity(), winner, resultPosition), () -> {
+			GameJournal journal = getEntity().getGame().getJournal();
+			if (journal != null) {
+				journal.record(UNDO_ELIMINATE, this, this.winnerDeclaration, this.resultPosition);
+			}
 			this.resultPosition = resultPosition;
 			this.winnerDeclaration = winner;
 		});
@@ -98,6 +107,14 @@ public class PlayerComponent extends Component {
 		return winnerDeclaration;
 	}
 
+	@Override
+	public Component fork(Entity copyTo, GameFork fork) {
+		PlayerComponent copy = new PlayerComponent(index, name);
+		copy.resultPosition = resultPosition;
+		copy.winnerDeclaration = winnerDeclaration;
+		return copy;
+	}
+
 	@Override
 	public String toString() {
 		return "PlayerComponent [index=" + index + ", name=" + name + "]";
@@ -0,0 +1,19 @@
+package com.cardshifter.modapi.base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects an {@link EntityQuery} into a field
+ * 
+ * @see ECSGame#query()
+ */
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface RetrieverQuery {
+	Class<? extends Component>[] all() default {};
+	Class<? extends Component>[] any() default {};
+	Class<? extends Component>[] none() default {};
+}
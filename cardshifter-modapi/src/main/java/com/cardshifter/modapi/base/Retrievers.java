@@ -8,7 +8,6 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
 
 public class Retrievers {
 
@@ -33,11 +32,11 @@ public class Retrievers {
 	}
 
 	public static <T extends Component> T singleton(ECSGame game, Class<T> class1) {
-		Set<Entity> all = game.getEntitiesWithComponent(class1);
-		if (all.size() != 1) {
-			throw new IllegalStateException("Expected to find exactly one " + class1.getSimpleName() + ", found " + all.size());
+		T result = game.findSingleton(ComponentType.of(class1));
+		if (result == null) {
+			throw new IllegalStateException("Expected to find exactly one " + class1.getSimpleName() + ", found 0");
 		}
-		return all.iterator().next().getComponent(class1);
+		return result;
 	}
 
 	public static void inject(Object object, ECSGame game) {
@@ -54,6 +53,7 @@ public class Retrievers {
 		AccessController.doPrivileged((PrivilegedAction<Void>)() -> {
 			fields.stream().filter(field -> field.getAnnotation(Retriever.class) != null).forEach(field -> injectField(object, field, game));
 			fields.stream().filter(field -> field.getAnnotation(RetrieverSingleton.class) != null).forEach(field -> injectSingleton(object, field, game));
+			fields.stream().filter(field -> field.getAnnotation(RetrieverQuery.class) != null).forEach(field -> injectQuery(object, field, game));
 			return null;
 		});
 	}
@@ -71,6 +71,20 @@ public class Retrievers {
 		});
 	}
 
+	private static void injectQuery(Object obj, Field field, ECSGame game) {
+		if (field.getType() != EntityQuery.class) {
+			throw new RuntimeException(field.getType() + " is not an EntityQuery");
+		}
+		RetrieverQuery annotation = field.getAnnotation(RetrieverQuery.class);
+		EntityQuery query = game.query().all(annotation.all()).any(annotation.any()).none(annotation.none()).build();
+		try {
+			field.setAccessible(true);
+			field.set(obj, query);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	private static void injectField(Object obj, Field field, ECSGame game) {
 		if (field.getType() != ComponentRetriever.class) {
 			throw new RuntimeException(field.getType() + " is not a ComponentRetriever");
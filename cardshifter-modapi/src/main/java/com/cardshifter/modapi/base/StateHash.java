@@ -0,0 +1,45 @@
+package com.cardshifter.modapi.base;
+
+/**
+ * Creates the keys that are combined into the state hash of a game, see {@link ECSGame#stateHash()}.
+ * A key only depends on its arguments, so the same state gives the same hash in every game and on every JVM.
+ */
+public final class StateHash {
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private StateHash() {
+	}
+
+	/**
+	 * @param name The name of a kind of state, such as "resource"
+	 * @return The kind to use when creating keys for that state
+	 */
+	public static long kind(String name) {
+		// String.hashCode is specified, so the same name gives the same kind on every JVM
+		return mix(name.hashCode() * GOLDEN_GAMMA);
+	}
+
+	/**
+	 * @param kind The kind of state, from {@link #kind(String)}
+	 * @param a The first value that identifies the state, usually an entity id
+	 * @param b The second value
+	 * @param c The third value
+	 * @return A key for the state, which is added to and removed from the hash with XOR
+	 */
+	public static long key(long kind, long a, long b, long c) {
+		long hash = mix(kind + a * GOLDEN_GAMMA);
+		hash = mix(hash + b * GOLDEN_GAMMA);
+		return mix(hash + c * GOLDEN_GAMMA);
+	}
+
+	/**
+	 * The finalizer of SplitMix64, which spreads the bits of a value over the whole result
+	 */
+	static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
@@ -2,10 +2,19 @@ package com.cardshifter.modapi.cards;
 
 import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.ForkableComponent;
+import com.cardshifter.modapi.base.GameFork;
+import com.cardshifter.modapi.base.GameJournal;
+import com.cardshifter.modapi.base.HashedComponent;
+import com.cardshifter.modapi.base.StateHash;
 
 import java.util.Objects;
 
-public class CardComponent extends Component {
+public class CardComponent extends Component implements ForkableComponent, HashedComponent {
+
+	private static final long ZONE_KEY = StateHash.kind("zone");
+	private static final GameJournal.Undo<CardComponent> UNDO_MOVE = (card, zone, index) -> card.moveBack((ZoneComponent) zone, (int) index);
+	private static final GameJournal.Undo<CardComponent> UNDO_SWAP = (card, other, unused) -> card.swapPlaces((CardComponent) other);
 
 	private ZoneComponent currentZone;
 	
@@ -36,10 +45,15 @@ public class CardComponent extends Component {
 		ZoneChangeEvent event = new ZoneChangeEvent(currentZone, target, card);
 		
 		executeEvent(event, () -> {
+            GameJournal journal = card.getGame().getJournal();
+            if (journal != null) {
+                journal.record(UNDO_MOVE, this, currentZone, currentZone == null ? -1 : currentZone.indexOf(card));
+            }
             if (event.getSource() != null) {
                 event.getSource().cardMoveFrom(card);
             }
 
+            long oldKey = stateHash();
             ZoneComponent dest = event.getDestination();
             if (dest != null) {
                 if (top) {
@@ -50,10 +64,68 @@ public class CardComponent extends Component {
                 }
             }
             this.currentZone = dest;
+            card.getGame().changeStateHash(this, oldKey, stateHash());
 
         });
 	}
 	
+	/**
+	 * Move this card back to where it was before a move that is rolled back
+	 */
+	private void moveBack(ZoneComponent zone, int index) {
+		Entity card = getEntity();
+		if (currentZone != null) {
+			currentZone.cardMoveFrom(card);
+		}
+		if (zone != null && index >= 0) {
+			zone.cardMoveAt(card, index);
+		}
+		this.currentZone = zone;
+	}
+
+	/**
+	 * Exchange the places of this card and another card, which may be in another zone, without executing any events.
+	 * Used by AIs to replace information that they cannot know, such as which cards an opponent has on hand.
+	 * 
+	 * @param other The card to exchange places with
+	 * @throws IllegalStateException If one of the cards is not in a zone
+	 */
+	public void swapWith(CardComponent other) {
+		if (currentZone == null || other.currentZone == null) {
+			throw new IllegalStateException("Cards that are not in a zone cannot be swapped: " + getEntity() + ", " + other.getEntity());
+		}
+		GameJournal journal = getEntity().getGame().getJournal();
+		if (journal != null) {
+			journal.record(UNDO_SWAP, this, other, 0);
+		}
+		swapPlaces(other);
+	}
+
+	private void swapPlaces(CardComponent other) {
+		long oldKey = stateHash();
+		long otherOldKey = other.stateHash();
+		currentZone.cardSwap(getEntity(), other.currentZone, other.getEntity());
+		ZoneComponent zone = currentZone;
+		this.currentZone = other.currentZone;
+		other.currentZone = zone;
+		getEntity().getGame().changeStateHash(this, oldKey, stateHash());
+		getEntity().getGame().changeStateHash(other, otherOldKey, other.stateHash());
+	}
+
+	/**
+	 * The zone that the card is in is part of the state hash, but not the position of the card in the zone,
+	 * since a move would change the position of every card below it
+	 */
+	@Override
+	public long stateHash() {
+		return currentZone == null ? 0 : StateHash.key(ZONE_KEY, getEntity().getId(), currentZone.getZoneId(), 0);
+	}
+
+	@Override
+	public Component fork(Entity copyTo, GameFork fork) {
+		return new CardComponent(fork.component(currentZone));
+	}
+
     @Override
     public String toString() {
         return "CardOnZone " + currentZone;
@@ -1,8 +1,10 @@
 package com.cardshifter.modapi.cards;
 
 import com.cardshifter.api.config.DeckConfig;
+import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
 import net.zomis.cardshifter.ecs.config.ConfigComponent;
 
 import java.util.Map;
@@ -13,20 +15,35 @@ public class DeckComponent extends ZoneComponent {
 		super(owner, "Deck");
 	}
 
+	private DeckComponent(DeckComponent original, GameFork fork) {
+		super(original, fork);
+	}
+
+	@Override
+	public Component fork(Entity copyTo, GameFork fork) {
+		return new DeckComponent(this, fork);
+	}
+
     public void createFromConfig(String name) {
         ConfigComponent playerConfig = getOwner().getComponent(ConfigComponent.class);
         DeckConfig config = (DeckConfig) playerConfig.getConfigs().get(name);
         setupDeck(this, config);
     }
 
-    private static void setupDeck(DeckComponent deck, DeckConfig deckConf) {
+    /**
+     * Add copies of the chosen cards of a deck config to a deck.
+     * The copies share their resources, attributes and actions with the original card until they are used.
+     *
+     * @param deck The deck to add the cards to
+     * @param deckConf The cards to add
+     */
+    public static void setupDeck(DeckComponent deck, DeckConfig deckConf) {
         ECSGame game = deck.getOwner().getGame();
         for (Map.Entry<Integer, Integer> chosen : deckConf.getChosen().entrySet()) {
-            int entityId = chosen.getKey();
+            Entity existing = game.getEntity(chosen.getKey());
             int count = chosen.getValue();
 
             for (int i = 0; i < count; i++) {
-                Entity existing = game.getEntity(entityId);
                 Entity copy = existing.copy();
                 deck.addOnBottom(copy);
             }
@@ -2,11 +2,11 @@ package com.cardshifter.modapi.cards;
 
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import com.cardshifter.modapi.actions.ActionAllowedCheckEvent;
 import com.cardshifter.modapi.actions.ActionComponent;
 import com.cardshifter.modapi.actions.ECSAction;
+import com.cardshifter.modapi.actions.TargetDomain;
 import com.cardshifter.modapi.actions.TargetableCheckEvent;
 import com.cardshifter.modapi.base.ComponentRetriever;
 import com.cardshifter.modapi.base.ECSGame;
@@ -21,11 +21,8 @@ public class MulliganSingleCards implements ECSSystem {
 	private static final String PHASE_NAME = "Mulligan";
 	private static final String ACTION_NAME = "Mulligan";
 	
-	private final PhaseController phases;
-	private final AtomicInteger remainingPerforms = new AtomicInteger(0);
-
 	public MulliganSingleCards(ECSGame game) {
-		phases = ComponentRetriever.singleton(game, PhaseController.class);
+		PhaseController phases = ComponentRetriever.singleton(game, PhaseController.class);
 		phases.insertTemporaryPhaseBeforeCurrent(new Phase(null, PHASE_NAME));
 	}
 	
@@ -36,7 +33,6 @@ public class MulliganSingleCards implements ECSSystem {
 		game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent.class, this::actionAllowed);
 		
 		Set<Entity> players = game.getEntitiesWithComponent(PlayerComponent.class);
-		remainingPerforms.set(players.size());
 		for (Entity player : players) {
 			ActionComponent playerActions = player.get(actions);
 			if (playerActions == null) {
@@ -48,7 +44,8 @@ public class MulliganSingleCards implements ECSSystem {
 	}
 
 	private ECSAction createMulliganAction(Entity player) {
-		return new ECSAction(player, ACTION_NAME, act -> true, this::performAction).addTargetSet(0, Integer.MAX_VALUE);
+		TargetDomain ownHand = new TargetDomain().zones("Hand").ownedBy(TargetDomain.Owner.YOU);
+		return new ECSAction(player, ACTION_NAME, act -> true, this::performAction).addTargetSet(0, Integer.MAX_VALUE, ownHand);
 	}
 	
 	private void actionAllowed(ActionAllowedCheckEvent event) {
@@ -58,7 +55,7 @@ public class MulliganSingleCards implements ECSSystem {
 		if (event.getEntity() != event.getPerformer()) {
 			event.setAllowed(false);
 		}
-		if (!PHASE_NAME.equals(phases.getCurrentPhase().getName())) {
+		if (!PHASE_NAME.equals(phases(event.getEntity()).getCurrentPhase().getName())) {
 			event.setAllowed(false);
 		}
 	}
@@ -85,11 +82,21 @@ public class MulliganSingleCards implements ECSSystem {
         Entity owner = mulliganAction.getOwner();
 		owner.getComponent(ActionComponent.class).removeAction(ACTION_NAME);
         owner.getComponent(DeckComponent.class).shuffle();
-		if (remainingPerforms.decrementAndGet() == 0) {
-			phases.nextPhase();
+		// the phase ends when every player has performed the mulligan
+		boolean remaining = owner.getGame().entitiesWithComponentView(PlayerComponent.class).stream()
+			.anyMatch(player -> player.hasComponent(ActionComponent.class) && player.getComponent(ActionComponent.class).getAction(ACTION_NAME) != null);
+		if (!remaining) {
+			phases(owner).nextPhase();
 		}
 	}
 	
+	/**
+	 * The phases are looked up from the entity, so that this system can be shared with forks of the game
+	 */
+	private static PhaseController phases(Entity entity) {
+		return ComponentRetriever.singleton(entity.getGame(), PhaseController.class);
+	}
+	
 	private void switchCard(Entity e) {
 		ComponentRetriever<CardComponent> cards = ComponentRetriever.retreiverFor(CardComponent.class);
 		Entity owner = cards.get(e).getOwner();
@@ -1,9 +1,9 @@
 package com.cardshifter.modapi.cards;
 
 import com.cardshifter.modapi.base.Entity;
-import com.cardshifter.modapi.events.IEvent;
+import com.cardshifter.modapi.events.EntityEvent;
 
-public class ZoneChangeEvent implements IEvent {
+public class ZoneChangeEvent implements EntityEvent {
 
 	private final ZoneComponent source;
 	private final ZoneComponent destination;
@@ -19,6 +19,11 @@ public class ZoneChangeEvent implements IEvent {
 		return card;
 	}
 	
+	@Override
+	public Entity getSubjectEntity() {
+		return card;
+	}
+	
 	public ZoneComponent getDestination() {
 		return destination;
 	}
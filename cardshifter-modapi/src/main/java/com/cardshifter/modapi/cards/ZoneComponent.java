@@ -1,44 +1,126 @@
 package com.cardshifter.modapi.cards;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.ForkableComponent;
+import com.cardshifter.modapi.base.GameFork;
+import com.cardshifter.modapi.base.GameJournal;
+import com.cardshifter.modapi.base.GameRandom;
+import com.cardshifter.modapi.base.PlayerComponent;
 
-public class ZoneComponent extends Component {
+public class ZoneComponent extends Component implements ForkableComponent {
+
+	private static final GameJournal.Undo<ZoneComponent> UNDO_SHUFFLE = (zone, order, unused) -> zone.restoreOrder((Entity[]) order);
+
+	/**
+	 * The cards of the zone are stored in <code>cards[head]</code> (the top card) to <code>cards[tail - 1]</code> (the bottom card),
+	 * with free space on both sides so that cards can be added and removed at the top and bottom without shifting.
+	 */
+	private Entity[] cards = new Entity[16];
+	private int head = 8;
+	private int tail = 8;
+	/**
+	 * Position in <code>cards</code> plus one for each card in the zone, indexed by entity id. Zero for entities not in the zone.
+	 */
+	private int[] positions = new int[0];
+	private int modCount;
 
-	private final LinkedList<Entity> cards = new LinkedList<>();
 	private final Entity owner;
-	private final Map<Entity, Boolean> known = new HashMap<>();
+	/**
+	 * Players that has been explicitly told whether or not they know about this zone, indexed by player index
+	 */
+	private final BitSet knownSet = new BitSet();
+	private final BitSet known = new BitSet();
+	/**
+	 * Known values for entities that did not have a {@link PlayerComponent} when they were set
+	 */
+	private final Map<Entity, Boolean> knownEntities = new HashMap<>();
 	private final String name;
 	private final Entity zoneEntity;
-	
+
 	private boolean publicKnown;
-	
+
 	public ZoneComponent(Entity owner, String name) {
 		this.owner = Objects.requireNonNull(owner, "Zone Owner cannot be null");
 		this.name = Objects.requireNonNull(name, "Zone Name cannot be null");
 		this.zoneEntity = owner.getGame().newEntity();
 	}
-	
+
+	/**
+	 * Creates a copy of a zone for a fork of the game. Subclasses need to override {@link #fork(Entity, GameFork)} using this constructor.
+	 *
+	 * @param original The zone to copy
+	 * @param fork The fork that is being created
+	 */
+	protected ZoneComponent(ZoneComponent original, GameFork fork) {
+		this.owner = fork.entity(original.owner);
+		this.name = original.name;
+		this.zoneEntity = fork.entity(original.zoneEntity);
+		this.cards = new Entity[original.cards.length];
+		for (int i = original.head; i < original.tail; i++) {
+			this.cards[i] = fork.entity(original.cards[i]);
+		}
+		this.head = original.head;
+		this.tail = original.tail;
+		this.positions = original.positions.clone();
+		this.knownSet.or(original.knownSet);
+		this.known.or(original.known);
+		for (Entry<Entity, Boolean> entry : original.knownEntities.entrySet()) {
+			this.knownEntities.put(fork.entity(entry.getKey()), entry.getValue());
+		}
+		this.publicKnown = original.publicKnown;
+	}
+
+	@Override
+	public Component fork(Entity copyTo, GameFork fork) {
+		if (getClass() != ZoneComponent.class) {
+			throw new UnsupportedOperationException(getClass().getName() + " has to override fork");
+		}
+		return new ZoneComponent(this, fork);
+	}
+
 	public Entity getOwner() {
 		return owner;
 	}
-	
+
 	public Entity getTopCard() {
-		return cards.getFirst();
+		if (isEmpty()) {
+			throw new NoSuchElementException("Zone is empty: " + this);
+		}
+		return cards[head];
 	}
-	
+
 	public boolean isKnownTo(Entity player) {
-		return known.getOrDefault(player, publicKnown);
+		PlayerComponent playerComponent = player == null ? null : player.getComponent(PlayerComponent.class);
+		if (playerComponent == null) {
+			return knownEntities.getOrDefault(player, publicKnown);
+		}
+		if (!knownEntities.isEmpty()) {
+			Boolean value = knownEntities.remove(player);
+			if (value != null) {
+				setKnown(player, value);
+			}
+		}
+		int index = playerComponent.getIndex();
+		return knownSet.get(index) ? known.get(index) : publicKnown;
 	}
 
 	public void addOnBottom(Entity entity) {
@@ -49,59 +131,255 @@ public class ZoneComponent extends Component {
 		entity.addComponent(comp);
 		comp.moveToBottom(this);
 	}
-	
+
 	public void shuffle() {
-		Collections.shuffle(cards, getRandom());
+		// Same algorithm and use of the random as Collections.shuffle, so that replays give the same result
+		Random random = getEntity().getGame().getGameRandom().stream(GameRandom.SHUFFLE);
+		GameJournal journal = getEntity().getGame().getJournal();
+		if (journal != null) {
+			journal.record(UNDO_SHUFFLE, this, Arrays.copyOfRange(cards, head, tail), 0);
+		}
+		for (int i = size(); i > 1; i--) {
+			swap(head + i - 1, head + random.nextInt(i));
+		}
+		modCount++;
+	}
+
+	/**
+	 * Put the cards back in the order they had before a shuffle that is rolled back
+	 */
+	private void restoreOrder(Entity[] order) {
+		for (int i = 0; i < order.length; i++) {
+			cards[head + i] = order[i];
+			setPosition(order[i], head + i);
+		}
+		modCount++;
+	}
+
+	private void swap(int a, int b) {
+		Entity entity = cards[a];
+		cards[a] = cards[b];
+		cards[b] = entity;
+		setPosition(cards[a], a);
+		setPosition(cards[b], b);
 	}
 
 	public void setGloballyKnown(boolean publicKnown) {
 		this.publicKnown = publicKnown;
 	}
-	
+
 	protected void setKnown(Entity owner, boolean known) {
-		this.known.put(owner, known);
+		PlayerComponent playerComponent = owner.getComponent(PlayerComponent.class);
+		if (playerComponent == null) {
+			this.knownEntities.put(owner, known);
+			return;
+		}
+		int index = playerComponent.getIndex();
+		this.knownSet.set(index);
+		this.known.set(index, known);
 	}
 
 	public boolean isEmpty() {
-		return cards.isEmpty();
+		return head == tail;
 	}
-	
+
 	public Entity getComponentEntity() {
 		return this.getEntity();
 	}
-	
+
+	/**
+	 * @param card The card to look for
+	 * @return True if the card is in this zone
+	 */
+	public boolean contains(Entity card) {
+		return position(card) >= 0;
+	}
+
+	/**
+	 * @param card The card to look for
+	 * @return The position of the card counted from the top of the zone, or -1 if the card is not in this zone
+	 */
+	public int indexOf(Entity card) {
+		int position = position(card);
+		return position < 0 ? -1 : position - head;
+	}
+
 	void cardMoveFrom(Entity card) {
-		cards.remove(card);
+		int position = position(card);
+		if (position < 0) {
+			return;
+		}
+		if (position - head < tail - 1 - position) {
+			for (int i = position; i > head; i--) {
+				cards[i] = cards[i - 1];
+				setPosition(cards[i], i);
+			}
+			cards[head++] = null;
+		}
+		else {
+			for (int i = position; i < tail - 1; i++) {
+				cards[i] = cards[i + 1];
+				setPosition(cards[i], i);
+			}
+			cards[--tail] = null;
+		}
+		positions[card.getId()] = 0;
+		modCount++;
 	}
 
 	void cardMoveAtTop(Entity card) {
-		cards.addFirst(card);
+		cardMoveFrom(card);
+		if (head == 0) {
+			relayout();
+		}
+		cards[--head] = card;
+		setPosition(card, head);
+		modCount++;
 	}
 
 	void cardMoveAtBottom(Entity card) {
-		cards.addLast(card);
+		cardMoveFrom(card);
+		if (tail == cards.length) {
+			relayout();
+		}
+		cards[tail] = card;
+		setPosition(card, tail++);
+		modCount++;
+	}
+
+	/**
+	 * Put a card back at a position in this zone, when a move is rolled back
+	 *
+	 * @param card The card to put back
+	 * @param index The position counted from the top of the zone
+	 */
+	void cardMoveAt(Entity card, int index) {
+		cardMoveFrom(card);
+		if (index == 0) {
+			cardMoveAtTop(card);
+			return;
+		}
+		if (index >= size()) {
+			cardMoveAtBottom(card);
+			return;
+		}
+		if (tail == cards.length) {
+			relayout();
+		}
+		int position = head + index;
+		for (int i = tail; i > position; i--) {
+			cards[i] = cards[i - 1];
+			setPosition(cards[i], i);
+		}
+		tail++;
+		cards[position] = card;
+		setPosition(card, position);
+		modCount++;
+	}
+
+	/**
+	 * Exchange the positions of a card in this zone and a card in another zone, or in this zone
+	 *
+	 * @param card The card in this zone
+	 * @param otherZone The zone of the other card
+	 * @param otherCard The other card, which takes the position of the first card
+	 */
+	void cardSwap(Entity card, ZoneComponent otherZone, Entity otherCard) {
+		int position = position(card);
+		int otherPosition = otherZone.position(otherCard);
+		if (position < 0 || otherPosition < 0) {
+			throw new IllegalArgumentException("Cards are not in their zones: " + card + ", " + otherCard);
+		}
+		if (otherZone != this) {
+			positions[card.getId()] = 0;
+			otherZone.positions[otherCard.getId()] = 0;
+		}
+		cards[position] = otherCard;
+		otherZone.cards[otherPosition] = card;
+		setPosition(otherCard, position);
+		otherZone.setPosition(card, otherPosition);
+		modCount++;
+		otherZone.modCount++;
+	}
+
+	/**
+	 * Move the cards to the middle of the array, growing it if needed so that there is space on both sides
+	 */
+	private void relayout() {
+		int size = size();
+		Entity[] result = new Entity[Math.max(cards.length, size * 2 + 16)];
+		int newHead = (result.length - size) / 2;
+		System.arraycopy(cards, head, result, newHead, size);
+		cards = result;
+		head = newHead;
+		tail = newHead + size;
+		for (int i = head; i < tail; i++) {
+			setPosition(cards[i], i);
+		}
+	}
+
+	private int position(Entity card) {
+		int id = card.getId();
+		if (id >= positions.length) {
+			return -1;
+		}
+		return positions[id] - 1;
+	}
+
+	private void setPosition(Entity card, int position) {
+		int id = card.getId();
+		if (id >= positions.length) {
+			positions = Arrays.copyOf(positions, Math.max(id + 1, positions.length * 2));
+		}
+		positions[id] = position + 1;
 	}
 
 	public void forEach(Consumer<? super Entity> action) {
-		this.cards.forEach(action);
+		int expectedModCount = modCount;
+		for (int i = head; i < tail; i++) {
+			action.accept(cards[i]);
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
 	}
 
 	public int size() {
-		return cards.size();
+		return tail - head;
 	}
 
 	@Override
 	public String toString() {
 		return "Zone '" + name + "' [size=" + size() + ", owner=" + owner
-				+ ", known=" + known + ", publicKnown=" + publicKnown + "]";
+				+ ", known=" + known + ", knownSet=" + knownSet + ", publicKnown=" + publicKnown + "]";
 	}
-	
+
 	public Stream<Entity> stream() {
-		return cards.stream();
+		Iterator<Entity> iterator = new Iterator<Entity>() {
+			private final int expectedModCount = modCount;
+			private int next = head;
+
+			@Override
+			public boolean hasNext() {
+				return next < tail;
+			}
+
+			@Override
+			public Entity next() {
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				if (next >= tail) {
+					throw new NoSuchElementException();
+				}
+				return cards[next++];
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliterator(iterator, size(), Spliterator.ORDERED), false);
 	}
 
 	public List<Entity> getCards() {
-		return new ArrayList<>(cards);
+		return new ArrayList<>(Arrays.asList(cards).subList(head, tail));
 	}
 
 	public String getName() {
@@ -111,5 +389,5 @@ public class ZoneComponent extends Component {
 	public int getZoneId() {
 		return zoneEntity.getId();
 	}
-	
+
 }
@@ -0,0 +1,22 @@
+package com.cardshifter.modapi.events;
+
+import com.cardshifter.modapi.base.Entity;
+
+/**
+ * An event about one specific entity, which can be dispatched only to the handlers registered for that entity.
+ *
+ * @see EventExecutor#registerEntityHandlerAfter(Object, Entity, Class, java.util.function.Consumer)
+ */
+public interface EntityEvent extends KeyedEvent {
+
+	/**
+	 * @return The entity that this event is about
+	 */
+	Entity getSubjectEntity();
+
+	@Override
+	default Object getEventKey() {
+		return getSubjectEntity();
+	}
+
+}
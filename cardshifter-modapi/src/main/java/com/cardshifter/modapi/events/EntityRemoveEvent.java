@@ -2,7 +2,7 @@ package com.cardshifter.modapi.events;
 
 import com.cardshifter.modapi.base.Entity;
 
-public class EntityRemoveEvent implements IEvent {
+public class EntityRemoveEvent implements EntityEvent {
 
 	private final Entity entity;
 
@@ -13,5 +13,10 @@ public class EntityRemoveEvent implements IEvent {
 	public Entity getEntity() {
 		return entity;
 	}
+	
+	@Override
+	public Entity getSubjectEntity() {
+		return entity;
+	}
 
 }
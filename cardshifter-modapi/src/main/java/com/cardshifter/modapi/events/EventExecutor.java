@@ -1,42 +1,128 @@
 package com.cardshifter.modapi.events;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.function.UnaryOperator;
 
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import com.cardshifter.modapi.base.CancellableEvent;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameJournal;
 
 public class EventExecutor implements EventExecution {
 
 	private static final Logger logger = LogManager.getLogger(EventExecutor.class);
 	
+	private static final EventHandler<?>[] NO_HANDLERS = new EventHandler<?>[0];
+	
 	protected final Map<Class<? extends IEvent>, Collection<EventHandler<?>>> bindings;
 	
+	/**
+	 * Reverse indexes of the bindings, so that removing handlers does not need to search through all bindings.
+	 * Identifiers are compared by identity, the same way as in {@link #removeListenersWithIdentifier(Object)}.
+	 */
+	private final Map<EventHandler<?>, Class<? extends IEvent>> handlerClasses = new IdentityHashMap<>();
+	private final Map<Object, List<EventHandler<?>>> identifierHandlers = new IdentityHashMap<>();
+	private final Map<Entity, List<EventHandler<?>>> entityHandlers = new HashMap<>();
+	
+	/**
+	 * Handlers to run before and after each event class, rebuilt from bindings whenever they change.
+	 * The tables are never modified once created, except for caching handlers per key,
+	 * so handlers registered or removed during an event do not affect the execution of that event.
+	 */
+	private final Map<Class<? extends IEvent>, DispatchTable> preHandlers = new HashMap<>();
+	private final Map<Class<? extends IEvent>, DispatchTable> postHandlers = new HashMap<>();
+	
+	/**
+	 * The post-handlers split by {@link EventHandler#isImmediate()}, used when post-events are queued
+	 */
+	private final Map<Class<? extends IEvent>, DispatchTable> postImmediateHandlers = new HashMap<>();
+	private final Map<Class<? extends IEvent>, DispatchTable> postDeferredHandlers = new HashMap<>();
+	
+	/**
+	 * Post-events waiting for their deferred handlers, or null if post-events are executed directly
+	 */
+	private Deque<IEvent> postQueue;
+	private boolean draining;
+	private int maxDepth;
+	private int maxQueuedEvents;
+	private int depth;
+	
+	/**
+	 * Incremented whenever the state of the game may have changed, used to invalidate cached values
+	 */
+	private long stateVersion = 1;
+	
+	/**
+	 * Where registering and removing handlers is recorded, or null if it is not recorded
+	 */
+	private GameJournal journal;
+	private final GameJournal.Undo<EventHandler<?>> undoRegister = (handler, unused, value) -> removeHandler(handler);
+	private final GameJournal.Undo<EventHandler<?>> undoRemove = (handler, eventClass, position) -> rebind(handler, eventClass, (int) position);
+	
+	/**
+	 * The handlers of one event class for either before or after the event, in registration order
+	 */
+	private static final class DispatchTable {
+		
+		private final EventHandler<?>[] handlers;
+		private final EventHandler<?>[] unkeyed;
+		private final Set<Object> keys = new HashSet<>();
+		private final Map<Object, EventHandler<?>[]> byKey = new HashMap<>();
+		
+		private DispatchTable(EventHandler<?>[] handlers) {
+			this.handlers = handlers;
+			for (EventHandler<?> handler : handlers) {
+				if (handler.getKey() != null) {
+					keys.add(handler.getKey());
+				}
+			}
+			this.unkeyed = keys.isEmpty() ? handlers : Arrays.stream(handlers)
+				.filter(handler -> handler.getKey() == null)
+				.toArray(EventHandler<?>[]::new);
+		}
+		
+		private EventHandler<?>[] forEvent(IEvent event) {
+			Object key = event instanceof KeyedEvent ? ((KeyedEvent) event).getEventKey() : null;
+			if (key == null || !keys.contains(key)) {
+				return unkeyed;
+			}
+			EventHandler<?>[] result = byKey.get(key);
+			if (result == null) {
+				result = Arrays.stream(handlers)
+					.filter(handler -> handler.getKey() == null || handler.getKey().equals(key))
+					.toArray(EventHandler<?>[]::new);
+				byKey.put(key, result);
+			}
+			return result;
+		}
+		
+	}
+	
 	public EventExecutor() {
 		this.bindings = new HashMap<Class<? extends IEvent>, Collection<EventHandler<?>>>();
 	}
 	
-	private <T extends IEvent> T executeEventInternal(T event, Predicate<EventHandler<?>> predicate) {
-		Collection<EventHandler<?>> handlers = this.bindings.get(event.getClass());
-		if (handlers != null) {
-			List<EventHandler<?>> interestedHandlers = handlers.stream().filter(predicate).collect(Collectors.toList());
-			ListIterator<EventHandler<?>> iterator = interestedHandlers.listIterator();
-			while (iterator.hasNext()) {
-				EventHandler<?> performer = iterator.next();
-//				int index = iterator.nextIndex();
-//				logger.info("Handling " + event + " " + index + " / " + interestedHandlers.size() + ": " + performer);
-				performer.execute(event);
+	private static <T extends IEvent> T executeEventInternal(T event, DispatchTable table) {
+		if (table != null) {
+			for (EventHandler<?> handler : table.forEvent(event)) {
+				handler.execute(event);
 			}
 		}
 		return event;
@@ -44,14 +130,158 @@ public class EventExecutor implements EventExecution {
 	
 	@Override
 	public <T extends IEvent> T executePostEvent(T event) {
-		logger.debug("Execute pre event " + event);
-		return executeEventInternal(event, eh -> eh.isAfter());
+		if (logger.isDebugEnabled()) {
+			logger.debug("Execute post event " + event);
+		}
+		boolean readOnly = event instanceof ReadOnlyEvent;
+		if (!readOnly) {
+			stateVersion++;
+		}
+		// read-only events are checks whose result is used as soon as they return, so they are never queued
+		if (postQueue == null || readOnly) {
+			return executeEventInternal(event, postHandlers.get(event.getClass()));
+		}
+		executeEventInternal(event, postImmediateHandlers.get(event.getClass()));
+		postQueue.add(event);
+		if (!draining) {
+			drainPostQueue();
+		}
+		return event;
+	}
+	
+	/**
+	 * Runs the deferred post-handlers of all queued events, including the events that are fired by those handlers
+	 */
+	private void drainPostQueue() {
+		draining = true;
+		int count = 0;
+		try {
+			IEvent event;
+			while ((event = postQueue.poll()) != null) {
+				if (++count > maxQueuedEvents) {
+					throw new IllegalStateException("More than " + maxQueuedEvents + " queued events, last event was " + event);
+				}
+				executeEventInternal(event, postDeferredHandlers.get(event.getClass()));
+			}
+		}
+		finally {
+			postQueue.clear();
+			draining = false;
+		}
+	}
+	
+	/**
+	 * Queue post-events instead of executing them recursively. Post-handlers that are not immediate are
+	 * run for one event at a time in the order that the events were fired, after the handlers of the
+	 * previous events have finished. Pre-events, {@link ReadOnlyEvent}s and immediate post-handlers are still executed directly.
+	 * 
+	 * @param maxDepth The maximum number of events that may be executing inside each other
+	 * @param maxQueuedEvents The maximum number of post-events that are drained from the queue at once
+	 * @see #registerImmediateHandlerAfter(Object, Class, Consumer)
+	 */
+	public void enableQueue(int maxDepth, int maxQueuedEvents) {
+		if (maxDepth <= 0 || maxQueuedEvents <= 0) {
+			throw new IllegalArgumentException("Limits must be positive: " + maxDepth + ", " + maxQueuedEvents);
+		}
+		if (draining) {
+			throw new IllegalStateException("Cannot change queue mode while draining the queue");
+		}
+		this.maxDepth = maxDepth;
+		this.maxQueuedEvents = maxQueuedEvents;
+		if (this.postQueue == null) {
+			this.postQueue = new ArrayDeque<>();
+		}
+	}
+	
+	/**
+	 * Go back to executing post-events directly
+	 */
+	public void disableQueue() {
+		if (draining) {
+			throw new IllegalStateException("Cannot change queue mode while draining the queue");
+		}
+		this.postQueue = null;
+	}
+	
+	public boolean isQueueEnabled() {
+		return postQueue != null;
+	}
+	
+	/**
+	 * Values that are computed from the state of the game may be cached for as long as this version stays the same.
+	 * The version is changed by every post-event except {@link ReadOnlyEvent}s, and by {@link #stateChanged()}.
+	 * 
+	 * @return The current version of the state of the game
+	 */
+	public long getStateVersion() {
+		return stateVersion;
+	}
+	
+	/**
+	 * Report a change to the state of the game that is made without executing an event
+	 */
+	public void stateChanged() {
+		stateVersion++;
+	}
+	
+	/**
+	 * @return True if an event is being executed, or queued post-events are being handled
+	 */
+	public boolean isExecuting() {
+		return depth > 0 || draining;
+	}
+	
+	/**
+	 * Record the handlers that are registered and removed, so that the changes can be rolled back with the rest of the game
+	 * 
+	 * @param journal Where to record the changes, or null to stop recording
+	 * @see com.cardshifter.modapi.base.ECSGame#mark()
+	 */
+	public void setJournal(GameJournal journal) {
+		this.journal = journal;
+	}
+	
+	private void enter(IEvent event) {
+		if (postQueue != null && depth >= maxDepth) {
+			throw new IllegalStateException("Event depth exceeded " + maxDepth + " when executing " + event);
+		}
+		depth++;
 	}
 
 	@Override
 	public <T extends IEvent> T executePreEvent(T event) {
-		logger.debug("Execute post event " + event);
-		return executeEventInternal(event, eh -> !eh.isAfter());
+		if (logger.isDebugEnabled()) {
+			logger.debug("Execute pre event " + event);
+		}
+		return executeEventInternal(event, preHandlers.get(event.getClass()));
+	}
+
+	private void rebuildHandlers(Class<? extends IEvent> eventClass) {
+		Collection<EventHandler<?>> handlers = bindings.get(eventClass);
+		if (handlers == null || handlers.isEmpty()) {
+			preHandlers.remove(eventClass);
+			postHandlers.remove(eventClass);
+			postImmediateHandlers.remove(eventClass);
+			postDeferredHandlers.remove(eventClass);
+			return;
+		}
+		List<EventHandler<?>> pre = new ArrayList<>();
+		List<EventHandler<?>> post = new ArrayList<>();
+		List<EventHandler<?>> postImmediate = new ArrayList<>();
+		List<EventHandler<?>> postDeferred = new ArrayList<>();
+		for (EventHandler<?> handler : handlers) {
+			if (handler.isAfter()) {
+				post.add(handler);
+				(handler.isImmediate() ? postImmediate : postDeferred).add(handler);
+			}
+			else {
+				pre.add(handler);
+			}
+		}
+		preHandlers.put(eventClass, new DispatchTable(pre.toArray(NO_HANDLERS)));
+		postHandlers.put(eventClass, new DispatchTable(post.toArray(NO_HANDLERS)));
+		postImmediateHandlers.put(eventClass, new DispatchTable(postImmediate.toArray(NO_HANDLERS)));
+		postDeferredHandlers.put(eventClass, new DispatchTable(postDeferred.toArray(NO_HANDLERS)));
 	}
 
 	/**
@@ -63,25 +293,34 @@ public class EventExecutor implements EventExecution {
 	 */
 	@Override
 	public <T extends IEvent> T executeEvent(T event, Runnable runInBetween) {
-		executePreEvent(event);
-		runInBetween.run();
-		executePostEvent(event);
+		enter(event);
+		try {
+			executePreEvent(event);
+			runInBetween.run();
+			executePostEvent(event);
+		}
+		finally {
+			depth--;
+		}
 		return event;
 	}
 	
 	public <T extends IEvent> T executeEvent(T event, Consumer<T> runInBetween) {
-		executePreEvent(event);
-		runInBetween.accept(event);
-		executePostEvent(event);
-		return event;
+		return executeEvent(event, () -> runInBetween.accept(event));
 	}
 	
 	@Override
 	public <T extends CancellableEvent> T executeCancellableEvent(T event, Runnable runInBetween) {
-		executePreEvent(event);
-		if (!event.isCancelled()) {
-			runInBetween.run();
-			executePostEvent(event);
+		enter(event);
+		try {
+			executePreEvent(event);
+			if (!event.isCancelled()) {
+				runInBetween.run();
+				executePostEvent(event);
+			}
+		}
+		finally {
+			depth--;
 		}
 		return event;
 	}
@@ -91,32 +330,224 @@ public class EventExecutor implements EventExecution {
 			this.bindings.put(realParam, createCollection());
 		}
 		Collection<EventHandler<?>> eventHandlersForEvent = this.bindings.get(realParam);
-		eventHandlersForEvent.add(handler);
+		if (!eventHandlersForEvent.add(handler)) {
+			return;
+		}
+		handlerClasses.put(handler, realParam);
+		addToIndex(identifierHandlers, handler.getIdentifier(), handler);
+		if (handler.getKey() instanceof Entity) {
+			addToIndex(entityHandlers, (Entity) handler.getKey(), handler);
+		}
+		rebuildHandlers(realParam);
+		if (journal != null) {
+			journal.record(undoRegister, handler, null, 0);
+		}
+	}
+	
+	/**
+	 * Put back a removed handler at the position it had among the handlers of its event class, when the game is rolled back
+	 */
+	@SuppressWarnings("unchecked")
+	private void rebind(EventHandler<?> handler, Object eventClass, int position) {
+		Class<? extends IEvent> realParam = (Class<? extends IEvent>) eventClass;
+		Collection<EventHandler<?>> handlers = bindings.computeIfAbsent(realParam, key -> createCollection());
+		List<EventHandler<?>> ordered = new ArrayList<>(handlers);
+		ordered.add(Math.min(position, ordered.size()), handler);
+		handlers.clear();
+		handlers.addAll(ordered);
+		handlerClasses.put(handler, realParam);
+		addToIndex(identifierHandlers, handler.getIdentifier(), handler);
+		if (handler.getKey() instanceof Entity) {
+			addToIndex(entityHandlers, (Entity) handler.getKey(), handler);
+		}
+		rebuildHandlers(realParam);
 	}
 
 	protected Collection<EventHandler<?>> createCollection() {
-		return new ArrayList<EventHandler<?>>();
+		return new LinkedHashSet<EventHandler<?>>();
 	}
 
 	public void clearListeners() {
 		this.bindings.clear();
+		this.preHandlers.clear();
+		this.postHandlers.clear();
+		this.postImmediateHandlers.clear();
+		this.postDeferredHandlers.clear();
+		this.handlerClasses.clear();
+		this.identifierHandlers.clear();
+		this.entityHandlers.clear();
 	}
 
-	public void removeHandler(EventHandler<?> listener) {
-		for (Entry<Class<? extends IEvent>, Collection<EventHandler<?>>> ee : bindings.entrySet()) {
-			Iterator<EventHandler<?>> it = ee.getValue().iterator();
-			while (it.hasNext()) {
-				EventHandler<?> curr = it.next();
-				if (curr == listener) {
-					it.remove();
+	/**
+	 * Copy the handlers of another executor to this executor, when forking a game. The handlers are kept in the same order.
+	 * Handlers that have already been registered in this executor take the place of the handlers that they replace,
+	 * or are placed last if they do not replace any handlers. The queue mode and the state version are also copied.
+	 * 
+	 * @param original The executor to copy the handlers from
+	 * @param identifiers Gives for each identifier in the original executor either the same identifier to copy its handlers,
+	 * another identifier whose handlers in this executor replace them, or null to leave them out
+	 * @param keys Gives the key to use in this executor for the key of a copied handler, or null to leave the handler out
+	 */
+	public void copyFrom(EventExecutor original, UnaryOperator<Object> identifiers, UnaryOperator<Object> keys) {
+		if (draining || original.draining) {
+			throw new IllegalStateException("Cannot copy handlers while draining the queue");
+		}
+		Map<Object, Object> copyIdentifiers = new IdentityHashMap<>();
+		Set<EventHandler<?>> placed = Collections.newSetFromMap(new IdentityHashMap<>());
+		Map<Class<? extends IEvent>, Collection<EventHandler<?>>> result = new HashMap<>();
+		for (Entry<Class<? extends IEvent>, Collection<EventHandler<?>>> entry : original.bindings.entrySet()) {
+			Class<? extends IEvent> eventClass = entry.getKey();
+			Collection<EventHandler<?>> handlers = createCollection();
+			for (EventHandler<?> handler : entry.getValue()) {
+				Object identifier = handler.getIdentifier();
+				if (!copyIdentifiers.containsKey(identifier)) {
+					copyIdentifiers.put(identifier, identifiers.apply(identifier));
+				}
+				Object copyIdentifier = copyIdentifiers.get(identifier);
+				if (copyIdentifier == null) {
+					continue;
+				}
+				if (copyIdentifier != identifier) {
+					for (EventHandler<?> replacement : identifierHandlers.getOrDefault(copyIdentifier, Collections.emptyList())) {
+						if (handlerClasses.get(replacement) == eventClass && placed.add(replacement)) {
+							handlers.add(replacement);
+						}
+					}
+					continue;
+				}
+				Object key = handler.getKey();
+				Object copyKey = key == null ? null : keys.apply(key);
+				if (key == null || copyKey == key) {
+					handlers.add(handler);
+				}
+				else if (copyKey != null) {
+					handlers.add(handler.withKey(copyKey));
+				}
+			}
+			result.put(eventClass, handlers);
+		}
+		for (Entry<Class<? extends IEvent>, Collection<EventHandler<?>>> entry : bindings.entrySet()) {
+			Collection<EventHandler<?>> handlers = result.computeIfAbsent(entry.getKey(), key -> createCollection());
+			for (EventHandler<?> handler : entry.getValue()) {
+				if (placed.add(handler)) {
+					handlers.add(handler);
+				}
+			}
+		}
+		
+		clearListeners();
+		for (Entry<Class<? extends IEvent>, Collection<EventHandler<?>>> entry : result.entrySet()) {
+			bindings.put(entry.getKey(), entry.getValue());
+			for (EventHandler<?> handler : entry.getValue()) {
+				handlerClasses.put(handler, entry.getKey());
+				addToIndex(identifierHandlers, handler.getIdentifier(), handler);
+				if (handler.getKey() instanceof Entity) {
+					addToIndex(entityHandlers, (Entity) handler.getKey(), handler);
 				}
 			}
+			rebuildHandlers(entry.getKey());
+		}
+		
+		if (original.postQueue == null) {
+			disableQueue();
 		}
+		else {
+			enableQueue(original.maxDepth, original.maxQueuedEvents);
+		}
+		this.stateVersion = original.stateVersion;
+	}
+
+	public void removeHandler(EventHandler<?> listener) {
+		Class<? extends IEvent> eventClass = unbind(listener);
+		if (eventClass == null) {
+			return;
+		}
+		removeFromIndex(identifierHandlers, listener.getIdentifier(), listener);
+		if (listener.getKey() instanceof Entity) {
+			removeFromIndex(entityHandlers, (Entity) listener.getKey(), listener);
+		}
+		rebuildHandlers(eventClass);
 	}
 	
 	public void removeListenersWithIdentifier(Object identifier) {
-		for (Entry<Class<? extends IEvent>, Collection<EventHandler<?>>> ee : bindings.entrySet()) {
-			ee.getValue().removeIf(eh -> eh.getIdentifier() == identifier);
+		List<EventHandler<?>> handlers = identifierHandlers.remove(identifier);
+		if (handlers == null) {
+			return;
+		}
+		Set<Class<? extends IEvent>> changed = new HashSet<>();
+		for (EventHandler<?> handler : handlers) {
+			Class<? extends IEvent> eventClass = unbind(handler);
+			if (eventClass != null) {
+				changed.add(eventClass);
+				if (handler.getKey() instanceof Entity) {
+					removeFromIndex(entityHandlers, (Entity) handler.getKey(), handler);
+				}
+			}
+		}
+		changed.forEach(this::rebuildHandlers);
+	}
+	
+	/**
+	 * Remove all handlers that were registered for a specific entity
+	 * 
+	 * @param entity The entity that the handlers were registered for
+	 */
+	public void removeEntityHandlers(Entity entity) {
+		List<EventHandler<?>> handlers = entityHandlers.remove(entity);
+		if (handlers == null) {
+			return;
+		}
+		Set<Class<? extends IEvent>> changed = new HashSet<>();
+		for (EventHandler<?> handler : handlers) {
+			Class<? extends IEvent> eventClass = unbind(handler);
+			if (eventClass != null) {
+				changed.add(eventClass);
+				removeFromIndex(identifierHandlers, handler.getIdentifier(), handler);
+			}
+		}
+		changed.forEach(this::rebuildHandlers);
+	}
+	
+	/**
+	 * Removes a handler from the bindings, without rebuilding the dispatch tables
+	 * 
+	 * @param handler The handler to remove
+	 * @return The event class that the handler was bound to, or null if it was not registered
+	 */
+	private Class<? extends IEvent> unbind(EventHandler<?> handler) {
+		Class<? extends IEvent> eventClass = handlerClasses.remove(handler);
+		if (eventClass != null) {
+			Collection<EventHandler<?>> handlers = bindings.get(eventClass);
+			if (journal != null) {
+				journal.record(undoRemove, handler, eventClass, indexOf(handlers, handler));
+			}
+			handlers.remove(handler);
+		}
+		return eventClass;
+	}
+	
+	private static int indexOf(Collection<EventHandler<?>> handlers, EventHandler<?> handler) {
+		int index = 0;
+		for (EventHandler<?> current : handlers) {
+			if (current == handler) {
+				return index;
+			}
+			index++;
+		}
+		return index;
+	}
+	
+	private static <K> void addToIndex(Map<K, List<EventHandler<?>>> index, K key, EventHandler<?> handler) {
+		index.computeIfAbsent(key, k -> new ArrayList<>()).add(handler);
+	}
+	
+	private static <K> void removeFromIndex(Map<K, List<EventHandler<?>>> index, K key, EventHandler<?> handler) {
+		List<EventHandler<?>> list = index.get(key);
+		if (list != null) {
+			list.remove(handler);
+			if (list.isEmpty()) {
+				index.remove(key);
+			}
 		}
 	}
 	
@@ -132,4 +563,82 @@ public class EventExecutor implements EventExecution {
 		return listener;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Register a handler that is called directly after the event even if post-events are queued,
+	 * for handlers that must observe the change before any other event is handled
+	 * 
+	 * @param identifier The identifier used to remove the handler
+	 * @param realParam The class of the event
+	 * @param handler The handler to call after the event
+	 * @return The registered handler
+	 * @see #enableQueue(int, int)
+	 */
+	public <T extends IEvent> EventHandler<T> registerImmediateHandlerAfter(Object identifier, Class<T> realParam, Consumer<T> handler) {
+		EventHandler<T> listener = new EventHandler<T>(identifier, handler, true, null, true);
+		registerHandler(realParam, listener);
+		return listener;
+	}
+
+	/**
+	 * Register a handler that is only called for events with the specified key
+	 * 
+	 * @param identifier The identifier used to remove the handler
+	 * @param realParam The class of the event
+	 * @param key The {@link KeyedEvent#getEventKey()} that events must have to be sent to the handler
+	 * @param handler The handler to call after the event
+	 * @return The registered handler
+	 */
+	public <T extends KeyedEvent> EventHandler<T> registerHandlerAfter(Object identifier, Class<T> realParam, Object key, Consumer<T> handler) {
+		EventHandler<T> listener = new EventHandler<T>(identifier, handler, true, Objects.requireNonNull(key, "key"));
+		registerHandler(realParam, listener);
+		return listener;
+	}
+
+	/**
+	 * Register a handler that is only called for events with the specified key
+	 * 
+	 * @param identifier The identifier used to remove the handler
+	 * @param realParam The class of the event
+	 * @param key The {@link KeyedEvent#getEventKey()} that events must have to be sent to the handler
+	 * @param handler The handler to call before the event
+	 * @return The registered handler
+	 */
+	public <T extends KeyedEvent> EventHandler<T> registerHandlerBefore(Object identifier, Class<T> realParam, Object key, Consumer<T> handler) {
+		EventHandler<T> listener = new EventHandler<T>(identifier, handler, false, Objects.requireNonNull(key, "key"));
+		registerHandler(realParam, listener);
+		return listener;
+	}
+
+	/**
+	 * Register a handler that is only called for events about a specific entity.
+	 * The handler is removed when the entity is removed from the game.
+	 * 
+	 * @param identifier The identifier used to remove the handler
+	 * @param entity The entity that events must be about to be sent to the handler
+	 * @param realParam The class of the event
+	 * @param handler The handler to call after the event
+	 * @return The registered handler
+	 */
+	public <T extends EntityEvent> EventHandler<T> registerEntityHandlerAfter(Object identifier, Entity entity, Class<T> realParam, Consumer<T> handler) {
+		EventHandler<T> listener = new EventHandler<T>(identifier, handler, true, Objects.requireNonNull(entity, "entity"));
+		registerHandler(realParam, listener);
+		return listener;
+	}
+
+	/**
+	 * Register a handler that is only called for events about a specific entity.
+	 * The handler is removed when the entity is removed from the game.
+	 * 
+	 * @param identifier The identifier used to remove the handler
+	 * @param entity The entity that events must be about to be sent to the handler
+	 * @param realParam The class of the event
+	 * @param handler The handler to call before the event
+	 * @return The registered handler
+	 */
+	public <T extends EntityEvent> EventHandler<T> registerEntityHandlerBefore(Object identifier, Entity entity, Class<T> realParam, Consumer<T> handler) {
+		EventHandler<T> listener = new EventHandler<T>(identifier, handler, false, Objects.requireNonNull(entity, "entity"));
+		registerHandler(realParam, listener);
+		return listener;
+	}
+
+}
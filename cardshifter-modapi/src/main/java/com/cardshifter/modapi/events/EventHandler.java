@@ -7,11 +7,38 @@ public class EventHandler<T> {
 	private final Consumer<T> consumer;
 	private final boolean after;
 	private final Object identifier;
+	private final Object key;
+	private final boolean immediate;
 
 	public EventHandler(Object identifier, Consumer<T> handler, boolean after) {
+		this(identifier, handler, after, null);
+	}
+
+	/**
+	 * @param identifier The identifier used to remove this handler
+	 * @param handler The handler to call
+	 * @param after True if this handler should be called after the event, false if it should be called before
+	 * @param key The {@link KeyedEvent#getEventKey()} that events must have to be sent to this handler,
+	 * or null to receive all events
+	 */
+	public EventHandler(Object identifier, Consumer<T> handler, boolean after, Object key) {
+		this(identifier, handler, after, key, false);
+	}
+
+	/**
+	 * @param identifier The identifier used to remove this handler
+	 * @param handler The handler to call
+	 * @param after True if this handler should be called after the event, false if it should be called before
+	 * @param key The {@link KeyedEvent#getEventKey()} that events must have to be sent to this handler,
+	 * or null to receive all events
+	 * @param immediate True if this handler should be called directly after the event even if post-events are queued
+	 */
+	public EventHandler(Object identifier, Consumer<T> handler, boolean after, Object key, boolean immediate) {
 		this.consumer = handler;
 		this.after = after;
 		this.identifier = identifier;
+		this.key = key;
+		this.immediate = immediate;
 	}
 	
 	public boolean isAfter() {
@@ -25,11 +52,27 @@ public class EventHandler<T> {
 
 	@Override
 	public String toString() {
-		return "EventHandler [" + identifier + ", after=" + after + "]";
+		return "EventHandler [" + identifier + ", after=" + after + (key == null ? "" : ", key=" + key) + "]";
 	}
 	
 	public Object getIdentifier() {
 		return identifier;
 	}
 	
+	public Object getKey() {
+		return key;
+	}
+	
+	public boolean isImmediate() {
+		return immediate;
+	}
+	
+	/**
+	 * @param key The key for the new handler
+	 * @return A handler that calls the same handler as this one, but with a different key
+	 */
+	public EventHandler<T> withKey(Object key) {
+		return new EventHandler<T>(identifier, consumer, after, key, immediate);
+	}
+	
 }
@@ -0,0 +1,16 @@
+package com.cardshifter.modapi.events;
+
+/**
+ * An event that can be dispatched only to the handlers registered for its key, in addition to the handlers
+ * registered for all events of its class.
+ *
+ * @see EventExecutor#registerHandlerAfter(Object, Class, Object, java.util.function.Consumer)
+ */
+public interface KeyedEvent extends IEvent {
+
+	/**
+	 * @return The key used to find the handlers interested in this event, such as the name of an action
+	 */
+	Object getEventKey();
+
+}
@@ -0,0 +1,10 @@
+package com.cardshifter.modapi.events;
+
+/**
+ * An event that does not change the state of the game, such as reporting a value that was read
+ * or checking whether something is allowed.
+ * Executing such an event does not change the {@link EventExecutor#getStateVersion() state version}.
+ */
+public interface ReadOnlyEvent extends IEvent {
+
+}
@@ -5,6 +5,8 @@ import com.cardshifter.modapi.actions.Actions;
 import com.cardshifter.modapi.actions.ECSAction;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSSystem;
+import com.cardshifter.modapi.base.GameFork;
+import com.cardshifter.modapi.base.GameJournal;
 import com.cardshifter.modapi.base.Retrievers;
 
 /**
@@ -13,6 +15,8 @@ import com.cardshifter.modapi.base.Retrievers;
  */
 public class LimitedActionsPerTurnSystem implements ECSSystem {
 
+	private static final GameJournal.Undo<LimitedActionsPerTurnSystem> UNDO_COUNT = (system, unused, count) -> system.cardsPlayedThisTurn = (int) count;
+
 	private int cardsPlayedThisTurn;
 	private final int limit;
 	private final String actionName;
@@ -28,27 +32,43 @@ public class LimitedActionsPerTurnSystem implements ECSSystem {
 		game.getEvents().registerHandlerAfter(this, ActionPerformEvent.class, this::onCardPlayed);
 	}
 	
+	@Override
+	public ECSSystem fork(GameFork fork) {
+		LimitedActionsPerTurnSystem copy = new LimitedActionsPerTurnSystem(limit, actionName);
+		copy.cardsPlayedThisTurn = cardsPlayedThisTurn;
+		return fork.start(copy);
+	}
+	
 	private void onNewTurn(PhaseStartEvent event) {
 		// TODO: This is technically not turn-dependent, only phase-dependent. One *turn* can consist of many *phases*
-		this.cardsPlayedThisTurn = 0;
+		setCardsPlayed(event.getGame(), 0);
 	}
 	
 	private void onCardPlayed(ActionPerformEvent event) {
 		if (event.getAction().getName().equals(actionName)) {
 			return;
 		}
-		this.cardsPlayedThisTurn++;
+		ECSGame game = event.getEntity().getGame();
+		setCardsPlayed(game, cardsPlayedThisTurn + 1);
 		if (this.cardsPlayedThisTurn >= limit) {
 			if (actionName == null) {
-				PhaseController phases = Retrievers.singleton(event.getEntity().getGame(), PhaseController.class);
+				PhaseController phases = Retrievers.singleton(game, PhaseController.class);
 				phases.nextPhase();
 			}
 			else {
 				ECSAction action = Actions.getAction(event.getPerformer(), actionName);
 				action.perform(event.getPerformer());
 			}
-			cardsPlayedThisTurn = 0;
+			setCardsPlayed(game, 0);
+		}
+	}
+
+	private void setCardsPlayed(ECSGame game, int count) {
+		GameJournal journal = game.getJournal();
+		if (journal != null && count != cardsPlayedThisTurn) {
+			journal.record(UNDO_COUNT, this, null, cardsPlayedThisTurn);
 		}
+		cardsPlayedThisTurn = count;
 	}
 
 }
@@ -3,6 +3,7 @@ package com.cardshifter.modapi.phase;
 import com.cardshifter.modapi.actions.ActionAllowedCheckEvent;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSSystem;
+import com.cardshifter.modapi.base.GameFork;
 import com.cardshifter.modapi.base.RetrieverSingleton;
 
 public class PerformerMustBeCurrentPlayer implements ECSSystem {
@@ -15,6 +16,11 @@ public class PerformerMustBeCurrentPlayer implements ECSSystem {
 		game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent.class, this::actionPerformerIsCurrentPlayer);
 	}
 	
+	@Override
+	public ECSSystem fork(GameFork fork) {
+		return fork.start(new PerformerMustBeCurrentPlayer());
+	}
+	
 	private void actionPerformerIsCurrentPlayer(ActionAllowedCheckEvent event) {
 		if (phases.getCurrentEntity() == null) {
 			// If current player is null, avoid preventing *all* actions
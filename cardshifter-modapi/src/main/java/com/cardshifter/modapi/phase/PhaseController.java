@@ -1,13 +1,24 @@
 package com.cardshifter.modapi.phase;
 
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.ListIterator;
+import java.util.Objects;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.ForkableComponent;
+import com.cardshifter.modapi.base.GameFork;
+import com.cardshifter.modapi.base.GameJournal;
+import com.cardshifter.modapi.base.HashedComponent;
+import com.cardshifter.modapi.base.StateHash;
 
-public class PhaseController extends Component {
+public class PhaseController extends Component implements ForkableComponent, HashedComponent {
+	
+	private static final long PHASE_KEY = StateHash.kind("phase");
+	private static final GameJournal.Undo<PhaseController> UNDO_PHASES = (controller, phases, counters) -> controller.restore((Phase[]) phases, counters);
 	
 	private final LinkedList<Phase> upcomingPhases = new LinkedList<>();
 	private final LinkedList<Phase> permanentPhases = new LinkedList<>();
@@ -18,16 +29,21 @@ public class PhaseController extends Component {
 	}
 
 	public PhaseController addPhase(Phase phase) {
+		long oldHash = stateHash();
 		permanentPhases.add(phase);
 		upcomingPhases.add(phase);
+		phasesChanged(oldHash);
 		return this;
 	}
 	
 	public void insertTemporaryPhaseNext(Phase phase) {
+		long oldHash = recordPhases();
 		upcomingPhases.add(1, phase);
+		phasesChanged(oldHash);
 	}
 	
 	public boolean insertTemporaryPhaseBefore(Phase phase, Predicate<Phase> beforePhase) {
+		long oldHash = recordPhases();
 		ListIterator<Phase> it = navigateToRecreate(beforePhase);
 		if (it != null) {
 			if (it.previousIndex() >= 0) {
@@ -35,6 +51,7 @@ public class PhaseController extends Component {
 			}
 			it.add(phase);
 		}
+		phasesChanged(oldHash);
 		return it != null;
 	}
 	
@@ -63,10 +80,12 @@ public class PhaseController extends Component {
 	}
 
 	public boolean insertTemporaryPhaseAfter(Phase phase, Predicate<Phase> afterPhase) {
+		long oldHash = recordPhases();
 		ListIterator<Phase> it = navigateToRecreate(afterPhase);
 		if (it != null) {
 			it.add(phase);
 		}
+		phasesChanged(oldHash);
 		return it != null;
 	}
 	
@@ -84,12 +103,14 @@ public class PhaseController extends Component {
 	public Phase nextPhase() {
 		Phase oldPhase = getCurrentPhase();
 		executeEvent(new PhaseEndEvent(this, getEntity().getGame(), oldPhase));
+		long oldHash = recordPhases();
 		phaseNumber++;
 		upcomingPhases.removeFirst();
 		Phase currentPhase = getCurrentPhase();
 		if (currentPhase == permanentPhases.peekFirst()) {
 			recreateCount++;
 		}
+		phasesChanged(oldHash);
 		executeEvent(new PhaseStartEvent(this, getEntity().getGame(), oldPhase, currentPhase));
 		
 		return currentPhase;
@@ -116,7 +137,64 @@ public class PhaseController extends Component {
 	}
 
 	public void insertTemporaryPhaseBeforeCurrent(Phase phase) {
+		long oldHash = recordPhases();
 		this.upcomingPhases.addFirst(phase);
+		phasesChanged(oldHash);
+	}
+	
+	/**
+	 * Record the upcoming phases and the counters before they are changed, if the changes of the game are recorded
+	 * 
+	 * @return The state hash before the change
+	 */
+	private long recordPhases() {
+		GameJournal journal = getEntity() == null ? null : getEntity().getGame().getJournal();
+		if (journal != null) {
+			journal.record(UNDO_PHASES, this, upcomingPhases.toArray(new Phase[upcomingPhases.size()]), (long) phaseNumber << 32 | (recreateCount & 0xFFFFFFFFL));
+		}
+		return stateHash();
+	}
+	
+	private void phasesChanged(long oldHash) {
+		if (getEntity() != null) {
+			getEntity().getGame().changeStateHash(this, oldHash, stateHash());
+		}
+	}
+	
+	/**
+	 * The current phase and its owner are part of the state hash, but not the number of phases that have passed
+	 */
+	@Override
+	public long stateHash() {
+		Phase current = upcomingPhases.isEmpty() ? permanentPhases.peekFirst() : upcomingPhases.getFirst();
+		if (current == null) {
+			return 0;
+		}
+		Entity owner = current.getOwner();
+		return StateHash.key(PHASE_KEY, owner == null ? -1 : owner.getId(), Objects.hashCode(current.getName()), 0);
+	}
+	
+	private void restore(Phase[] phases, long counters) {
+		upcomingPhases.clear();
+		Collections.addAll(upcomingPhases, phases);
+		phaseNumber = (int) (counters >>> 32);
+		recreateCount = (int) counters;
+	}
+
+	@Override
+	public Component fork(Entity copyTo, GameFork fork) {
+		// the same phase objects are in both lists and are compared by identity
+		UnaryOperator<Phase> copier = phase -> new Phase(fork.entity(phase.getOwner()), phase.getName());
+		PhaseController copy = new PhaseController();
+		for (Phase phase : permanentPhases) {
+			copy.permanentPhases.add(fork.copy(phase, copier));
+		}
+		for (Phase phase : upcomingPhases) {
+			copy.upcomingPhases.add(fork.copy(phase, copier));
+		}
+		copy.phaseNumber = phaseNumber;
+		copy.recreateCount = recreateCount;
+		return copy;
 	}
 	
 }
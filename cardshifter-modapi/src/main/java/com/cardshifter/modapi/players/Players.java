@@ -20,7 +20,7 @@ public class Players {
 	}
 
     public static Entity getNextPlayer(Entity entity) {
-        List<Entity> players = new ArrayList<>(entity.getGame().getEntitiesWithComponent(PlayerComponent.class));
+        List<Entity> players = new ArrayList<>(entity.getGame().entitiesWithComponentView(PlayerComponent.class));
         players.sort(Comparator.comparingInt(pl -> player.get(pl).getIndex()));
         int myIndex = player.get(findOwnerFor(entity)).getIndex();
         Optional<Entity> result = players.stream().filter(pl -> player.get(pl).getIndex() == myIndex + 1).findFirst();
@@ -28,7 +28,7 @@ public class Players {
     }
 
     public static List<Entity> getPlayersInGame(ECSGame game) {
-        List<Entity> players = game.findEntities(e -> e.hasComponent(PlayerComponent.class));
+        List<Entity> players = new ArrayList<>(game.query().all(PlayerComponent.class).build().getEntities());
         players.sort(Comparator.comparingInt(pl -> pl.getComponent(PlayerComponent.class).getIndex()));
         return players;
     }
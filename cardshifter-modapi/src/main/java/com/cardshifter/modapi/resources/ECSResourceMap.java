@@ -1,34 +1,259 @@
 package com.cardshifter.modapi.resources;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
 import com.cardshifter.modapi.base.Component;
+import com.cardshifter.modapi.base.ComponentRetriever;
 import com.cardshifter.modapi.base.CopyableComponent;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.ForkableComponent;
+import com.cardshifter.modapi.base.GameFork;
+import com.cardshifter.modapi.base.GameJournal;
+import com.cardshifter.modapi.base.HashedComponent;
+import com.cardshifter.modapi.base.StateHash;
+import com.cardshifter.modapi.events.EventExecutor;
 
-public class ECSResourceMap extends Component implements CopyableComponent {
+/**
+ * The resources of an entity. Values are stored in arrays indexed by the {@link ResourceRegistry} ordinal of each resource,
+ * {@link ECSResourceData} objects are only views of a single resource in this map.
+ * <p>
+ * Copies share their arrays with the map they were copied from until one of them needs to change them,
+ * so that many copies of the same card are cheap as long as they are not used. Forks of the game get their own arrays
+ * and leave the map they were forked from untouched, as the forked game may be used on another thread.
+ */
+public class ECSResourceMap extends Component implements CopyableComponent, ForkableComponent, HashedComponent {
 
-	private final Map<ECSResource, ECSResourceData> map = new HashMap<>();
+	private static final Logger logger = LogManager.getLogger(ECSResourceMap.class);
+	
+	private static final int[] NO_VALUES = new int[0];
+	private static final long[] NO_VERSIONS = new long[0];
+	private static final ECSResourceStrategy[] NO_STRATEGIES = new ECSResourceStrategy[0];
+	private static final long RESOURCE_KEY = StateHash.kind("resource");
+	
+	private static final GameJournal.Undo<ECSResourceMap> UNDO_VALUE = (map, unused, value) -> {
+		map.unshare();
+		map.values[ordinalOf(value)] = (int) value;
+	};
+	private static final GameJournal.Undo<ECSResourceMap> UNDO_VIEW = (map, unused, value) -> {
+		map.previousGets[ordinalOf(value)] = (int) value;
+	};
+	private static final GameJournal.Undo<ECSResourceMap> UNDO_STRATEGY = (map, strategy, value) -> {
+		map.unshare();
+		map.strategies[ordinalOf(value)] = (ECSResourceStrategy) strategy;
+		map.versions[ordinalOf(value)] = 0;
+	};
+	private static final GameJournal.Undo<ECSResourceMap> UNDO_ENSURE = (map, strategy, value) -> {
+		UNDO_STRATEGY.undo(map, strategy, value);
+		map.present.clear(ordinalOf(value));
+	};
+	
+	private BitSet present = new BitSet();
+	private int[] values = NO_VALUES;
+	private ECSResourceStrategy[] strategies = NO_STRATEGIES;
+	/**
+	 * True if values, strategies and the present set are shared with other maps. Shared arrays are never modified,
+	 * a map that needs to change them makes its own copy first. Reading a shared map does not copy anything.
+	 */
+	private boolean shared;
+	/**
+	 * The last value of each resource including modifiers. Always owned by this map, as it belongs to this entity.
+	 */
+	private int[] previousGets = NO_VALUES;
+	/**
+	 * The {@link EventExecutor#getStateVersion() state version} that each value in previousGets was computed in,
+	 * or 0 if it has to be computed again. Always owned by this map.
+	 */
+	private long[] versions = NO_VERSIONS;
 
 	private ECSResourceMap() {
 	}
 
 	public ECSResourceMap set(ECSResource res, int value) {
-		ECSResourceData data = getResource(res);
-		data.set(value);
+		setValue(ensure(ordinal(res)), value);
 		return this;
 	}
 
     public Optional<ECSResourceData> get(ECSResource res) {
-        return Optional.ofNullable(map.get(res));
+        int ordinal = ordinal(res);
+        return present.get(ordinal) ? Optional.of(new ECSResourceData(this, ordinal)) : Optional.empty();
     }
 
     public ECSResourceData getResource(ECSResource res) {
-		map.computeIfAbsent(res, r -> new ECSResourceData(getEntity(), r));
-		return map.get(res);
+		return new ECSResourceData(this, ensure(ordinal(res)));
+	}
+	
+	/**
+	 * @param res The resource to check for
+	 * @return True if this map contains the resource
+	 */
+	public boolean has(ECSResource res) {
+		return present.get(ordinal(res));
+	}
+	
+	/**
+	 * @param res The resource to get the value of
+	 * @param defaultValue The value to return if this map does not contain the resource
+	 * @return The current value of the resource, including modifiers
+	 */
+	public int getOrDefault(ECSResource res, int defaultValue) {
+		return getOrDefault(ordinal(res), defaultValue);
+	}
+	
+	int getOrDefault(int ordinal, int defaultValue) {
+		return present.get(ordinal) ? getValue(ordinal) : defaultValue;
+	}
+	
+	private static ResourceRegistry registry() {
+		return ResourceRegistry.global();
+	}
+	
+	private int ordinal(ECSResource res) {
+		return registry().ordinal(Objects.requireNonNull(res, "Resource cannot be null."));
+	}
+	
+	/**
+	 * Makes sure that this map contains the resource with the specified ordinal
+	 * 
+	 * @param ordinal The ordinal of the resource
+	 * @return The ordinal
+	 */
+	int ensure(int ordinal) {
+		if (present.get(ordinal)) {
+			return ordinal;
+		}
+		unshare();
+		if (ordinal >= values.length) {
+			int length = Math.max(ordinal + 1, registry().size());
+			values = Arrays.copyOf(values, length);
+			previousGets = Arrays.copyOf(previousGets, length);
+			versions = Arrays.copyOf(versions, length);
+			strategies = Arrays.copyOf(strategies, length);
+		}
+		// a new resource has the value 0, which is not part of the state hash
+		record(UNDO_ENSURE, strategies[ordinal], ordinal, 0);
+		strategies[ordinal] = ComponentRetriever.singletonOptional(getEntity().getGame(), ResourceModifierComponent.class);
+		present.set(ordinal);
+		return ordinal;
+	}
+	
+	int getValue(int ordinal) {
+		ECSResourceStrategy strategy = strategies[ordinal];
+		if (strategy == null) {
+			return updateView(ordinal, values[ordinal]);
+		}
+		EventExecutor events = getEntity().getGame().getEvents();
+		long version = events.getStateVersion();
+		if (versions[ordinal] == version) {
+			return previousGets[ordinal];
+		}
+		int result = updateView(ordinal, strategy.getResource(getEntity(), registry().getResource(ordinal), values[ordinal]));
+		versions[ordinal] = version;
+		return result;
+	}
+	
+	private int updateView(int ordinal, int result) {
+		if (previousGets[ordinal] != result) {
+			// Execute an event for UIs to update their values, or for other entities to react
+			getEntity().getGame().getEvents().executePostEvent(new ResourceViewUpdate(getEntity(), registry().getResource(ordinal), result));
+			record(UNDO_VIEW, null, ordinal, previousGets[ordinal]);
+			previousGets[ordinal] = result;
+		}
+		return result;
+	}
+	
+	/**
+	 * Makes sure that the arrays of this map are not shared with any other map, so that they can be modified.
+	 * Only called before changing values, strategies or the present set.
+	 */
+	private void unshare() {
+		if (!shared) {
+			return;
+		}
+		present = (BitSet) present.clone();
+		values = values.clone();
+		strategies = strategies.clone();
+		shared = false;
+	}
+	
+	int getCurrent(int ordinal) {
+		return values[ordinal];
+	}
+	
+	void setValue(int ordinal, int value) {
+		// Execute change event (for taking damage, gaining life, etc...).
+		int current = values[ordinal];
+		if (current != value) {
+			Entity entity = getEntity();
+			ECSResource resource = registry().getResource(ordinal);
+			entity.getGame().executeEvent(new ResourceValueChange(entity, resource, getValue(ordinal), current, value),
+					() -> {
+						unshare();
+						record(UNDO_VALUE, null, ordinal, values[ordinal]);
+						entity.getGame().changeStateHash(this, key(ordinal, values[ordinal]), key(ordinal, value));
+						values[ordinal] = value;
+						logger.debug("Modified " + resource + " for " + entity + " to " + value);
+					});
+            getValue(ordinal); // do a ResourceViewUpdate check
+		}
+	}
+	
+	void setStrategy(int ordinal, ECSResourceStrategy strategy) {
+		unshare();
+		record(UNDO_STRATEGY, strategies[ordinal], ordinal, 0);
+		strategies[ordinal] = strategy;
+		versions[ordinal] = 0;
+	}
+	
+	/**
+	 * Record a change of this map if the changes of the game are recorded
+	 * 
+	 * @param undo Reverts the change
+	 * @param previous The previous strategy, if the strategy is changed
+	 * @param ordinal The ordinal of the changed resource
+	 * @param value The previous value, if a value is changed
+	 */
+	private void record(GameJournal.Undo<ECSResourceMap> undo, Object previous, int ordinal, int value) {
+		GameJournal journal = getEntity() == null ? null : getEntity().getGame().getJournal();
+		if (journal != null) {
+			journal.record(undo, this, previous, (long) ordinal << 32 | (value & 0xFFFFFFFFL));
+		}
+	}
+	
+	/**
+	 * The state hash of the value of a resource, see {@link com.cardshifter.modapi.base.ECSGame#stateHash()}.
+	 * Values without modifiers are used, the modifiers are part of the state of other entities.
+	 * Resources are identified by name, as ordinals depend on the order that resources are first used in,
+	 * and a value of 0 is the same state as not having the resource at all.
+	 */
+	private long key(int ordinal, int value) {
+		if (value == 0) {
+			return 0;
+		}
+		return StateHash.key(RESOURCE_KEY, getEntity().getId(), registry().getStateKind(ordinal), value);
+	}
+	
+	@Override
+	public long stateHash() {
+		long hash = 0;
+		for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+			hash ^= key(i, values[i]);
+		}
+		return hash;
+	}
+	
+	private static int ordinalOf(long value) {
+		return (int) (value >>> 32);
+	}
+	
+	ECSResource getResource(int ordinal) {
+		return registry().getResource(ordinal);
 	}
 
 	public static ECSResourceMap createFor(Entity entity) {
@@ -48,21 +273,58 @@ public class ECSResourceMap extends Component implements CopyableComponent {
 
 	@Override
 	public String toString() {
-		return map.toString();
+		StringBuilder str = new StringBuilder("{");
+		for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+			if (str.length() > 1) {
+				str.append(", ");
+			}
+			str.append(registry().getResource(i)).append('=').append(values[i]);
+		}
+		return str.append('}').toString();
 	}
 
 	public Stream<ECSResourceData> getResources() {
-		return map.values().stream();
+		return present.stream().mapToObj(ordinal -> new ECSResourceData(this, ordinal));
 	}
 
 	@Override
 	public Component copy(Entity copyTo) {
 		ECSResourceMap copy = new ECSResourceMap();
-		for (ECSResourceData data : map.values()) {
-			ECSResourceData copyData = data.copy(copyTo);
-			copy.map.put(data.getResource(), copyData);
+		copy.present = this.present;
+		copy.values = this.values;
+		copy.strategies = this.strategies;
+		copy.previousGets = this.previousGets.clone();
+		// cached values were computed for this entity
+		copy.versions = new long[versions.length];
+		copy.shared = true;
+		// this map keeps its cache and only copies its arrays if it is changed later, so that the copy is not affected
+		this.shared = true;
+		return copy;
+	}
+
+	@Override
+	public Component fork(Entity copyTo, GameFork fork) {
+		// the fork gets its own arrays, so that neither game has to know about the other
+		ECSResourceMap copy = new ECSResourceMap();
+		copy.present = (BitSet) present.clone();
+		copy.values = values.clone();
+		copy.previousGets = previousGets.clone();
+		copy.versions = new long[versions.length];
+		copy.strategies = new ECSResourceStrategy[strategies.length];
+		for (int i = 0; i < strategies.length; i++) {
+			copy.strategies[i] = forkStrategy(strategies[i], fork);
 		}
 		return copy;
 	}
+
+	private static ECSResourceStrategy forkStrategy(ECSResourceStrategy strategy, GameFork fork) {
+		if (strategy instanceof Component) {
+			return (ECSResourceStrategy) fork.component((Component) strategy);
+		}
+		if (strategy instanceof EntityModifier) {
+			return ((EntityModifier) strategy).fork(fork);
+		}
+		return strategy;
+	}
 	
 }
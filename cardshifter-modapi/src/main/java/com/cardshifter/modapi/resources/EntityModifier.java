@@ -1,9 +1,12 @@
 package com.cardshifter.modapi.resources;
 
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
 import net.zomis.cardshifter.ecs.effects.TargetFilter;
 
-import java.util.function.BiPredicate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.function.Predicate;
 
 public class EntityModifier implements ECSResourceStrategy {
@@ -13,14 +16,29 @@ public class EntityModifier implements ECSResourceStrategy {
     private final Predicate<Entity> active;
     private final TargetFilter appliesTo;
     private final ECSResourceBiStrategy amount;
+    private final Set<ModifierDependency> dependencies;
 
+    /**
+     * Creates a modifier with unknown dependencies, which has to be recounted after every action
+     */
     public EntityModifier(Entity entity, int priority, Predicate<Entity> active,
         TargetFilter appliesTo, ECSResourceBiStrategy amount) {
+        this(entity, priority, active, appliesTo, amount, null);
+    }
+
+    /**
+     * @param dependencies The changes that may affect whether this modifier is active and what it applies to,
+     * or null if they are unknown
+     */
+    public EntityModifier(Entity entity, int priority, Predicate<Entity> active,
+        TargetFilter appliesTo, ECSResourceBiStrategy amount, Set<ModifierDependency> dependencies) {
         this.source = entity;
         this.priority = priority;
         this.active = active;
         this.appliesTo = appliesTo;
         this.amount = amount;
+        this.dependencies = dependencies == null ? null : Collections.unmodifiableSet(
+            dependencies.isEmpty() ? EnumSet.noneOf(ModifierDependency.class) : EnumSet.copyOf(dependencies));
     }
 
     public int getPriority() {
@@ -39,4 +57,27 @@ public class EntityModifier implements ECSResourceStrategy {
     public boolean isActive() {
         return active.test(source);
     }
+
+    public Entity getSource() {
+        return source;
+    }
+
+    /**
+     * @return The changes that this modifier depends on, or null if they are unknown
+     */
+    public Set<ModifierDependency> getDependencies() {
+        return dependencies;
+    }
+
+    public boolean dependsOn(ModifierDependency dependency) {
+        return dependencies == null || dependencies.contains(dependency);
+    }
+
+    /**
+     * @param fork The fork of the game that the modifier is used in
+     * @return The same modifier for the source entity in the fork
+     */
+    public EntityModifier fork(GameFork fork) {
+        return fork.copy(this, modifier -> new EntityModifier(fork.entity(source), priority, active, appliesTo, amount, dependencies));
+    }
 }
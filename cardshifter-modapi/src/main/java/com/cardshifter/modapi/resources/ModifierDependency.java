@@ -0,0 +1,23 @@
+package com.cardshifter.modapi.resources;
+
+/**
+ * The kinds of changes in the game that may change whether or how an {@link EntityModifier} applies to an entity
+ */
+public enum ModifierDependency {
+
+	/**
+	 * Whether or not the source entity of the modifier is still in the game
+	 */
+	PRESENCE,
+
+	/**
+	 * Which zone the target entity, or the source entity, is in. This includes the owner of a card.
+	 */
+	ZONE,
+
+	/**
+	 * The current phase and which player is the current player
+	 */
+	PHASE;
+
+}
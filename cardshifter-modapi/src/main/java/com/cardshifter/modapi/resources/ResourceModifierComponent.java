@@ -2,25 +2,75 @@ package com.cardshifter.modapi.resources;
 
 import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.ForkableComponent;
+import com.cardshifter.modapi.base.GameFork;
 
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
-public class ResourceModifierComponent extends Component implements ECSResourceStrategy {
+public class ResourceModifierComponent extends Component implements ECSResourceStrategy, ForkableComponent {
 
     private final Map<ECSResource, List<EntityModifier>> strategies = new HashMap<>();
 
+    /**
+     * Resources that have had modifiers added since the last call to {@link #takeChangedResources()}
+     */
+    private final Set<ECSResource> changedResources = new HashSet<>();
+
     public void addModifier(ECSResource resource, EntityModifier modifier) {
         this.strategies.putIfAbsent(resource, new LinkedList<>());
         List<EntityModifier> list = this.strategies.get(resource);
         list.add(modifier);
         list.sort(Comparator.comparingInt(em -> em.getPriority()));
+        changedResources.add(resource);
+        if (getEntity() != null) {
+            getEntity().getGame().getEvents().stateChanged();
+        }
     }
 
     public Stream<ECSResource> getModifiedResources() {
         return strategies.keySet().stream();
     }
 
+    /**
+     * @return The resources that have had modifiers added since the last call to this method
+     */
+    public Set<ECSResource> takeChangedResources() {
+        Set<ECSResource> result = new HashSet<>(changedResources);
+        changedResources.clear();
+        return result;
+    }
+
+    /**
+     * @param dependency The kind of change
+     * @return The resources that have at least one modifier depending on the specified kind of change
+     */
+    public Stream<ECSResource> getResourcesDependingOn(ModifierDependency dependency) {
+        return resourcesMatching(modifier -> modifier.dependsOn(dependency));
+    }
+
+    /**
+     * @return The resources that have at least one modifier with unknown dependencies
+     */
+    public Stream<ECSResource> getResourcesWithUnknownDependencies() {
+        return resourcesMatching(modifier -> modifier.getDependencies() == null);
+    }
+
+    /**
+     * @param source The entity that created the modifiers
+     * @return The resources that are modified by modifiers created by the source entity
+     */
+    public Stream<ECSResource> getResourcesModifiedBy(Entity source) {
+        return resourcesMatching(modifier -> modifier.getSource() == source);
+    }
+
+    private Stream<ECSResource> resourcesMatching(Predicate<EntityModifier> predicate) {
+        return strategies.entrySet().stream()
+            .filter(ee -> ee.getValue().stream().anyMatch(predicate))
+            .map(Map.Entry::getKey);
+    }
+
     @Override
     public int getResource(Entity entity, ECSResource resource, int actualValue) {
         Iterable<EntityModifier> modifiers = strategies.get(resource);
@@ -37,6 +87,20 @@ public class ResourceModifierComponent extends Component implements ECSResourceS
         return value;
     }
 
+    @Override
+    public Component fork(Entity copyTo, GameFork fork) {
+        ResourceModifierComponent copy = new ResourceModifierComponent();
+        for (Map.Entry<ECSResource, List<EntityModifier>> entry : strategies.entrySet()) {
+            List<EntityModifier> modifiers = new LinkedList<>();
+            for (EntityModifier modifier : entry.getValue()) {
+                modifiers.add(modifier.fork(fork));
+            }
+            copy.strategies.put(entry.getKey(), modifiers);
+        }
+        copy.changedResources.addAll(changedResources);
+        return copy;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + ": " + strategies;
@@ -5,36 +5,146 @@ import com.cardshifter.modapi.base.ComponentRetriever;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
+import com.cardshifter.modapi.cards.ZoneChangeEvent;
+import com.cardshifter.modapi.events.EntityRemoveEvent;
+import com.cardshifter.modapi.phase.PhaseStartEvent;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
 
 /**
  * A System to recount resources if required after an action has been performed.
+ * Only the resources that may have been affected by changes since the last action are recounted,
+ * using the {@link ModifierDependency dependencies} of the modifiers.
  */
 public class ResourceRecountSystem implements ECSSystem {
 
-    private ComponentRetriever<ResourceModifierComponent> modifier =
-        ComponentRetriever.singleton(ResourceModifierComponent.class);
+    private static final Logger logger = LogManager.getLogger(ResourceRecountSystem.class);
+
+    /**
+     * Resources that need to be recounted for all entities
+     */
+    private final Set<ECSResource> dirtyResources = new HashSet<>();
+
+    /**
+     * Resources that need to be recounted for specific entities
+     */
+    private final Map<Entity, Set<ECSResource>> dirtyEntities = new HashMap<>();
 
     @Override
     public void startGame(ECSGame game) {
+        game.getEvents().registerHandlerAfter(this, ZoneChangeEvent.class, this::zoneChange);
+        game.getEvents().registerHandlerAfter(this, EntityRemoveEvent.class, this::entityRemoved);
+        game.getEvents().registerHandlerAfter(this, PhaseStartEvent.class, this::phaseStart);
         game.getEvents().registerHandlerAfter(this, ActionPerformEvent.class, this::recount);
     }
 
+    @Override
+    public ECSSystem fork(GameFork fork) {
+        ResourceRecountSystem copy = new ResourceRecountSystem();
+        copy.dirtyResources.addAll(dirtyResources);
+        dirtyEntities.forEach((entity, resources) -> copy.dirtyEntities.put(fork.entity(entity), new HashSet<>(resources)));
+        return fork.start(copy);
+    }
+
+    /**
+     * The resources that were dirty at the mark are not known, so all modified resources are recounted after the next action
+     */
+    @Override
+    public void rolledBack(ECSGame game) {
+        dirtyEntities.clear();
+        ResourceModifierComponent mod = modifiers(game);
+        if (mod != null) {
+            mod.getModifiedResources().forEach(dirtyResources::add);
+        }
+    }
+
+    private ResourceModifierComponent modifiers(ECSGame game) {
+        return ComponentRetriever.singletonOptional(game, ResourceModifierComponent.class);
+    }
+
+    private void zoneChange(ZoneChangeEvent event) {
+        ResourceModifierComponent mod = modifiers(event.getCard().getGame());
+        if (mod == null) {
+            return;
+        }
+        Set<ECSResource> resources = mod.getResourcesDependingOn(ModifierDependency.ZONE).collect(Collectors.toSet());
+        if (!resources.isEmpty()) {
+            dirtyEntities.computeIfAbsent(event.getCard(), e -> new HashSet<>()).addAll(resources);
+        }
+        mod.getResourcesModifiedBy(event.getCard()).forEach(dirtyResources::add);
+    }
+
+    private void entityRemoved(EntityRemoveEvent event) {
+        dirtyEntities.remove(event.getEntity());
+        ResourceModifierComponent mod = modifiers(event.getEntity().getGame());
+        if (mod != null) {
+            mod.getResourcesModifiedBy(event.getEntity()).forEach(dirtyResources::add);
+        }
+    }
+
+    private void phaseStart(PhaseStartEvent event) {
+        ResourceModifierComponent mod = modifiers(event.getGame());
+        if (mod != null) {
+            mod.getResourcesDependingOn(ModifierDependency.PHASE).forEach(dirtyResources::add);
+        }
+    }
+
     private void recount(ActionPerformEvent event) {
-        ResourceModifierComponent mod = modifier.get(event.getEntity());
-        int count = mod.getModifiedResourcesCount();
-        if (count == 0) {
+        ResourceModifierComponent mod = modifiers(event.getEntity().getGame());
+        if (mod == null || mod.getModifiedResourcesCount() == 0) {
+            dirtyResources.clear();
+            dirtyEntities.clear();
             return;
         }
 
-        Set<Entity> entities = event.getEntity().getGame()
-            .getEntitiesWithComponent(ECSResourceMap.class);
-        entities.stream()
-            .map(e -> e.getComponent(ECSResourceMap.class))
-            .forEach(e -> mod.getModifiedResources()
-                .forEach(res -> e.get(res).ifPresent(resData -> resData.get())));
-        System.out.println("Recounted " + count + " resources for " + entities.size() + " entities.");
+        Set<ECSResource> resources = new HashSet<>(dirtyResources);
+        resources.addAll(mod.takeChangedResources());
+        mod.getResourcesWithUnknownDependencies().forEach(resources::add);
+        Map<Entity, Set<ECSResource>> entities = new HashMap<>(dirtyEntities);
+        dirtyResources.clear();
+        dirtyEntities.clear();
+
+        int count = 0;
+        if (!resources.isEmpty()) {
+            List<Entity> all = new ArrayList<>(event.getEntity().getGame().entitiesWithComponentView(ECSResourceMap.class));
+            for (Entity entity : all) {
+                count += recount(entity, resources);
+            }
+        }
+        for (Map.Entry<Entity, Set<ECSResource>> ee : entities.entrySet()) {
+            if (!ee.getKey().isRemoved()) {
+                ee.getValue().removeAll(resources);
+                count += recount(ee.getKey(), ee.getValue());
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Recounted " + count + " resources");
+        }
+    }
+
+    private int recount(Entity entity, Set<ECSResource> resources) {
+        ECSResourceMap map = entity.getComponent(ECSResourceMap.class);
+        if (map == null) {
+            return 0;
+        }
+        int count = 0;
+        for (ECSResource resource : resources) {
+            if (map.has(resource)) {
+                map.getOrDefault(resource, 0);
+                count++;
+            }
+        }
+        return count;
     }
 
 }
@@ -0,0 +1,80 @@
+package com.cardshifter.modapi.resources;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.cardshifter.modapi.base.StateHash;
+
+/**
+ * Assigns each resource a small ordinal, so that resource maps can store their values in arrays.
+ * Ordinals are assigned the first time a resource is used and are shared by all games, including forks,
+ * so that a resource has the same ordinal no matter which game it is retrieved in.
+ */
+public final class ResourceRegistry {
+
+	private static final ResourceRegistry GLOBAL = new ResourceRegistry();
+
+	private final Map<ECSResource, Integer> ordinals = new ConcurrentHashMap<>();
+	private volatile ECSResource[] resources = new ECSResource[0];
+	private volatile long[] stateKinds = new long[0];
+
+	private ResourceRegistry() {
+	}
+
+	/**
+	 * @return The registry used by all games
+	 */
+	public static ResourceRegistry global() {
+		return GLOBAL;
+	}
+
+	/**
+	 * @param resource The resource to get the ordinal for
+	 * @return The ordinal of the resource, registering it if it has not been used before
+	 */
+	public int ordinal(ECSResource resource) {
+		Integer ordinal = ordinals.get(resource);
+		return ordinal != null ? ordinal : register(resource);
+	}
+
+	private synchronized int register(ECSResource resource) {
+		Integer ordinal = ordinals.get(resource);
+		if (ordinal != null) {
+			return ordinal;
+		}
+		ECSResource[] grown = Arrays.copyOf(resources, resources.length + 1);
+		grown[grown.length - 1] = resource;
+		long[] kinds = Arrays.copyOf(stateKinds, grown.length);
+		kinds[grown.length - 1] = StateHash.kind(resource.toString());
+		// publish the resource before its ordinal, so that any ordinal that can be seen can also be looked up
+		stateKinds = kinds;
+		resources = grown;
+		ordinals.put(resource, grown.length - 1);
+		return grown.length - 1;
+	}
+
+	/**
+	 * @param ordinal An ordinal returned by {@link #ordinal(ECSResource)}
+	 * @return The resource with the specified ordinal
+	 */
+	public ECSResource getResource(int ordinal) {
+		return resources[ordinal];
+	}
+
+	/**
+	 * @param ordinal An ordinal returned by {@link #ordinal(ECSResource)}
+	 * @return The {@link StateHash#kind(String) state hash kind} of the resource, which only depends on the name of the resource
+	 */
+	public long getStateKind(int ordinal) {
+		return stateKinds[ordinal];
+	}
+
+	/**
+	 * @return The number of resources that have been registered
+	 */
+	public int size() {
+		return resources.length;
+	}
+
+}
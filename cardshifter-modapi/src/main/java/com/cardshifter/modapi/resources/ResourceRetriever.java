@@ -1,7 +1,6 @@
 package com.cardshifter.modapi.resources;
 
 import java.util.Objects;
-import java.util.Optional;
 
 import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.Entity;
@@ -9,6 +8,13 @@ import com.cardshifter.modapi.base.Entity;
 public class ResourceRetriever {
 
 	private final ECSResource resource;
+	
+	/**
+	 * The ordinal of the resource in the global {@link ResourceRegistry}, or -1 if it has not been looked up yet.
+	 * Racing lookups are harmless since they always find the same ordinal. Volatile so that a thread that sees
+	 * the ordinal also sees the registry entry for it.
+	 */
+	private volatile int ordinal = -1;
 
 	ResourceRetriever(ECSResource resource) {
 		this.resource = resource;
@@ -34,7 +40,7 @@ public class ResourceRetriever {
 	public boolean has(Entity entity) {
 		Objects.requireNonNull(entity, "Cannot retrieve resource map for null entity");
 		ECSResourceMap map = entity.getComponent(ECSResourceMap.class);
-		return map != null && map.get(resource).isPresent();
+		return map != null && map.has(resource);
 	}
 
 	public ECSResourceData resFor(Entity entity) {
@@ -55,8 +61,16 @@ public class ResourceRetriever {
 		if (map == null) {
 			return defaultValue;
 		}
-		Optional<ECSResourceData> resData = map.get(resource);
-		return !resData.isPresent() ? defaultValue : resData.get().get();
+		return map.getOrDefault(ordinal(), defaultValue);
+	}
+	
+	private int ordinal() {
+		int cached = ordinal;
+		if (cached < 0) {
+			cached = ResourceRegistry.global().ordinal(resource);
+			ordinal = cached;
+		}
+		return cached;
 	}
 	
 }
@@ -5,8 +5,11 @@ import java.util.Map;
 
 import com.cardshifter.api.config.PlayerConfig;
 import com.cardshifter.modapi.base.Component;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.ForkableComponent;
+import com.cardshifter.modapi.base.GameFork;
 
-public class ConfigComponent extends Component {
+public class ConfigComponent extends Component implements ForkableComponent {
 	
 	private final Map<String, PlayerConfig> configs = new HashMap<>();
 	private boolean configured;
@@ -37,4 +40,12 @@ public class ConfigComponent extends Component {
 		return null;
 	}
 
+	@Override
+	public Component fork(Entity copyTo, GameFork fork) {
+		ConfigComponent copy = new ConfigComponent();
+		copy.configs.putAll(configs);
+		copy.configured = configured;
+		return copy;
+	}
+
 }
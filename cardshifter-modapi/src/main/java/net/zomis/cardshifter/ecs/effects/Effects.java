@@ -6,8 +6,10 @@ import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.GameFork;
 import com.cardshifter.modapi.cards.BattlefieldComponent;
 import com.cardshifter.modapi.cards.ZoneChangeEvent;
+import com.cardshifter.modapi.events.EntityEvent;
 import com.cardshifter.modapi.events.EntityRemoveEvent;
 import com.cardshifter.modapi.events.IEvent;
 import com.cardshifter.modapi.resources.ECSResource;
@@ -28,6 +30,11 @@ public class Effects {
                     handler.accept(e, event);
                 }
             }
+
+            @Override
+            public ECSSystem fork(GameFork fork) {
+                return fork.start(triggerSystem(eventClass, interestingEvents, handler).apply(fork.entity(e)));
+            }
         };
     }
 
@@ -43,6 +50,55 @@ public class Effects {
                     handler.accept(e, event);
                 }
             }
+
+            @Override
+            public ECSSystem fork(GameFork fork) {
+                return fork.start(triggerSystemBefore(eventClass, interestingEvents, handler).apply(fork.entity(e)));
+            }
+        };
+    }
+
+    /**
+     * Creates a system that is only notified about events whose subject is the entity that the system is created for.
+     * The handler is dispatched through the entity index of the event executor, so it does not run for events
+     * about other entities.
+     *
+     * @param eventClass The class of the event
+     * @param handler The handler to call after the event, with the entity as first parameter
+     * @return A function creating the system for an entity
+     */
+    public <T extends EntityEvent> Function<Entity, ECSSystem> ownTriggerSystem(Class<T> eventClass, BiConsumer<Entity, T> handler) {
+        return e -> new ECSSystem() {
+            @Override
+            public void startGame(ECSGame game) {
+                game.getEvents().registerEntityHandlerAfter(this, e, eventClass, event -> handler.accept(e, event));
+            }
+
+            @Override
+            public ECSSystem fork(GameFork fork) {
+                return fork.start(ownTriggerSystem(eventClass, handler).apply(fork.entity(e)));
+            }
+        };
+    }
+
+    /**
+     * Same as {@link #ownTriggerSystem(Class, BiConsumer)} but the handler is called before the event
+     *
+     * @param eventClass The class of the event
+     * @param handler The handler to call before the event, with the entity as first parameter
+     * @return A function creating the system for an entity
+     */
+    public <T extends EntityEvent> Function<Entity, ECSSystem> ownTriggerSystemBefore(Class<T> eventClass, BiConsumer<Entity, T> handler) {
+        return e -> new ECSSystem() {
+            @Override
+            public void startGame(ECSGame game) {
+                game.getEvents().registerEntityHandlerBefore(this, e, eventClass, event -> handler.accept(e, event));
+            }
+
+            @Override
+            public ECSSystem fork(GameFork fork) {
+                return fork.start(ownTriggerSystemBefore(eventClass, handler).apply(fork.entity(e)));
+            }
         };
     }
 
@@ -80,14 +136,32 @@ public class Effects {
 
 		@Override
 		public void startGame(ECSGame game) {
-			game.getEvents().registerHandlerAfter(systemToRemove, EntityRemoveEvent.class, this::removeCheck);
-			game.getEvents().registerHandlerAfter(systemToRemove, ZoneChangeEvent.class, this::removeCheck);
+			registerHandlers(game);
 			game.addSystem(systemToRemove);
 		}
+
+		private void registerHandlers(ECSGame game) {
+			game.getEvents().registerEntityHandlerAfter(this, owningEntity, EntityRemoveEvent.class, this::removeCheck);
+			game.getEvents().registerEntityHandlerAfter(this, owningEntity, ZoneChangeEvent.class, this::removeCheck);
+		}
+
+		/**
+		 * The system that is added is forked by itself, as it is also a system of the game
+		 */
+		@Override
+		public ECSSystem fork(GameFork fork) {
+			ECSSystem system = fork.system(systemToRemove);
+			if (system == null) {
+				return null;
+			}
+			InGameSystem copy = new InGameSystem(fork.entity(owningEntity), system);
+			copy.registerHandlers(fork.getGame());
+			return copy;
+		}
 		
 		private void removeCheck(EntityRemoveEvent event) {
 			if (event.getEntity() == owningEntity) {
-				event.getEntity().getGame().removeSystem(systemToRemove);
+				remove(event.getEntity().getGame());
 			}
 		}
 		
@@ -96,9 +170,14 @@ public class Effects {
 				return;
 			}
 			if (event.getCard() == owningEntity) {
-				event.getCard().getGame().removeSystem(systemToRemove);
+				remove(event.getCard().getGame());
 			}
 		}
+
+		private void remove(ECSGame game) {
+			game.removeSystem(systemToRemove);
+			game.removeSystem(this);
+		}
 	}
 
 }
@@ -38,7 +38,10 @@ public class EntityCommand implements CommandHandle<EntityInspectParameters> {
 	public void handle(CommandContext command, EntityInspectParameters parameters) {
 		ServerGame game = command.getServer().getGames().get(parameters.gameId);
 		Objects.requireNonNull(game, "No such game " + parameters.gameId);
-		
+		game.execute(() -> inspect(command, game, parameters));
+	}
+
+	private void inspect(CommandContext command, ServerGame game, EntityInspectParameters parameters) {
 		Entity entity = game.getGameModel().getEntity(parameters.entity);
 		if (entity == null) {
 			if (parameters.component == null) {
@@ -63,6 +63,10 @@ public class ReplayAllCommand implements CommandHandle<ReplayAllParameters> {
 		
 		String actualMod = replay.getModName() != null ? replay.getModName() : mod;
 		TCGGame game = (TCGGame) server.createGame(actualMod);
+		return game.submit(() -> playReplay(server, game, replay)).join();
+	}
+
+	private boolean playReplay(Server server, TCGGame game, ReplayRecordSystem replay) {
 		ReplayPlaybackSystem playback = new ReplayPlaybackSystem(game.getGameModel(), replay);
 		game.getGameModel().addSystem(playback);
 		FakeClient fake1 = new FakeClient(server, e -> {});
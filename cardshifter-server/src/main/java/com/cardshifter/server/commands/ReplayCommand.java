@@ -49,6 +49,10 @@ public class ReplayCommand implements CommandHandle<ReplayParameters> {
 		}
 		
 		TCGGame game = (TCGGame) command.getServer().createGame(actualMod);
+		game.execute(() -> startReplay(command, game, replay));
+	}
+
+	private void startReplay(CommandContext command, TCGGame game, ReplayRecordSystem replay) {
 		ReplayPlaybackSystem playback = new ReplayPlaybackSystem(game.getGameModel(), replay);
 		game.getGameModel().addSystem(playback);
 
@@ -86,7 +86,8 @@ public class GameInvite implements IdObject {
 	public boolean start() {
 		logger.info(this + " Game Start! " + players);
 		Collections.shuffle(players, random);
-		game.start(players);
+		List<ClientIO> gamePlayers = new ArrayList<>(players);
+		game.execute(() -> game.start(gamePlayers));
 		chatArea.broadcast("Server", players.stream().map(io -> io.getName()).collect(Collectors.joining(" and ")) + " are now playing game " + game.getId());
 		this.removeInvite();
 		return true;
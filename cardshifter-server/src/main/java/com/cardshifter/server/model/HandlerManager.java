@@ -32,6 +32,7 @@ public class HandlerManager {
 
         // Directly game-related
         addHandler("use", UseAbilityMessage.class, handlers::useAbility);
+        addHandler("useAll", UseAbilitiesMessage.class, handlers::useAbilities);
         addHandler("requestTargets", RequestTargetsMessage.class, handlers::requestTargets);
         addHandler("playerconfig", PlayerConfigMessage.class, handlers::incomingConfig);
     }
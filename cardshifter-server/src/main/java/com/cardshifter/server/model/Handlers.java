@@ -25,6 +25,7 @@ import com.cardshifter.api.incoming.LoginMessage;
 import com.cardshifter.api.incoming.RequestTargetsMessage;
 import com.cardshifter.api.incoming.ServerQueryMessage;
 import com.cardshifter.api.incoming.StartGameRequest;
+import com.cardshifter.api.incoming.UseAbilitiesMessage;
 import com.cardshifter.api.incoming.UseAbilityMessage;
 import com.cardshifter.api.outgoing.UserStatusMessage.Status;
 import com.cardshifter.api.outgoing.WelcomeMessage;
@@ -60,9 +61,11 @@ public class Handlers {
 				TCGGame game = (TCGGame) server.createGame(message.getMessage());
 				game.addPlayer(client);
 				game.addPlayer(new FakeClient(server, e -> {}));
-				if (!game.preStartForConfiguration()) {
-					client.sendToClient(new ServerErrorMessage("There is no configuration required for mod " + message.getMessage()));
-				}
+				game.execute(() -> {
+					if (!game.preStartForConfiguration()) {
+						client.sendToClient(new ServerErrorMessage("There is no configuration required for mod " + message.getMessage()));
+					}
+				});
 				
 				break;
             case STATUS:
@@ -148,12 +151,17 @@ public class Handlers {
 
 	public void useAbility(UseAbilityMessage message, ClientIO client) {
 		TCGGame game = (TCGGame) server.getGames().get(message.getGameId());
-		game.handleMove(message, client);
+		game.execute(() -> game.handleMove(message, client));
+	}
+
+	public void useAbilities(UseAbilitiesMessage message, ClientIO client) {
+		TCGGame game = (TCGGame) server.getGames().get(message.getGameId());
+		game.execute(() -> game.handleMoves(message, client));
 	}
 
 	public void requestTargets(RequestTargetsMessage message, ClientIO client) {
 		TCGGame game = (TCGGame) server.getGames().get(message.getGameId());
-		game.informAboutTargets(message, client);
+		game.execute(() -> game.informAboutTargets(message, client));
 	}
 
 	public void chat(ChatMessage message, ClientIO client) {
@@ -169,7 +177,7 @@ public class Handlers {
 	
 	public void incomingConfig(PlayerConfigMessage message, ClientIO client) {
 		TCGGame game = (TCGGame) server.getGames().get(message.getGameId());
-		game.incomingPlayerConfig(message, client);
+		game.execute(() -> game.incomingPlayerConfig(message, client));
 	}
 	
 }
@@ -48,7 +48,7 @@ public class MainServer {
 	/**
 	 * ModCollection is where the Phrancis mods are initialized
 	 */
-	private final ModCollection mods = ModCollection.defaultMods();
+	private final ModCollection mods = new ModCollection(server.getSearchPool()).loadDefault();
     private final ServerConfiguration config;
 
     private Thread consoleThread;
@@ -88,7 +88,7 @@ public class MainServer {
 			
 			mods.getAvailableMods().forEach(name ->
 				server.addGameFactory(name, (serv, id) ->
-					new TCGGame(aiExecutor, name, id, mods.getModFor(name))));
+					new TCGGame(aiExecutor, server.getGamePool(), name, id, mods.getModFor(name))));
 			
 			logger.info("Started");
 		}
@@ -125,7 +125,7 @@ public class MainServer {
         ServerGame game = server.createGame(command.getParameter(1));
         FakeAIClientTCG ai1 = new FakeAIClientTCG(server, mods.getAIs().get("Fighter"));
         FakeAIClientTCG ai2 = new FakeAIClientTCG(server, mods.getAIs().get("Idiot"));
-        game.start(Arrays.asList(ai1, ai2));
+        game.execute(() -> game.start(Arrays.asList(ai1, ai2)));
     }
 
 	/**
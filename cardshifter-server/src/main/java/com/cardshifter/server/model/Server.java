@@ -2,6 +2,8 @@ package com.cardshifter.server.model;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -48,10 +50,14 @@ public class Server implements ClientServerInterface {
 	private final AtomicReference<ClientIO> playAny = new AtomicReference<>();
 
 	private final ScheduledExecutorService scheduler;
+	private final ExecutorService gamePool;
+	private final ForkJoinPool searchPool;
 	private final ChatArea mainChat;
 
 	public Server() {
 		this.scheduler = Executors.newScheduledThreadPool(2, new ThreadFactoryBuilder().setNameFormat("ai-thread-%d").build());
+		this.gamePool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactoryBuilder().setNameFormat("game-thread-%d").build());
+		this.searchPool = new ForkJoinPool(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
 		mainChat = this.newChatRoom("Main");
 	}
 	
@@ -242,6 +248,22 @@ public class Server implements ClientServerInterface {
 		return scheduler;
 	}
 	
+	/**
+	 * 
+	 * @return The shared thread pool that runs the tasks of all games
+	 */
+	public ExecutorService getGamePool() {
+		return gamePool;
+	}
+	
+	/**
+	 * 
+	 * @return The shared pool that AIs search for their actions on, separate from the pool that runs the games
+	 */
+	public ForkJoinPool getSearchPool() {
+		return searchPool;
+	}
+	
 	/**
 	 * Closes all clients, shuts down all handlers, shuts down the scheduler
 	 */
@@ -257,6 +279,8 @@ public class Server implements ClientServerInterface {
 			}
 		}
 		this.scheduler.shutdown();
+		this.gamePool.shutdown();
+		this.searchPool.shutdown();
 	}
 	
 	/**
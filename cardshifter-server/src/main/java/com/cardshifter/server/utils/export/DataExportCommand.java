@@ -2,9 +2,11 @@ package com.cardshifter.server.utils.export;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -44,12 +46,25 @@ public class DataExportCommand implements CommandHandler.CommandHandle<DataExpor
 
         ObjectMapper mapper = createMapper();
 
+        // the entities are serialized in the game, as they may change as soon as the task is done
         List<Entity> list = new ArrayList<>();
-        gatherInterestingEntities(list, game);
+        AtomicReference<byte[]> json = new AtomicReference<>();
+        game.submit(() -> {
+            gatherInterestingEntities(list, game);
+            try {
+                json.set(mapper.writeValueAsBytes(list));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }).join();
+        if (json.get() == null) {
+            command.sendChatResponse("Unable to export cards of game " + game.getId());
+            return;
+        }
 
         File file = new File("game-" + game.getId() + ".json");
         try {
-            mapper.writeValue(file, list);
+            Files.write(file.toPath(), json.get());
         } catch (IOException e) {
             e.printStackTrace();
         }
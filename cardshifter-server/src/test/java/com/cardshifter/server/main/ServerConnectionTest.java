@@ -26,6 +26,7 @@ import com.cardshifter.api.incoming.ServerQueryMessage;
 import com.cardshifter.api.incoming.ServerQueryMessage.Request;
 import com.cardshifter.api.incoming.StartGameRequest;
 import com.cardshifter.api.incoming.UseAbilityMessage;
+import com.cardshifter.api.messages.Message;
 import com.cardshifter.api.outgoing.UserStatusMessage.Status;
 import com.cardshifter.core.game.ServerGame;
 import com.cardshifter.core.game.TCGGame;
@@ -114,7 +115,7 @@ public class ServerConnectionTest {
 		
 		client2.send(new ServerQueryMessage(Request.USERS));
 		client2.await(AvailableModsMessage.class);
-		List<UserStatusMessage> users = client2.awaitMany(6, UserStatusMessage.class);
+		List<UserStatusMessage> users = client2.awaitMany(7, UserStatusMessage.class);
 		System.out.println("Online users: " + users);
 
 		// There is no determined order in which the UserStatusMessages are received, so it is harder to make any assertions.
@@ -124,6 +125,7 @@ public class ServerConnectionTest {
         assertUserFound(users, "AI Loser");
         assertUserFound(users, "AI Medium");
         assertUserFound(users, "AI Idiot");
+        assertUserFound(users, "AI Monte Carlo");
 
 		client2.disconnect();
 		
@@ -156,8 +158,8 @@ public class ServerConnectionTest {
 		assertEquals(2, game.getGameModel().getEntitiesWithComponent(PlayerComponent.class).size());
 		assertTrue(game.hasPlayer(server.getClients().get(userId)));
 		assertTrue(game.hasPlayer(server.getClients().get(2)));
-		game.incomingPlayerConfig(new PlayerConfigMessage(game.getId(), getTestMod(), new HashMap<>()), server.getClients().get(2));
-		game.incomingPlayerConfig(new PlayerConfigMessage(game.getId(), getTestMod(), new HashMap<>()), server.getClients().get(userId));
+		game.execute(() -> game.incomingPlayerConfig(new PlayerConfigMessage(game.getId(), getTestMod(), new HashMap<>()), server.getClients().get(2)));
+		game.execute(() -> game.incomingPlayerConfig(new PlayerConfigMessage(game.getId(), getTestMod(), new HashMap<>()), server.getClients().get(userId)));
         client1.awaitUntil(ResetAvailableActionsMessage.class);
 		assertEquals(ECSGameState.RUNNING, game.getState());
 	}
@@ -169,18 +171,20 @@ public class ServerConnectionTest {
 		TCGGame game = (TCGGame) server.getGames().get(1);
 		ClientIO io = server.getClients().get(userId);
 		assertEquals(2, game.getGameModel().getEntitiesWithComponent(PlayerComponent.class).size());
-		game.incomingPlayerConfig(new PlayerConfigMessage(game.getId(), getTestMod(), new HashMap<>()), io);
+		game.submit(() -> {
+			game.incomingPlayerConfig(new PlayerConfigMessage(game.getId(), getTestMod(), new HashMap<>()), io);
+			Entity ai = game.getGameModel().getEntitiesWithComponent(AIComponent.class).stream().findFirst().get();
+			ai.getComponent(AIComponent.class).setDelay(0);
+			return null;
+		}).join();
 		assertEquals(ECSGameState.RUNNING, game.getGameModel().getGameState());
 		Entity human = game.playerFor(io);
-		Entity ai = game.getGameModel().getEntitiesWithComponent(AIComponent.class).stream().findFirst().get();
-		ai.getComponent(AIComponent.class).setDelay(0);
 		
 		CardshifterAI humanActions = new ScoringAI(AIs.medium());
         client1.awaitUntil(ResetAvailableActionsMessage.class);
-        client1.awaitUntil(ResetAvailableActionsMessage.class);
         client1.awaitUntil(UsableActionMessage.class);
 		while (!game.isGameOver()) {
-			ECSAction action = humanActions.getAction(human);
+			ECSAction action = game.submit(() -> humanActions.getAction(human)).join();
 			if (action != null) {
                 System.out.println("Perform " + action);
 				int[] targets = new int[]{ };
@@ -190,7 +194,17 @@ public class ServerConnectionTest {
 				UseAbilityMessage message = new UseAbilityMessage(game.getId(), action.getOwner().getId(), action.getName(), targets);
 				System.out.println("Sending message: " + message);
 				client1.send(message);
-                client1.awaitUntil(ResetAvailableActionsMessage.class);
+                // an accepted move only sends the changes of the available actions, never all of them again
+                boolean rejected = false;
+                Message response;
+                do {
+                    response = client1.await(Message.class);
+                    rejected = rejected || response instanceof ServerErrorMessage;
+                } while (!(response instanceof UsableActionMessage || response instanceof RemoveUsableActionMessage
+                        || response instanceof ResetAvailableActionsMessage));
+                if (response instanceof ResetAvailableActionsMessage) {
+                    assertTrue("Available actions were reset after " + message, rejected || game.isGameOver());
+                }
 			} else {
                 System.out.println("Nothing to perform, busy-loop");
             }
@@ -241,13 +255,14 @@ public class ServerConnectionTest {
 
 		client1.send(new ServerQueryMessage(Request.USERS, ""));
 
-		List<UserStatusMessage> users = client1.awaitMany(5, UserStatusMessage.class);
+		List<UserStatusMessage> users = client1.awaitMany(6, UserStatusMessage.class);
 
 		assertUserFound(users, client1.getName());
 		assertUserFound(users, "AI Fighter");
 		assertUserFound(users, "AI Loser");
 		assertUserFound(users, "AI Medium");
 		assertUserFound(users, "AI Idiot");
+		assertUserFound(users, "AI Monte Carlo");
 
 		// There shouldn't be a UserStatusMessage for client2
 		assertNoMessage(client1);
@@ -42,7 +42,9 @@ cardExtension('creature') {String type ->
     def entity = entity()
     def actions = entity.getComponent(ActionComponent)
     def playAction = new ECSAction(entity, 'Play', {act -> true }, {act -> })
-    def attackAction = new ECSAction(entity, 'Attack', {act -> true }, {act -> }).addTargetSet(1, 1)
+    // creatures can only attack players and cards on the battlefield
+    def attackTargets = new TargetDomain().zones('Battlefield').players()
+    def attackAction = new ECSAction(entity, 'Attack', {act -> true }, {act -> }).addTargetSet(1, 1, attackTargets)
 
     actions.addAction(playAction)
     actions.addAction(attackAction)
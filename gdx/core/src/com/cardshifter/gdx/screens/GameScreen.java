@@ -205,6 +205,15 @@ public class GameScreen implements Screen, TargetableCallback {
                 
             }
         });
+        handlers.put(RemoveUsableActionMessage.class, new SpecificHandler<RemoveUsableActionMessage>() {
+            @Override
+            public void handle(RemoveUsableActionMessage message) {
+                EntityView view = entityViews.get(message.getId());
+                if (view != null) {
+                    view.removeUsableAction(message.getAction());
+                }
+            }
+        });
         handlers.put(CardInfoMessage.class, new SpecificHandler<CardInfoMessage>() {
             @Override
             public void handle(CardInfoMessage message) {
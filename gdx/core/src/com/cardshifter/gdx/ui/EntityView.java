@@ -12,6 +12,7 @@ public interface EntityView {
     int getId();
 
     void usableAction(UsableActionMessage message);
+    void removeUsableAction(String action);
     void clearUsableActions();
 
     void entityRemoved();
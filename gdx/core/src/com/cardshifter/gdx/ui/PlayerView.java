@@ -5,6 +5,7 @@ import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.ui.HorizontalGroup;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.cardshifter.api.outgoing.PlayerMessage;
 import com.cardshifter.api.outgoing.UsableActionMessage;
@@ -85,6 +86,16 @@ public class PlayerView implements EntityView {
         actions.addActor(button.getButton());
     }
 
+    @Override
+    public void removeUsableAction(String action) {
+        for (Actor actor : actions.getChildren()) {
+            if (actor instanceof TextButton && ((TextButton) actor).getText().toString().equals(action)) {
+                actor.remove();
+                return;
+            }
+        }
+    }
+
     @Override
     public void clearUsableActions() {
         actions.clearChildren();
@@ -73,6 +73,11 @@ public class CardViewBig implements CardView {
 
     }
 
+    @Override
+    public void removeUsableAction(String action) {
+
+    }
+
     @Override
     public void clearUsableActions() {
 
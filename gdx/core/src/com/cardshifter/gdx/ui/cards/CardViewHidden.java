@@ -59,6 +59,11 @@ public class CardViewHidden extends DefaultCardView {
 
     }
 
+    @Override
+    public void removeUsableAction(String action) {
+
+    }
+
     @Override
     public void clearUsableActions() {
 
@@ -283,6 +283,19 @@ public class CardViewSmall extends DefaultCardView {
         actions.add(message);
     }
 
+    @Override
+    public void removeUsableAction(String action) {
+        ListIterator<UsableActionMessage> it = actions.listIterator();
+        while (it.hasNext()) {
+            if (it.next().getAction().equals(action)) {
+                it.remove();
+            }
+        }
+        if (actions.isEmpty()) {
+            table.setColor(1, 1, 1, 0.5f);
+        }
+    }
+
     @Override
     public void clearUsableActions() {
         table.setColor(1, 1, 1, 0.5f);
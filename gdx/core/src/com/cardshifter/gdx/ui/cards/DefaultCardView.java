@@ -82,6 +82,11 @@ public abstract class DefaultCardView implements CardView {
 
     }
 
+    @Override
+    public void removeUsableAction(String action) {
+
+    }
+
     @Override
     public void clearUsableActions() {
 